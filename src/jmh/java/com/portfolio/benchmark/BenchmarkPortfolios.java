@@ -0,0 +1,63 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public final class BenchmarkPortfolios {
+    private static final AssetType[] TYPES = {AssetType.STOCK, AssetType.BOND, AssetType.ETF, AssetType.MUTUAL_FUND};
+
+    public enum Skew {
+        // every holding close to its target
+        UNIFORM,
+        // holding weights grow linearly with their rank
+        LINEAR,
+        // a few holdings dominate the book (Zipf, s = 1)
+        ZIPF
+    }
+
+    private BenchmarkPortfolios() {
+    }
+
+    public static Portfolio create(int assetCount, Skew skew, long seed) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("Benchmark-" + assetCount + "-" + skew);
+        portfolio.setCashBalance(10_000.0);
+        portfolio.setAssets(createAssets(assetCount, skew, seed));
+        return portfolio;
+    }
+
+    public static List<Asset> createAssets(int assetCount, Skew skew, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Asset> assets = new ArrayList<>(assetCount);
+        double target = 1.0 / assetCount;
+        for (int i = 0; i < assetCount; i++) {
+            double price = 10 + random.nextDouble() * 490;
+            double weight = weight(skew, i, assetCount, random);
+            assets.add(Asset.builder()
+                    .symbol("SYM" + i)
+                    .name("Benchmark asset " + i)
+                    .quantity(Math.max(1, Math.round(weight * 1_000_000 / price)))
+                    .currentPrice(price)
+                    .targetAllocation(target)
+                    .type(TYPES[i % TYPES.length])
+                    .build());
+        }
+        return assets;
+    }
+
+    private static double weight(Skew skew, int rank, int count, SplittableRandom random) {
+        switch (skew) {
+            case LINEAR:
+                return 2.0 * (rank + 1) / (count + 1);
+            case ZIPF:
+                return count / ((rank + 1) * Math.log(count + 1.0));
+            default:
+                return 0.95 + random.nextDouble() * 0.1;
+        }
+    }
+}
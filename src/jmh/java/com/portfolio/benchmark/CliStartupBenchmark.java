@@ -0,0 +1,102 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.persistence.SnapshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Wall-clock time of a complete headless CLI run in a fresh JVM, from process
+// launch to exit. Setup also checks that no Swing or FlatLaf class is loaded.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CliStartupBenchmark {
+    private Path directory;
+    private Path snapshotFile;
+    private Path jsonFile;
+    private String java;
+    private String classPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        List<Portfolio> book = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            book.add(BenchmarkPortfolios.create(50, BenchmarkPortfolios.Skew.LINEAR, i));
+        }
+        directory = Files.createTempDirectory("cli-benchmark");
+        snapshotFile = directory.resolve("book.snap");
+        jsonFile = directory.resolve("book.json");
+        new SnapshotWriter().write(snapshotFile, book);
+        new JsonPortfolioExporter().write(jsonFile, book);
+        java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        classPath = System.getProperty("java.class.path");
+
+        String loadedClasses = launch("-verbose:class", snapshotFile.toString());
+        if (loadedClasses.contains("javax.swing.") || loadedClasses.contains("com.formdev.")) {
+            throw new IllegalStateException("Headless CLI loaded Swing or FlatLaf classes");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String snapshotInput() throws IOException, InterruptedException {
+        return launch(null, snapshotFile.toString());
+    }
+
+    @Benchmark
+    public String jsonInput() throws IOException, InterruptedException {
+        return launch(null, jsonFile.toString());
+    }
+
+    private String launch(String jvmFlag, String input) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-XX:TieredStopAtLevel=1");
+        if (jvmFlag != null) {
+            command.add(jvmFlag);
+        }
+        command.add("-cp");
+        command.add(classPath);
+        command.add("com.portfolio.cli.RebalanceCli");
+        command.add(input);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("CLI failed: " + output);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.ConcurrentPortfolio;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Seven reader threads computing drift against one writer applying price
+// ticks: lock-free snapshots versus a Portfolio guarded by its monitor.
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentPortfolioBenchmark {
+    @Param({"100", "1000"})
+    private int assetCount;
+
+    private Portfolio locked;
+    private ConcurrentPortfolio concurrent;
+
+    @Setup
+    public void setUp() {
+        locked = BenchmarkPortfolios.create(assetCount, BenchmarkPortfolios.Skew.ZIPF, 42);
+        concurrent = ConcurrentPortfolio.of(locked);
+    }
+
+    private String randomSymbol() {
+        return "SYM" + ThreadLocalRandom.current().nextInt(assetCount);
+    }
+
+    private static double randomPrice() {
+        return 10 + ThreadLocalRandom.current().nextDouble() * 490;
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(7)
+    public double snapshotRead() {
+        PortfolioSnapshot snapshot = concurrent.snapshot();
+        return snapshot.totalDeviation();
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotWrite() {
+        concurrent.updatePrice(randomSymbol(), randomPrice());
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(7)
+    public double lockedRead() {
+        synchronized (locked) {
+            return locked.getTotalDeviation();
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedWrite() {
+        String symbol = randomSymbol();
+        double price = randomPrice();
+        synchronized (locked) {
+            locked.updatePrice(symbol, price);
+        }
+    }
+}
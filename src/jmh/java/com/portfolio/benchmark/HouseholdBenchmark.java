@@ -0,0 +1,73 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.household.AccountType;
+import com.portfolio.household.Household;
+import com.portfolio.household.HouseholdRebalancingStrategy;
+import com.portfolio.household.HouseholdTrades;
+import com.portfolio.model.Portfolio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// A price change in one account applied through the household's listener,
+// against reloading that account, plus a full household rebalance.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HouseholdBenchmark {
+    private static final AccountType[] TYPES = AccountType.values();
+
+    @Param({"10", "50"})
+    private int accountCount;
+
+    @Param({"1000", "5000"})
+    private int positions;
+
+    private Portfolio[] accounts;
+    private Household household;
+    private final HouseholdRebalancingStrategy strategy = new HouseholdRebalancingStrategy();
+    private final HouseholdTrades trades = new HouseholdTrades();
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() {
+        accounts = new Portfolio[accountCount];
+        household = new Household("Benchmark");
+        for (int a = 0; a < accountCount; a++) {
+            accounts[a] = BenchmarkPortfolios.create(positions, BenchmarkPortfolios.Skew.ZIPF, a);
+            household.addAccount(accounts[a], TYPES[a % TYPES.length]);
+        }
+    }
+
+    @Benchmark
+    public double incrementalPriceUpdate() {
+        Portfolio account = accounts[random.nextInt(accountCount)];
+        account.updatePrice("SYM" + random.nextInt(8), 10 + random.nextDouble() * 490);
+        return household.getTotalValue();
+    }
+
+    @Benchmark
+    public double refreshAccount() {
+        household.refresh(accounts[random.nextInt(accountCount)]);
+        return household.getTotalValue();
+    }
+
+    @Benchmark
+    public HouseholdTrades rebalance() {
+        return strategy.calculateRebalancingTrades(household, 0.0001, trades);
+    }
+}
@@ -0,0 +1,70 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.Durability;
+import com.portfolio.persistence.MutationJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Mutations per second seen by the mutating threads with the journal attached.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JournalBenchmark {
+    @Param({"ASYNC", "GROUP_COMMIT"})
+    private Durability durability;
+
+    private Path file;
+    private MutationJournal journal;
+
+    @State(Scope.Thread)
+    public static class ThreadPortfolio {
+        Portfolio portfolio;
+        double price = 100;
+
+        @Setup
+        public void setUp(JournalBenchmark benchmark) {
+            portfolio = BenchmarkPortfolios.create(50, BenchmarkPortfolios.Skew.UNIFORM, Thread.currentThread().getId());
+            benchmark.journal.attach(portfolio);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("journal-benchmark", ".journal");
+        journal = MutationJournal.open(file, durability);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void updatePrice(ThreadPortfolio state) {
+        state.price = state.price > 200 ? 100 : state.price + 0.01;
+        state.portfolio.updatePrice("SYM7", state.price);
+    }
+}
@@ -0,0 +1,78 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.metrics.Metrics;
+import com.portfolio.metrics.Timer;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import com.portfolio.service.PortfolioRebalancer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the instrumentation itself: compare the OFF rows with ON and JFR.
+// emptyTimer isolates one start/stop pair; the other benchmarks show it against
+// real work on a 50-asset portfolio. JFR rows only pay for events when a
+// recording is running (add -jvmArgs -XX:StartFlightRecording).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    @Param({"OFF", "ON", "JFR"})
+    private Metrics.Mode mode;
+
+    @Param({"50"})
+    private int assetCount;
+
+    private final Timer timer = Metrics.timer("benchmark");
+    private Portfolio portfolio;
+    private PortfolioRebalancer rebalancer;
+
+    @Setup
+    public void setUp() {
+        Metrics.setMode(mode);
+        portfolio = BenchmarkPortfolios.create(assetCount, BenchmarkPortfolios.Skew.LINEAR, 42);
+        rebalancer = new PortfolioRebalancer(new ThresholdRebalancingStrategy(), 0.0001, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Metrics.setMode(Metrics.Mode.OFF);
+        Metrics.reset();
+    }
+
+    @Benchmark
+    public void emptyTimer() {
+        timer.stop(Metrics.start());
+    }
+
+    @Benchmark
+    public double updateTotalValue() {
+        portfolio.updateTotalValue();
+        return portfolio.getTotalValue();
+    }
+
+    @Benchmark
+    public Map<String, Double> getDeviationFromTarget() {
+        return portfolio.getDeviationFromTarget();
+    }
+
+    @Benchmark
+    public Map<String, Double> rebalance() {
+        return rebalancer.rebalance(portfolio);
+    }
+}
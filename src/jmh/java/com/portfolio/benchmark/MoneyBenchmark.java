@@ -0,0 +1,114 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Money;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Valuation and threshold trades three ways: the existing double path, exact
+// long micros, and a BigDecimal reference that produces the same exact results
+// as the micros path.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final double THRESHOLD = 0.0001;
+
+    @Param({"100", "1000", "10000"})
+    private int assetCount;
+
+    private Portfolio portfolio;
+    private final ThresholdRebalancingStrategy strategy = new ThresholdRebalancingStrategy();
+    private long[] tradeMicros;
+    private BigDecimal[] tradeDecimals;
+
+    @Setup
+    public void setUp() {
+        portfolio = BenchmarkPortfolios.create(assetCount, BenchmarkPortfolios.Skew.ZIPF, 42);
+        tradeMicros = new long[assetCount];
+        tradeDecimals = new BigDecimal[assetCount];
+    }
+
+    @Benchmark
+    public double doubleTotalValue() {
+        double sum = portfolio.getCashBalance();
+        List<Asset> assets = portfolio.getAssets();
+        for (int i = 0; i < assets.size(); i++) {
+            sum += assets.get(i).getCurrentValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long microsTotalValue() {
+        return portfolio.getTotalValueMicros();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotalValue() {
+        return bigDecimalTotal();
+    }
+
+    @Benchmark
+    public Map<String, Double> doubleThresholdTrades() {
+        return strategy.calculateRebalancingTrades(portfolio, THRESHOLD);
+    }
+
+    @Benchmark
+    public long[] microsThresholdTrades() {
+        strategy.calculateRebalancingTradeMicros(portfolio, THRESHOLD, tradeMicros);
+        return tradeMicros;
+    }
+
+    @Benchmark
+    public BigDecimal[] bigDecimalThresholdTrades() {
+        BigDecimal total = bigDecimalTotal();
+        BigDecimal limit = scale(total.multiply(Money.toBigDecimal(Money.toMicros(THRESHOLD))));
+        List<Asset> assets = portfolio.getAssets();
+        for (int i = 0; i < assets.size(); i++) {
+            Asset asset = assets.get(i);
+            BigDecimal target = scale(total.multiply(Money.toBigDecimal(Money.toMicros(asset.getTargetAllocation()))));
+            BigDecimal trade = target.subtract(value(asset));
+            tradeDecimals[i] = trade.abs().compareTo(limit) > 0 ? trade : BigDecimal.ZERO;
+        }
+        return tradeDecimals;
+    }
+
+    private BigDecimal bigDecimalTotal() {
+        BigDecimal sum = Money.toBigDecimal(portfolio.getCashBalanceMicros());
+        List<Asset> assets = portfolio.getAssets();
+        for (int i = 0; i < assets.size(); i++) {
+            sum = sum.add(value(assets.get(i)));
+        }
+        return sum;
+    }
+
+    // inputs rounded to micros first, as the micros path does
+    private static BigDecimal value(Asset asset) {
+        return scale(Money.toBigDecimal(asset.getQuantityMicros()).multiply(Money.toBigDecimal(asset.getPriceMicros())));
+    }
+
+    private static BigDecimal scale(BigDecimal value) {
+        return value.setScale(6, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,85 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.TradeList;
+import com.portfolio.strategy.EqualWeightStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioBenchmark {
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int assetCount;
+
+    @Param({"UNIFORM", "LINEAR", "ZIPF"})
+    private BenchmarkPortfolios.Skew skew;
+
+    private Portfolio portfolio;
+    private final ThresholdRebalancingStrategy thresholdStrategy = new ThresholdRebalancingStrategy();
+    private final EqualWeightStrategy equalWeightStrategy = new EqualWeightStrategy();
+    private final TradeList trades = new TradeList();
+
+    @Setup
+    public void setUp() {
+        portfolio = BenchmarkPortfolios.create(assetCount, skew, 42);
+    }
+
+    @Benchmark
+    public Map<String, Double> thresholdRebalance() {
+        return thresholdStrategy.calculateRebalancingTrades(portfolio, 0.0001);
+    }
+
+    @Benchmark
+    public Map<String, Double> equalWeightRebalance() {
+        return equalWeightStrategy.calculateRebalancingTrades(portfolio, 0.0001);
+    }
+
+    @Benchmark
+    public TradeList thresholdRebalanceTradeList() {
+        return thresholdStrategy.calculateRebalancingTrades(portfolio, 0.0001, trades);
+    }
+
+    @Benchmark
+    public TradeList equalWeightRebalanceTradeList() {
+        return equalWeightStrategy.calculateRebalancingTrades(portfolio, 0.0001, trades);
+    }
+
+    @Benchmark
+    public Map<String, Double> getCurrentAllocations() {
+        return portfolio.getCurrentAllocations();
+    }
+
+    @Benchmark
+    public Map<String, Double> getDeviationFromTarget() {
+        return portfolio.getDeviationFromTarget();
+    }
+
+    @Benchmark
+    public double getTotalDeviation() {
+        return portfolio.getTotalDeviation();
+    }
+
+    @Benchmark
+    public double updateTotalValue() {
+        portfolio.updateTotalValue();
+        return portfolio.getTotalValue();
+    }
+}
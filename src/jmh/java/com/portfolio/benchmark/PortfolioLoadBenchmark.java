@@ -0,0 +1,69 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Building a book one asset at a time or in bulk, then removing half of it.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioLoadBenchmark {
+    @Param({"5000", "50000"})
+    private int assetCount;
+
+    private List<Asset> assets;
+    private List<String> removals;
+
+    @Setup
+    public void setUp() {
+        assets = BenchmarkPortfolios.createAssets(assetCount, BenchmarkPortfolios.Skew.ZIPF, 42);
+        removals = new ArrayList<>();
+        for (int i = 0; i < assetCount; i += 2) {
+            removals.add(assets.get(i).getSymbol());
+        }
+    }
+
+    @Benchmark
+    public Portfolio addOneByOne() {
+        Portfolio portfolio = new Portfolio();
+        for (Asset asset : assets) {
+            portfolio.addAsset(asset);
+        }
+        return portfolio;
+    }
+
+    @Benchmark
+    public Portfolio addAll() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAll(assets);
+        return portfolio;
+    }
+
+    @Benchmark
+    public Portfolio loadAndRemoveHalf() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.addAll(assets);
+        for (String symbol : removals) {
+            portfolio.removeAsset(symbol);
+        }
+        return portfolio;
+    }
+}
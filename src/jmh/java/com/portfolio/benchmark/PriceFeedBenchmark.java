@@ -0,0 +1,64 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.feed.HoldingsIndex;
+import com.portfolio.feed.PriceFeed;
+import com.portfolio.feed.PriceTick;
+import com.portfolio.model.Portfolio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Reports end-to-end ticks per second: publish, coalesce, fan out and drift check.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceFeedBenchmark {
+    private static final int TICKS_PER_INVOCATION = 100_000;
+
+    @Param({"100", "1000"})
+    private int portfolioCount;
+
+    @Param({"50"})
+    private int assetsPerPortfolio;
+
+    private HoldingsIndex holdings;
+    private PriceTick[] ticks;
+
+    @Setup
+    public void setUp() {
+        holdings = new HoldingsIndex();
+        for (int i = 0; i < portfolioCount; i++) {
+            Portfolio portfolio = BenchmarkPortfolios.create(assetsPerPortfolio, BenchmarkPortfolios.Skew.UNIFORM, i);
+            holdings.register(portfolio);
+        }
+        ticks = new PriceTick[TICKS_PER_INVOCATION];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = new PriceTick("SYM" + (i % assetsPerPortfolio), 50 + (i % 1000) * 0.1, i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS_PER_INVOCATION)
+    public long publishAndDrain() throws InterruptedException {
+        PriceFeed feed = new PriceFeed(holdings, 0.05).start();
+        for (PriceTick tick : ticks) {
+            feed.publish(tick);
+        }
+        feed.close();
+        return feed.getTicksApplied();
+    }
+}
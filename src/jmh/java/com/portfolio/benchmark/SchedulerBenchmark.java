@@ -0,0 +1,116 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.scheduler.RebalancePolicy;
+import com.portfolio.scheduler.RebalanceScheduler;
+import com.portfolio.scheduler.SchedulerConfig;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One-second scheduler ticks over portfolios registered on monthly and
+// quarterly dates spread across the month, and re-registering a policy. Both
+// should cost about the same whatever the number of registered portfolios.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SchedulerBenchmark {
+    @Param({"10000", "1000000"})
+    private int registered;
+
+    private final SteppingClock clock = new SteppingClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final SplittableRandom random = new SplittableRandom(9);
+    private RebalanceScheduler scheduler;
+    private RebalancePolicy[] policies;
+    private Portfolio portfolio;
+
+    @Setup
+    public void setUp() {
+        scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .workerThreads(1)
+                .clock(clock)
+                .build(), result -> { });
+        policies = new RebalancePolicy[56];
+        for (int day = 1; day <= 28; day++) {
+            policies[day - 1] = RebalancePolicy.builder().cadence(RebalancePolicy.Cadence.MONTHLY).dayOfMonth(day).build();
+            policies[day + 27] = RebalancePolicy.builder().cadence(RebalancePolicy.Cadence.QUARTERLY).dayOfMonth(day)
+                    .onDrift(true).build();
+        }
+        for (int i = 0; i < registered; i++) {
+            Portfolio account = new Portfolio();
+            account.setName("P" + i);
+            scheduler.register("P" + i, account, policies[i % policies.length]);
+        }
+        portfolio = new Portfolio();
+        portfolio.setName("churn");
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        scheduler.close();
+    }
+
+    @Benchmark
+    public int tick() {
+        clock.step(1000);
+        return scheduler.tick();
+    }
+
+    @Benchmark
+    public void reregister() {
+        scheduler.register("churn", portfolio, policies[random.nextInt(policies.length)]);
+    }
+
+    private static final class SteppingClock extends Clock {
+        private long millis;
+
+        SteppingClock(Instant start) {
+            this.millis = start.toEpochMilli();
+        }
+
+        void step(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
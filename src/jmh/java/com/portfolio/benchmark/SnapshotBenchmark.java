@@ -0,0 +1,89 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.persistence.Snapshot;
+import com.portfolio.persistence.SnapshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Load time of a whole book from the binary snapshot versus JSON. Run with
+// -prof gc: gc.alloc.rate.norm is the heap each format needs to load the book,
+// and lazyOpen shows the footprint of opening a snapshot without decoding it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SnapshotBenchmark {
+    @Param({"1000", "100000"})
+    private int portfolioCount;
+
+    @Param({"20"})
+    private int assetsPerPortfolio;
+
+    private Path directory;
+    private Path snapshotFile;
+    private Path jsonFile;
+    private final JsonPortfolioExporter exporter = new JsonPortfolioExporter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Portfolio> book = new ArrayList<>(portfolioCount);
+        for (int i = 0; i < portfolioCount; i++) {
+            book.add(BenchmarkPortfolios.create(assetsPerPortfolio, BenchmarkPortfolios.Skew.LINEAR, i));
+        }
+        directory = Files.createTempDirectory("snapshot-benchmark");
+        snapshotFile = directory.resolve("book.snap");
+        jsonFile = directory.resolve("book.json");
+        new SnapshotWriter().write(snapshotFile, book);
+        exporter.write(jsonFile, book);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Portfolio> loadBinary() throws IOException {
+        try (Snapshot snapshot = Snapshot.open(snapshotFile)) {
+            return snapshot.loadAll();
+        }
+    }
+
+    @Benchmark
+    public List<Portfolio> loadJson() throws IOException {
+        return exporter.read(jsonFile);
+    }
+
+    @Benchmark
+    public Portfolio lazyOpen() throws IOException {
+        try (Snapshot snapshot = Snapshot.open(snapshotFile)) {
+            return snapshot.getPortfolio(snapshot.size() / 2);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.CostAwareRebalancingStrategy;
+import com.portfolio.strategy.EqualWeightStrategy;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Latency per portfolio plus the trade count and turnover (traded notional as a
+// fraction of portfolio value) each strategy produces for the same book.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyComparisonBenchmark {
+    public enum StrategyKind {
+        THRESHOLD, EQUAL_WEIGHT, COST_AWARE
+    }
+
+    @Param({"50", "200", "500"})
+    private int assetCount;
+
+    @Param({"LINEAR", "ZIPF"})
+    private BenchmarkPortfolios.Skew skew;
+
+    @Param({"THRESHOLD", "EQUAL_WEIGHT", "COST_AWARE"})
+    private StrategyKind strategyKind;
+
+    private Portfolio portfolio;
+    private RebalancingStrategy strategy;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TradeStats {
+        public double tradeCount;
+        public double turnover;
+    }
+
+    @Setup
+    public void setUp() {
+        portfolio = BenchmarkPortfolios.create(assetCount, skew, 7);
+        switch (strategyKind) {
+            case THRESHOLD:
+                strategy = new ThresholdRebalancingStrategy();
+                break;
+            case EQUAL_WEIGHT:
+                strategy = new EqualWeightStrategy();
+                break;
+            default:
+                strategy = new CostAwareRebalancingStrategy();
+        }
+    }
+
+    @Benchmark
+    public Map<String, Double> rebalance(TradeStats stats) {
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, 0.0005);
+        double notional = 0;
+        for (double amount : trades.values()) {
+            notional += Math.abs(amount);
+        }
+        stats.tradeCount = trades.size();
+        stats.turnover = notional / portfolio.getTotalValue();
+        return trades;
+    }
+}
@@ -0,0 +1,88 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.TaxAwareRebalancingStrategy;
+import com.portfolio.tax.LotMethod;
+import com.portfolio.tax.LotSale;
+import com.portfolio.tax.TaxLedger;
+import com.portfolio.tax.TaxLots;
+import com.portfolio.tax.TaxRates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lot selection and a full tax-aware rebalance for a skewed portfolio whose
+// every holding is split into lotsPerSymbol lots bought over ten years.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxLotBenchmark {
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+
+    @Param({"50"})
+    private int assetCount;
+
+    @Param({"100", "5000"})
+    private int lotsPerSymbol;
+
+    private Portfolio portfolio;
+    private TaxLedger ledger;
+    private TaxLots lots;
+    private double price;
+    private TaxAwareRebalancingStrategy strategy;
+
+    @Setup
+    public void setUp() {
+        portfolio = BenchmarkPortfolios.create(assetCount, BenchmarkPortfolios.Skew.LINEAR, 3);
+        ledger = new TaxLedger(TaxRates.of(0.37, 0.20));
+        SplittableRandom random = new SplittableRandom(5);
+        for (Asset asset : portfolio.getAssets()) {
+            double shares = asset.getQuantity() / lotsPerSymbol;
+            for (int i = 0; i < lotsPerSymbol; i++) {
+                ledger.buy(asset.getSymbol(), TODAY.minusDays(1 + random.nextInt(3650)), shares,
+                        asset.getCurrentPrice() * (0.5 + random.nextDouble()));
+            }
+        }
+        Asset first = portfolio.getAssets().get(0);
+        lots = ledger.find(first.getSymbol());
+        price = first.getCurrentPrice();
+        strategy = new TaxAwareRebalancingStrategy(p -> ledger,
+                Clock.fixed(Instant.parse("2024-06-01T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Benchmark
+    public List<LotSale> selectHifo() {
+        return lots.select(lots.getQuantity() * 0.05, LotMethod.HIFO, TODAY, price, ledger.getRates());
+    }
+
+    @Benchmark
+    public List<LotSale> selectTaxOptimal() {
+        return lots.select(lots.getQuantity() * 0.05, LotMethod.TAX_OPTIMAL, TODAY, price, ledger.getRates());
+    }
+
+    @Benchmark
+    public Map<String, Double> rebalance() {
+        return strategy.calculateRebalancingTrades(portfolio, 0.01);
+    }
+}
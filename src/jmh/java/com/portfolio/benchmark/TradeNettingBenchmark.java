@@ -0,0 +1,60 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.SymbolIndex;
+import com.portfolio.service.BlockOrders;
+import com.portfolio.service.TradeNetter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Collecting, netting and allocating a run of trade lines spread over 100k
+// accounts and 5000 symbols.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TradeNettingBenchmark {
+    @Param({"1000000", "3000000"})
+    private int lines;
+
+    private int[] accounts;
+    private int[] symbols;
+    private double[] amounts;
+    private final TradeNetter netter = new TradeNetter(new SymbolIndex());
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        accounts = new int[lines];
+        symbols = new int[lines];
+        amounts = new double[lines];
+        for (int i = 0; i < lines; i++) {
+            accounts[i] = random.nextInt(100_000);
+            symbols[i] = random.nextInt(5000);
+            amounts[i] = random.nextDouble(-10_000, 10_000);
+        }
+    }
+
+    @Benchmark
+    public double[] netAndAllocate() {
+        netter.clear();
+        for (int i = 0; i < lines; i++) {
+            netter.add(accounts[i], symbols[i], amounts[i]);
+        }
+        BlockOrders orders = netter.net();
+        return netter.allocate(orders);
+    }
+}
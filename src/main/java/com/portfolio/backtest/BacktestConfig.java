@@ -0,0 +1,33 @@
+package com.portfolio.backtest;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.CostModel;
+import com.portfolio.strategy.RebalancingStrategy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+@Value
+@Builder
+public class BacktestConfig {
+    // starting quantities and cash; prices are taken from the history
+    @NonNull
+    Portfolio portfolio;
+    @NonNull
+    RebalancingStrategy strategy;
+    @Builder.Default
+    double threshold = 0.05;
+    // bars between rebalancing checks
+    @Builder.Default
+    int rebalanceEvery = 1;
+    // 252 for daily bars, 98_280 for regular-session minute bars
+    @Builder.Default
+    int barsPerYear = 252;
+    @Builder.Default
+    CostModel costModel = CostModel.builder().build();
+    // inclusive / exclusive epoch millis bounds of the replayed window
+    @Builder.Default
+    long from = Long.MIN_VALUE;
+    @Builder.Default
+    long to = Long.MAX_VALUE;
+}
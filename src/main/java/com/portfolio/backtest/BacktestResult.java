@@ -0,0 +1,45 @@
+package com.portfolio.backtest;
+
+import lombok.Value;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.Locale;
+
+// Returns, volatility and tracking error are annualized. Tracking error is
+// measured against a constant-mix portfolio held exactly at target weights.
+// Turnover is annual traded notional over average portfolio value.
+@Value
+public class BacktestResult {
+    String strategy;
+    long bars;
+    long startTimestamp;
+    long endTimestamp;
+    double startValue;
+    double endValue;
+    double annualizedReturn;
+    double volatility;
+    double maxDrawdown;
+    double trackingError;
+    double turnover;
+    double totalCost;
+    long tradeCount;
+    long rebalanceCount;
+
+    public double getTotalReturn() {
+        return startValue > 0 ? endValue / startValue - 1 : 0;
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%s: %d bars, %s to %s%n", strategy, bars,
+                Instant.ofEpochMilli(startTimestamp), Instant.ofEpochMilli(endTimestamp));
+        out.printf(Locale.ROOT, "  value           %.2f -> %.2f (%.2f%%)%n", startValue, endValue, getTotalReturn() * 100);
+        out.printf(Locale.ROOT, "  return          %.2f%% / year%n", annualizedReturn * 100);
+        out.printf(Locale.ROOT, "  volatility      %.2f%%%n", volatility * 100);
+        out.printf(Locale.ROOT, "  max drawdown    %.2f%%%n", maxDrawdown * 100);
+        out.printf(Locale.ROOT, "  tracking error  %.2f%%%n", trackingError * 100);
+        out.printf(Locale.ROOT, "  turnover        %.2f%% / year%n", turnover * 100);
+        out.printf(Locale.ROOT, "  costs           %.2f over %d trades in %d rebalances%n", totalCost, tradeCount,
+                rebalanceCount);
+    }
+}
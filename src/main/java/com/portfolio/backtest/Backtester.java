@@ -0,0 +1,183 @@
+package com.portfolio.backtest;
+
+import com.portfolio.cli.RebalanceCli;
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.TradeList;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.service.PortfolioRebalancer;
+import com.portfolio.strategy.CostModel;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replays a price history bar by bar against a copy of the configured portfolio.
+// Only the columns of the portfolio's own symbols are read from each mapped row,
+// and running statistics are kept instead of per-bar series, so memory use does
+// not grow with the length of the history.
+public class Backtester {
+
+    //   java -cp portfolio-rebalancer.jar com.portfolio.backtest.Backtester portfolio.json prices.prch \
+    //       [strategy] [threshold] [rebalanceEvery] [barsPerYear]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Backtester portfolio.json prices.prch [threshold|equal-weight|cost-aware] "
+                    + "[threshold] [rebalanceEvery] [barsPerYear]");
+            System.exit(2);
+        }
+        Portfolio portfolio = new JsonPortfolioExporter().read(Paths.get(args[0])).get(0);
+        BacktestConfig config = BacktestConfig.builder()
+                .portfolio(portfolio)
+                .strategy(RebalanceCli.createStrategy(args.length > 2 ? args[2] : "threshold"))
+                .threshold(args.length > 3 ? Double.parseDouble(args[3]) : 0.05)
+                .rebalanceEvery(args.length > 4 ? Integer.parseInt(args[4]) : 1)
+                .barsPerYear(args.length > 5 ? Integer.parseInt(args[5]) : 252)
+                .build();
+        try (PriceHistory history = PriceHistory.open(Paths.get(args[1]))) {
+            new Backtester().run(history, config).print(System.out);
+        }
+    }
+
+    public BacktestResult run(PriceHistory history, BacktestConfig config) {
+        if (config.getRebalanceEvery() < 1) {
+            throw new IllegalArgumentException("rebalanceEvery must be at least one bar");
+        }
+        List<Asset> source = config.getPortfolio().getAssets();
+        int assetCount = source.size();
+        int[] columns = new int[assetCount];
+        double[] targets = new double[assetCount];
+        Asset[] assets = new Asset[assetCount];
+        List<Asset> copies = new ArrayList<>(assetCount);
+        for (int i = 0; i < assetCount; i++) {
+            Asset asset = source.get(i);
+            columns[i] = history.column(asset.getSymbol());
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("No price history for " + asset.getSymbol());
+            }
+            targets[i] = asset.getTargetAllocation();
+            assets[i] = Asset.builder()
+                    .symbol(asset.getSymbol())
+                    .name(asset.getName())
+                    .type(asset.getType())
+                    .quantity(asset.getQuantity())
+                    .currentPrice(asset.getCurrentPrice())
+                    .targetAllocation(asset.getTargetAllocation())
+                    .build();
+            copies.add(assets[i]);
+        }
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName(config.getPortfolio().getName());
+        portfolio.setCashBalance(config.getPortfolio().getCashBalance());
+        portfolio.setAssets(copies);
+
+        long startBar = config.getFrom() == Long.MIN_VALUE ? 0 : history.findBar(config.getFrom());
+        long endBar = config.getTo() == Long.MAX_VALUE ? history.getBarCount() : history.findBar(config.getTo());
+        if (startBar >= endBar) {
+            throw new IllegalArgumentException("No bars in the requested window");
+        }
+
+        PortfolioRebalancer rebalancer = new PortfolioRebalancer(config.getStrategy(), config.getThreshold(), null);
+        CostModel costs = config.getCostModel();
+        TradeList tradeList = new TradeList();
+        double[] previousPrices = new double[assetCount];
+        RunningStats returns = new RunningStats();
+        RunningStats activeReturns = new RunningStats();
+        double startValue = 0;
+        double previousValue = 0;
+        double peak = 0;
+        double maxDrawdown = 0;
+        double valueSum = 0;
+        double traded = 0;
+        double totalCost = 0;
+        long tradeCount = 0;
+        long rebalanceCount = 0;
+
+        for (long bar = startBar; bar < endBar; bar++) {
+            for (int i = 0; i < assetCount; i++) {
+                double price = history.getPrice(bar, columns[i]);
+                if (!Double.isNaN(price)) {
+                    assets[i].setCurrentPrice(price);
+                }
+            }
+            portfolio.updateTotalValue();
+            double value = portfolio.getTotalValue();
+            if (bar == startBar) {
+                startValue = value;
+                peak = value;
+            } else {
+                double portfolioReturn = previousValue > 0 ? value / previousValue - 1 : 0;
+                double benchmarkReturn = 0;
+                for (int i = 0; i < assetCount; i++) {
+                    // an unpriced or delisted asset has no return to contribute
+                    if (previousPrices[i] > 0) {
+                        benchmarkReturn += targets[i] * (assets[i].getCurrentPrice() / previousPrices[i] - 1);
+                    }
+                }
+                returns.add(portfolioReturn);
+                activeReturns.add(portfolioReturn - benchmarkReturn);
+            }
+
+            if ((bar - startBar) % config.getRebalanceEvery() == 0) {
+                TradeList trades = rebalancer.rebalance(portfolio, tradeList);
+                if (!trades.isEmpty()) {
+                    rebalanceCount++;
+                    double cash = portfolio.getCashBalance();
+                    for (int j = 0; j < trades.size(); j++) {
+                        double amount = trades.amount(j);
+                        Asset asset = portfolio.getAsset(trades.symbol(j));
+                        asset.setQuantity(asset.getQuantity() + trades.shares(j));
+                        double tradeCost = costs.getCommissionPerTrade() + costs.getCostRate() * Math.abs(amount);
+                        cash -= amount + tradeCost;
+                        traded += Math.abs(amount);
+                        totalCost += tradeCost;
+                        tradeCount++;
+                    }
+                    portfolio.setCashBalance(cash);
+                    portfolio.updateTotalValue();
+                    value = portfolio.getTotalValue();
+                }
+            }
+
+            peak = Math.max(peak, value);
+            if (peak > 0) {
+                maxDrawdown = Math.max(maxDrawdown, 1 - value / peak);
+            }
+            valueSum += value;
+            previousValue = value;
+            for (int i = 0; i < assetCount; i++) {
+                previousPrices[i] = assets[i].getCurrentPrice();
+            }
+        }
+
+        long bars = endBar - startBar;
+        double endValue = portfolio.getTotalValue();
+        double years = (double) Math.max(1, bars - 1) / config.getBarsPerYear();
+        double annualizedReturn = startValue > 0 && endValue > 0 ? Math.pow(endValue / startValue, 1 / years) - 1 : -1;
+        double scale = Math.sqrt(config.getBarsPerYear());
+        double averageValue = valueSum / bars;
+        return new BacktestResult(config.getStrategy().getStrategyName(), bars, history.getTimestamp(startBar),
+                history.getTimestamp(endBar - 1), startValue, endValue, annualizedReturn,
+                returns.stdDev() * scale, maxDrawdown, activeReturns.stdDev() * scale,
+                averageValue > 0 ? traded / averageValue / years : 0, totalCost, tradeCount, rebalanceCount);
+    }
+
+    // Welford's online mean and variance
+    private static final class RunningStats {
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        double stdDev() {
+            return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.portfolio.backtest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read-only view over a price history file. Files may be far larger than the
+// heap (and than the 2 GB limit of a single mapping), so bars are read through a
+// sliding memory-mapped window of whole rows that is moved as the reader
+// advances. Only the symbol table lives on the heap. Not thread-safe: give each
+// reader its own instance.
+public class PriceHistory implements AutoCloseable {
+    public static final long DEFAULT_WINDOW_BYTES = 256L << 20;
+
+    private final FileChannel channel;
+    private final List<String> symbols;
+    private final Map<String, Integer> columns;
+    private final long barCount;
+    private final long dataOffset;
+    private final long rowBytes;
+    private final long barsPerWindow;
+    private MappedByteBuffer window;
+    private long windowFirstBar;
+    private long windowEndBar;
+
+    private PriceHistory(FileChannel channel, List<String> symbols, long barCount, long dataOffset, long windowBytes) {
+        this.channel = channel;
+        this.symbols = symbols;
+        this.barCount = barCount;
+        this.dataOffset = dataOffset;
+        this.rowBytes = PriceHistoryFormat.rowBytes(symbols.size());
+        this.barsPerWindow = Math.max(1, Math.min(windowBytes, Integer.MAX_VALUE) / rowBytes);
+        this.columns = new HashMap<>(symbols.size() * 2);
+        for (int i = 0; i < symbols.size(); i++) {
+            columns.put(symbols.get(i), i);
+        }
+    }
+
+    public static PriceHistory open(Path file) throws IOException {
+        return open(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    public static PriceHistory open(Path file, long windowBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() < PriceHistoryFormat.HEADER_SIZE) {
+                throw new IOException("Not a price history file: " + file);
+            }
+            ByteBuffer header = ByteBuffer.allocate(PriceHistoryFormat.HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != PriceHistoryFormat.MAGIC) {
+                throw new IOException("Not a price history file: " + file);
+            }
+            int version = header.getInt(4);
+            if (version != PriceHistoryFormat.VERSION) {
+                throw new IOException("Unsupported price history version " + version + ": " + file);
+            }
+            int symbolCount = header.getInt(8);
+            long barCount = header.getLong(16);
+            long dataOffset = header.getLong(24);
+            if (dataOffset + barCount * PriceHistoryFormat.rowBytes(symbolCount) > channel.size()) {
+                throw new IOException("Truncated price history file: " + file);
+            }
+
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, PriceHistoryFormat.HEADER_SIZE,
+                    dataOffset - PriceHistoryFormat.HEADER_SIZE);
+            String[] symbols = new String[symbolCount];
+            for (int i = 0; i < symbolCount; i++) {
+                byte[] bytes = new byte[table.getInt()];
+                table.get(bytes);
+                symbols[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new PriceHistory(channel, Collections.unmodifiableList(Arrays.asList(symbols)), barCount,
+                    dataOffset, windowBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    // -1 when the symbol is not in the file
+    public int column(String symbol) {
+        Integer column = columns.get(symbol);
+        return column != null ? column : -1;
+    }
+
+    public long getBarCount() {
+        return barCount;
+    }
+
+    public long getTimestamp(long bar) {
+        return row(bar).getLong(rowOffset(bar));
+    }
+
+    public double getPrice(long bar, int column) {
+        return row(bar).getDouble(rowOffset(bar) + Long.BYTES + column * Double.BYTES);
+    }
+
+    // First bar at or after the timestamp (barCount if none). Reads O(log n) rows.
+    public long findBar(long epochMillis) {
+        long low = 0;
+        long high = barCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getTimestamp(mid) < epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private int rowOffset(long bar) {
+        return (int) ((bar - windowFirstBar) * rowBytes);
+    }
+
+    private MappedByteBuffer row(long bar) {
+        if (bar < 0 || bar >= barCount) {
+            throw new IndexOutOfBoundsException("Bar " + bar + " of " + barCount);
+        }
+        if (window == null || bar < windowFirstBar || bar >= windowEndBar) {
+            long first = bar;
+            long end = Math.min(barCount, first + barsPerWindow);
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + first * rowBytes,
+                        (end - first) * rowBytes);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to map price history", e);
+            }
+            windowFirstBar = first;
+            windowEndBar = end;
+        }
+        return window;
+    }
+}
@@ -0,0 +1,218 @@
+package com.portfolio.backtest;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Converts CSV price history into the mapped PriceHistory format. Two layouts
+// are accepted, both sorted by time:
+//
+//   wide   date,AAPL,MSFT,...        one row per bar, one column per symbol
+//   long   timestamp,symbol,price    one row per quote, rows of a bar adjacent
+//
+// Timestamps may be epoch milliseconds, ISO dates or ISO date-times (UTC). Rows
+// are streamed to disk; the long layout needs one extra pass to collect symbols.
+// Empty cells and symbols missing from a bar are written as NaN.
+public class PriceHistoryConverter {
+
+    //   java -cp portfolio-rebalancer.jar com.portfolio.backtest.PriceHistoryConverter prices.csv prices.prch
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PriceHistoryConverter input.csv output.prch");
+            System.exit(2);
+        }
+        long bars = new PriceHistoryConverter().convert(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Wrote " + bars + " bars to " + args[1]);
+    }
+
+    // Returns the number of bars written.
+    public long convert(Path csv, Path output) throws IOException {
+        String header;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            header = reader.readLine();
+        }
+        if (header == null) {
+            throw new IOException("Empty price file: " + csv);
+        }
+        String[] columns = header.split(",");
+        boolean longLayout = columns.length == 3
+                && columns[1].trim().equalsIgnoreCase("symbol")
+                && columns[2].trim().equalsIgnoreCase("price");
+
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        long bars;
+        if (longLayout) {
+            bars = convertLong(csv, temp);
+        } else {
+            List<String> symbols = new ArrayList<>();
+            for (int i = 1; i < columns.length; i++) {
+                symbols.add(columns[i].trim());
+            }
+            bars = convertWide(csv, temp, symbols);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer count = ByteBuffer.allocate(Long.BYTES).putLong(0, bars);
+            channel.write(count, PriceHistoryFormat.BAR_COUNT_OFFSET);
+            channel.force(true);
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return bars;
+    }
+
+    private long convertWide(Path csv, Path temp, List<String> symbols) throws IOException {
+        double[] prices = new double[symbols.size()];
+        long bars = 0;
+        long previous = Long.MIN_VALUE;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             DataOutputStream out = openOutput(temp, symbols)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                long timestamp = checkOrder(parseTimestamp(fields[0]), previous, line);
+                for (int i = 0; i < prices.length; i++) {
+                    prices[i] = i + 1 < fields.length ? parsePrice(fields[i + 1]) : Double.NaN;
+                }
+                writeBar(out, timestamp, prices);
+                previous = timestamp;
+                bars++;
+            }
+        }
+        return bars;
+    }
+
+    private long convertLong(Path csv, Path temp) throws IOException {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int first = line.indexOf(',');
+                int second = line.indexOf(',', first + 1);
+                if (first > 0 && second > first) {
+                    columns.putIfAbsent(line.substring(first + 1, second).trim(), columns.size());
+                }
+            }
+        }
+
+        double[] prices = new double[columns.size()];
+        Arrays.fill(prices, Double.NaN);
+        long bars = 0;
+        long current = Long.MIN_VALUE;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             DataOutputStream out = openOutput(temp, new ArrayList<>(columns.keySet()))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length < 3) {
+                    throw new IOException("Expected timestamp,symbol,price: " + line);
+                }
+                long timestamp = parseTimestamp(fields[0]);
+                if (timestamp != current) {
+                    checkOrder(timestamp, current, line);
+                    if (current != Long.MIN_VALUE) {
+                        writeBar(out, current, prices);
+                        Arrays.fill(prices, Double.NaN);
+                        bars++;
+                    }
+                    current = timestamp;
+                }
+                prices[columns.get(fields[1].trim())] = parsePrice(fields[2]);
+            }
+            if (current != Long.MIN_VALUE) {
+                writeBar(out, current, prices);
+                bars++;
+            }
+        }
+        return bars;
+    }
+
+    private static DataOutputStream openOutput(Path temp, List<String> symbols) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+        List<byte[]> encoded = new ArrayList<>(symbols.size());
+        long tableSize = 0;
+        for (String symbol : symbols) {
+            byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            tableSize += Integer.BYTES + bytes.length;
+        }
+        long dataOffset = align(PriceHistoryFormat.HEADER_SIZE + tableSize);
+        out.writeInt(PriceHistoryFormat.MAGIC);
+        out.writeInt(PriceHistoryFormat.VERSION);
+        out.writeInt(symbols.size());
+        out.writeInt(0);
+        out.writeLong(0); // bar count, patched once known
+        out.writeLong(dataOffset);
+        for (byte[] bytes : encoded) {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        for (long i = PriceHistoryFormat.HEADER_SIZE + tableSize; i < dataOffset; i++) {
+            out.writeByte(0);
+        }
+        return out;
+    }
+
+    private static void writeBar(DataOutputStream out, long timestamp, double[] prices) throws IOException {
+        out.writeLong(timestamp);
+        for (double price : prices) {
+            out.writeDouble(price);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static long checkOrder(long timestamp, long previous, String line) throws IOException {
+        if (timestamp < previous) {
+            throw new IOException("Rows must be sorted by time: " + line);
+        }
+        return timestamp;
+    }
+
+    private static double parsePrice(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+    }
+
+    static long parseTimestamp(String field) {
+        String value = field.trim();
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(value);
+        }
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+        if (value.endsWith("Z") || value.endsWith("z")) {
+            return Instant.parse(value.toUpperCase(Locale.ROOT)).toEpochMilli();
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T')).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,23 @@
+package com.portfolio.backtest;
+
+// Price history layout (big-endian):
+//
+//   header   int magic, int version, int symbolCount, int reserved, long barCount, long dataOffset
+//   symbols  symbolCount x (int byteLength, UTF-8 bytes), zero padded to dataOffset
+//   bars     barCount x (long epochMillis, double[symbolCount] prices)
+//
+// Bars are stored time-major so a backtest streams through the file front to
+// back. A NaN price means no quote in that bar; readers carry the last price.
+final class PriceHistoryFormat {
+    static final int MAGIC = 0x50524348; // "PRCH"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 8;
+    static final int BAR_COUNT_OFFSET = 16;
+
+    private PriceHistoryFormat() {
+    }
+
+    static long rowBytes(int symbolCount) {
+        return Long.BYTES + (long) symbolCount * Double.BYTES;
+    }
+}
@@ -0,0 +1,225 @@
+package com.portfolio.cli;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.persistence.Snapshot;
+import com.portfolio.service.BatchRebalancer;
+import com.portfolio.strategy.CostAwareRebalancingStrategy;
+import com.portfolio.strategy.EqualWeightStrategy;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Headless entry point: reads portfolios from snapshot (.snap) or JSON files, or
+// JSON from stdin, and writes the trades of the chosen strategy to stdout. Kept
+// free of any Swing or FlatLaf dependency so the JVM starts quickly.
+//
+//   java -cp portfolio-rebalancer.jar com.portfolio.cli.RebalanceCli \
+//       --strategy threshold --threshold 0.05 --format csv book.snap
+public class RebalanceCli {
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILURES = 1;
+    static final int EXIT_USAGE = 2;
+    // trades that print as 0.00 are left out
+    private static final double MIN_AMOUNT = 0.005;
+
+    private static final String USAGE = "Usage: RebalanceCli [--strategy threshold|equal-weight|cost-aware] "
+            + "[--threshold 0.05] [--format csv|json] [file.snap|file.json|- ...]";
+
+    public static void main(String[] args) {
+        System.exit(new RebalanceCli().run(args, System.in, System.out, System.err));
+    }
+
+    public int run(String[] args, InputStream stdin, OutputStream stdout, PrintStream stderr) {
+        String strategyName = "threshold";
+        double threshold = 0.05;
+        String format = "csv";
+        List<String> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--strategy":
+                        strategyName = optionValue(args, ++i);
+                        break;
+                    case "--threshold":
+                        threshold = Double.parseDouble(optionValue(args, ++i));
+                        break;
+                    case "--format":
+                        format = optionValue(args, ++i);
+                        break;
+                    case "-h":
+                    case "--help":
+                        stderr.println(USAGE);
+                        return EXIT_OK;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        }
+                        inputs.add(args[i]);
+                }
+            }
+            if (!format.equals("csv") && !format.equals("json")) {
+                throw new IllegalArgumentException("Unknown format: " + format);
+            }
+        } catch (IllegalArgumentException e) {
+            stderr.println(e.getMessage());
+            stderr.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        RebalancingStrategy strategy;
+        try {
+            strategy = createStrategy(strategyName);
+        } catch (IllegalArgumentException e) {
+            stderr.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        List<Portfolio> portfolios;
+        try {
+            portfolios = load(inputs, stdin);
+        } catch (IOException e) {
+            stderr.println("Failed to read portfolios: " + e.getMessage());
+            return EXIT_FAILURES;
+        }
+
+        BatchRebalancer.BatchResult result = new BatchRebalancer(strategy, threshold).rebalanceAll(portfolios);
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8), 1 << 16);
+            if (format.equals("csv")) {
+                out.write("portfolio,symbol,action,amount\n");
+            }
+            for (BatchRebalancer.PortfolioResult portfolioResult : result.getResults()) {
+                if (!portfolioResult.isSuccess()) {
+                    stderr.println("Failed to rebalance " + portfolioResult.getPortfolio().getName() + ": "
+                            + portfolioResult.getError());
+                    continue;
+                }
+                String name = portfolioResult.getPortfolio().getName();
+                for (Map.Entry<String, Double> trade : new TreeMap<>(portfolioResult.getTrades()).entrySet()) {
+                    if (!(Math.abs(trade.getValue()) >= MIN_AMOUNT)) {
+                        continue;
+                    }
+                    if (format.equals("csv")) {
+                        writeCsvLine(out, name, trade.getKey(), trade.getValue());
+                    } else {
+                        writeJsonLine(out, name, trade.getKey(), trade.getValue());
+                    }
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            stderr.println("Failed to write trades: " + e.getMessage());
+            return EXIT_FAILURES;
+        }
+        return result.getStats().getFailedCount() > 0 ? EXIT_FAILURES : EXIT_OK;
+    }
+
+    private static String optionValue(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing option value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    public static RebalancingStrategy createStrategy(String name) {
+        switch (name) {
+            case "threshold":
+                return new ThresholdRebalancingStrategy();
+            case "equal-weight":
+                return new EqualWeightStrategy();
+            case "cost-aware":
+                return new CostAwareRebalancingStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    private List<Portfolio> load(List<String> inputs, InputStream stdin) throws IOException {
+        if (inputs.isEmpty()) {
+            inputs = List.of("-");
+        }
+        List<Portfolio> portfolios = new ArrayList<>();
+        JsonPortfolioExporter json = null;
+        for (String input : inputs) {
+            if (input.endsWith(".snap")) {
+                try (Snapshot snapshot = Snapshot.open(Paths.get(input))) {
+                    portfolios.addAll(snapshot.loadAll());
+                }
+                continue;
+            }
+            if (json == null) {
+                json = new JsonPortfolioExporter();
+            }
+            if (input.equals("-")) {
+                portfolios.addAll(json.read(stdin));
+            } else {
+                Path file = Paths.get(input);
+                portfolios.addAll(json.read(file));
+            }
+        }
+        return portfolios;
+    }
+
+    private static void writeCsvLine(Writer out, String portfolio, String symbol, double amount) throws IOException {
+        out.write(csv(portfolio));
+        out.write(',');
+        out.write(csv(symbol));
+        out.write(amount > 0 ? ",BUY," : ",SELL,");
+        out.write(String.format(Locale.ROOT, "%.2f", Math.abs(amount)));
+        out.write('\n');
+    }
+
+    private static void writeJsonLine(Writer out, String portfolio, String symbol, double amount) throws IOException {
+        out.write("{\"portfolio\":");
+        out.write(json(portfolio));
+        out.write(",\"symbol\":");
+        out.write(json(symbol));
+        out.write(amount > 0 ? ",\"action\":\"BUY\",\"amount\":" : ",\"action\":\"SELL\",\"amount\":");
+        out.write(String.format(Locale.ROOT, "%.2f", Math.abs(amount)));
+        out.write("}\n");
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+}
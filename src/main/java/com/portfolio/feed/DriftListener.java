@@ -0,0 +1,8 @@
+package com.portfolio.feed;
+
+import com.portfolio.model.Portfolio;
+
+@FunctionalInterface
+public interface DriftListener {
+    void onDriftChanged(Portfolio portfolio, boolean needsRebalancing);
+}
@@ -0,0 +1,112 @@
+package com.portfolio.feed;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Symbol -> holders lookup used to fan ticks out. Holder arrays are copied on
+// write, so the dispatcher can read them without locking while portfolios are
+// registered from other threads. Registered portfolios are listened to, so
+// holdings added or removed later keep the index in sync.
+public class HoldingsIndex implements PortfolioListener {
+    private static final Portfolio[] NONE = new Portfolio[0];
+
+    private final Map<String, Portfolio[]> holdersBySymbol = new ConcurrentHashMap<>();
+    private final Map<Portfolio, Set<String>> symbolsByPortfolio = new IdentityHashMap<>();
+    private final List<Consumer<Portfolio>> unregisterListeners = new CopyOnWriteArrayList<>();
+
+    public synchronized void register(Portfolio portfolio) {
+        if (symbolsByPortfolio.containsKey(portfolio)) {
+            return;
+        }
+        Set<String> symbols = new HashSet<>();
+        symbolsByPortfolio.put(portfolio, symbols);
+        for (Asset asset : portfolio.getAssets()) {
+            if (symbols.add(asset.getSymbol())) {
+                addHolder(asset.getSymbol(), portfolio);
+            }
+        }
+        portfolio.addListener(this);
+    }
+
+    public void unregister(Portfolio portfolio) {
+        synchronized (this) {
+            Set<String> symbols = symbolsByPortfolio.remove(portfolio);
+            if (symbols == null) {
+                return;
+            }
+            portfolio.removeListener(this);
+            for (String symbol : symbols) {
+                removeHolder(symbol, portfolio);
+            }
+        }
+        for (Consumer<Portfolio> listener : unregisterListeners) {
+            listener.accept(portfolio);
+        }
+    }
+
+    // Lets components that keep per-portfolio state (PriceFeed) drop it.
+    public void addUnregisterListener(Consumer<Portfolio> listener) {
+        unregisterListeners.add(listener);
+    }
+
+    public void removeUnregisterListener(Consumer<Portfolio> listener) {
+        unregisterListeners.remove(listener);
+    }
+
+    @Override
+    public synchronized void assetAdded(Portfolio portfolio, Asset asset) {
+        Set<String> symbols = symbolsByPortfolio.get(portfolio);
+        if (symbols != null && symbols.add(asset.getSymbol())) {
+            addHolder(asset.getSymbol(), portfolio);
+        }
+    }
+
+    @Override
+    public synchronized void assetRemoved(Portfolio portfolio, String symbol) {
+        Set<String> symbols = symbolsByPortfolio.get(portfolio);
+        if (symbols != null && symbols.remove(symbol)) {
+            removeHolder(symbol, portfolio);
+        }
+    }
+
+    private void addHolder(String symbol, Portfolio portfolio) {
+        holdersBySymbol.merge(symbol, new Portfolio[]{portfolio}, (existing, added) -> {
+            Portfolio[] merged = Arrays.copyOf(existing, existing.length + 1);
+            merged[existing.length] = portfolio;
+            return merged;
+        });
+    }
+
+    private void removeHolder(String symbol, Portfolio portfolio) {
+        holdersBySymbol.computeIfPresent(symbol, (key, existing) -> {
+            Portfolio[] remaining = Arrays.stream(existing)
+                    .filter(holder -> holder != portfolio)
+                    .toArray(Portfolio[]::new);
+            return remaining.length == 0 ? null : remaining;
+        });
+    }
+
+    public Portfolio[] holdersOf(String symbol) {
+        return holdersBySymbol.getOrDefault(symbol, NONE);
+    }
+
+    public synchronized List<Portfolio> getPortfolios() {
+        return new ArrayList<>(symbolsByPortfolio.keySet());
+    }
+
+    public int symbolCount() {
+        return holdersBySymbol.size();
+    }
+}
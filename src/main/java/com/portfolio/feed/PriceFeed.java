@@ -0,0 +1,283 @@
+package com.portfolio.feed;
+
+import com.portfolio.model.Portfolio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Producers publish ticks into a bounded queue and block when it is full, which
+// pushes back on the reader. A single dispatcher thread drains the queue in
+// batches, keeps only the latest tick per symbol, applies it to every holder and
+// reports portfolios whose needsRebalancing state flipped. The dispatcher is the
+// only thread that mutates registered portfolios; as an Executor the feed runs
+// tasks on it between batches, so they see registered portfolios at rest.
+public class PriceFeed implements Executor, AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 65_536;
+    public static final int DEFAULT_BATCH_SIZE = 4_096;
+
+    private static final PriceTick END = new PriceTick("", 0, 0);
+    private static final PriceTick WAKE = new PriceTick("", 0, 0);
+
+    private final HoldingsIndex holdings;
+    private final double threshold;
+    private final int batchSize;
+    private final BlockingQueue<PriceTick> queue;
+    private final TickParser parser = new TickParser();
+    private final List<DriftListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Portfolio, Boolean> driftStates = new IdentityHashMap<>();
+    private final Map<Portfolio, Boolean> touched = new IdentityHashMap<>();
+    // Unregistered portfolios whose drift state the dispatcher still has to drop.
+    private final ConcurrentLinkedQueue<Portfolio> unregistered = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Consumer<Portfolio> unregisterListener = unregistered::add;
+    private final Thread dispatcher;
+
+    private final LongAdder ticksReceived = new LongAdder();
+    private final LongAdder ticksApplied = new LongAdder();
+    private final LongAdder ticksRejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder listenerErrors = new LongAdder();
+
+    private volatile boolean closed;
+
+    public PriceFeed(HoldingsIndex holdings, double threshold) {
+        this(holdings, threshold, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    public PriceFeed(HoldingsIndex holdings, double threshold, int queueCapacity, int batchSize) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity and batchSize must be positive");
+        }
+        this.holdings = holdings;
+        this.threshold = threshold;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dispatcher = new Thread(this::dispatchLoop, "price-feed-dispatcher");
+        this.dispatcher.setDaemon(true);
+        holdings.addUnregisterListener(unregisterListener);
+    }
+
+    public void addListener(DriftListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DriftListener listener) {
+        listeners.remove(listener);
+    }
+
+    public PriceFeed start() {
+        dispatcher.start();
+        return this;
+    }
+
+    public void publish(PriceTick tick) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Price feed is closed");
+        }
+        if (!Double.isFinite(tick.getPrice()) || tick.getPrice() <= 0) {
+            ticksRejected.increment();
+            return;
+        }
+        queue.put(tick);
+        ticksReceived.increment();
+    }
+
+    // Runs the task on the dispatcher after the batch in progress, or right away
+    // when called on the dispatcher. A feed that is not started or already closed
+    // rejects tasks, since nothing would run them.
+    @Override
+    public void execute(Runnable task) {
+        if (Thread.currentThread() == dispatcher) {
+            task.run();
+            return;
+        }
+        if (closed || !dispatcher.isAlive()) {
+            throw new RejectedExecutionException("Price feed is not running");
+        }
+        tasks.add(task);
+        if (closed && tasks.remove(task)) {
+            // close() got in between and the dispatcher may already be gone
+            throw new RejectedExecutionException("Price feed is closed");
+        }
+        try {
+            queue.put(WAKE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (tasks.remove(task)) {
+                throw new RejectedExecutionException("Interrupted while handing task to price feed", e);
+            }
+        }
+    }
+
+    public long ingest(Path file) throws IOException, InterruptedException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return ingest(in);
+        }
+    }
+
+    // Reads CSV or JSON tick lines until end of stream. Works for files, pipes
+    // (stdin) and socket input streams alike; blocks while the queue is full.
+    public long ingest(InputStream in) throws IOException, InterruptedException {
+        long lines = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines++;
+            PriceTick tick;
+            try {
+                tick = parser.parse(line);
+            } catch (IllegalArgumentException e) {
+                ticksRejected.increment();
+                continue;
+            }
+            if (tick != null) {
+                publish(tick);
+            }
+        }
+        return lines;
+    }
+
+    private void dispatchLoop() {
+        List<PriceTick> batch = new ArrayList<>(batchSize);
+        Map<String, PriceTick> latest = new LinkedHashMap<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            for (int i = 0; i < batch.size(); i++) {
+                PriceTick tick = batch.get(i);
+                if (tick == END) {
+                    running = false;
+                } else if (tick != WAKE) {
+                    latest.put(tick.getSymbol(), tick);
+                }
+            }
+            applyBatch(latest);
+            batches.increment();
+            batch.clear();
+            latest.clear();
+            runTasks();
+        }
+        runTasks();
+    }
+
+    private void applyBatch(Map<String, PriceTick> latest) {
+        for (PriceTick tick : latest.values()) {
+            for (Portfolio portfolio : holdings.holdersOf(tick.getSymbol())) {
+                if (!touched.containsKey(portfolio)) {
+                    Boolean known = driftStates.get(portfolio);
+                    touched.put(portfolio, known != null ? known : portfolio.needsRebalancing(threshold));
+                }
+                try {
+                    portfolio.updatePrice(tick.getSymbol(), tick.getPrice());
+                } catch (IllegalArgumentException e) {
+                    // holding was removed after the portfolio was registered
+                    ticksRejected.increment();
+                }
+            }
+            ticksApplied.increment();
+        }
+        for (Map.Entry<Portfolio, Boolean> entry : touched.entrySet()) {
+            Portfolio portfolio = entry.getKey();
+            boolean needsRebalancing = portfolio.needsRebalancing(threshold);
+            driftStates.put(portfolio, needsRebalancing);
+            if (needsRebalancing != entry.getValue()) {
+                fireDriftChanged(portfolio, needsRebalancing);
+            }
+        }
+        touched.clear();
+        Portfolio removed;
+        while ((removed = unregistered.poll()) != null) {
+            driftStates.remove(removed);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // counted with listener failures; the dispatcher keeps going
+                listenerErrors.increment();
+            }
+        }
+    }
+
+    private void fireDriftChanged(Portfolio portfolio, boolean needsRebalancing) {
+        for (DriftListener listener : listeners) {
+            try {
+                listener.onDriftChanged(portfolio, needsRebalancing);
+            } catch (RuntimeException e) {
+                // a failing listener must not stop the dispatcher or the others
+                listenerErrors.increment();
+            }
+        }
+    }
+
+    // Stops accepting ticks, lets the dispatcher drain everything already queued
+    // and waits for it to finish.
+    @Override
+    public void close() throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        holdings.removeUnregisterListener(unregisterListener);
+        if (dispatcher.isAlive()) {
+            queue.put(END);
+            dispatcher.join();
+        }
+    }
+
+    public long getTicksReceived() {
+        return ticksReceived.sum();
+    }
+
+    public long getTicksApplied() {
+        return ticksApplied.sum();
+    }
+
+    public long getTicksRejected() {
+        return ticksRejected.sum();
+    }
+
+    public long getListenerErrors() {
+        return listenerErrors.sum();
+    }
+
+    int getTrackedPortfolioCount() {
+        return driftStates.size();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+}
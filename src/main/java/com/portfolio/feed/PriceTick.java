@@ -0,0 +1,10 @@
+package com.portfolio.feed;
+
+import lombok.Value;
+
+@Value
+public class PriceTick {
+    String symbol;
+    double price;
+    long timestamp;
+}
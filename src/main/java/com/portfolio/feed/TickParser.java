@@ -0,0 +1,88 @@
+package com.portfolio.feed;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+// Accepts either CSV lines ("symbol,price[,timestamp]") or JSON lines
+// ({"symbol":"AAPL","price":150.0,"timestamp":...}). Blank lines, '#' comments
+// and a CSV header row yield null. Prices must be finite and positive.
+public class TickParser {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public PriceTick parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+            return null;
+        }
+        if (trimmed.charAt(0) == '{') {
+            return parseJson(trimmed);
+        }
+        return parseCsv(trimmed);
+    }
+
+    private PriceTick parseCsv(String line) {
+        int firstComma = line.indexOf(',');
+        if (firstComma <= 0) {
+            throw new IllegalArgumentException("Malformed tick: " + line);
+        }
+        int secondComma = line.indexOf(',', firstComma + 1);
+        String symbol = line.substring(0, firstComma).trim();
+        String priceText = (secondComma < 0 ? line.substring(firstComma + 1) : line.substring(firstComma + 1, secondComma)).trim();
+        if ("symbol".equalsIgnoreCase(symbol) && "price".equalsIgnoreCase(priceText)) {
+            return null;
+        }
+        try {
+            double price = Double.parseDouble(priceText);
+            long timestamp = secondComma < 0 ? System.currentTimeMillis() : Long.parseLong(line.substring(secondComma + 1).trim());
+            return new PriceTick(symbol, checkPrice(price, line), timestamp);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed tick: " + line, e);
+        }
+    }
+
+    private PriceTick parseJson(String line) {
+        String symbol = null;
+        double price = Double.NaN;
+        long timestamp = -1;
+        try (JsonParser parser = JSON.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Malformed tick: " + line);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "symbol":
+                        symbol = parser.getText();
+                        break;
+                    case "price":
+                        price = parser.getDoubleValue();
+                        break;
+                    case "timestamp":
+                        timestamp = parser.getLongValue();
+                        break;
+                    default:
+                        if (value.isStructStart()) {
+                            parser.skipChildren();
+                        }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed tick: " + line, e);
+        }
+        if (symbol == null || Double.isNaN(price)) {
+            throw new IllegalArgumentException("Tick is missing symbol or price: " + line);
+        }
+        return new PriceTick(symbol, checkPrice(price, line), timestamp < 0 ? System.currentTimeMillis() : timestamp);
+    }
+
+    private static double checkPrice(double price, String line) {
+        if (!Double.isFinite(price) || price <= 0) {
+            throw new IllegalArgumentException("Invalid tick price: " + line);
+        }
+        return price;
+    }
+}
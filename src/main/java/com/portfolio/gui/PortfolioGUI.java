@@ -4,23 +4,30 @@ import com.formdev.flatlaf.FlatLightLaf;
 import com.portfolio.model.Asset;
 import com.portfolio.model.AssetType;
 import com.portfolio.model.Portfolio;
+import com.portfolio.model.TradeList;
 import com.portfolio.service.PortfolioRebalancer;
 import com.portfolio.strategy.EqualWeightStrategy;
 import com.portfolio.strategy.ThresholdRebalancingStrategy;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import javax.swing.event.ChangeListener;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 public class PortfolioGUI extends JFrame {
     private final Portfolio portfolio;
     private final JTable portfolioTable;
-    private final DefaultTableModel tableModel;
+    private final PortfolioTableModel tableModel;
     private final JLabel totalValueLabel;
     private final JComboBox<String> strategyComboBox;
     private final JSpinner thresholdSpinner;
+    private final JButton rebalanceButton;
+    private final JProgressBar rebalanceProgress;
+    private final JButton cancelRebalanceButton;
+    private final TradesTableModel tradesModel = new TradesTableModel();
+    private JDialog tradesDialog;
+    private SwingWorker<TradeList, Void> rebalanceWorker;
     private PortfolioRebalancer rebalancer;
 
     public PortfolioGUI() {
@@ -39,13 +46,8 @@ public class PortfolioGUI extends JFrame {
         add(mainPanel);
 
         // Create the portfolio table
-        String[] columnNames = {"Symbol", "Name", "Type", "Quantity", "Price", "Value", "Target %", "Current %", "Deviation"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 3 || column == 5 || column == 6; // Only quantity, price, and target % are editable
-            }
-        };
+        tableModel = new PortfolioTableModel(portfolio);
+        tableModel.addTableModelListener(e -> updateTotalValueLabel());
         portfolioTable = new JTable(tableModel);
         JScrollPane tableScrollPane = new JScrollPane(portfolioTable);
         mainPanel.add(tableScrollPane, BorderLayout.CENTER);
@@ -79,10 +81,28 @@ public class PortfolioGUI extends JFrame {
         controlPanel.add(thresholdSpinner);
 
         // Rebalance button
-        JButton rebalanceButton = new JButton("Rebalance");
+        rebalanceButton = new JButton("Rebalance");
         rebalanceButton.addActionListener(e -> rebalancePortfolio());
         controlPanel.add(rebalanceButton);
 
+        // Rebalancing progress and cancellation
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        rebalanceProgress = new JProgressBar();
+        rebalanceProgress.setIndeterminate(true);
+        rebalanceProgress.setStringPainted(true);
+        rebalanceProgress.setVisible(false);
+        cancelRebalanceButton = new JButton("Cancel");
+        cancelRebalanceButton.setVisible(false);
+        // The strategy cannot be interrupted; cancelling discards its result.
+        cancelRebalanceButton.addActionListener(e -> {
+            if (rebalanceWorker != null) {
+                rebalanceWorker.cancel(false);
+            }
+        });
+        statusPanel.add(rebalanceProgress);
+        statusPanel.add(cancelRebalanceButton);
+        mainPanel.add(statusPanel, BorderLayout.SOUTH);
+
         // Total value label
         totalValueLabel = new JLabel("Total Value: $0.00");
         controlPanel.add(totalValueLabel);
@@ -263,7 +283,6 @@ public class PortfolioGUI extends JFrame {
                     .targetAllocation((Double) targetSpinner.getValue())
                     .build();
             portfolio.addAsset(asset);
-            updatePortfolioTable();
             dialog.dispose();
         });
 
@@ -277,35 +296,13 @@ public class PortfolioGUI extends JFrame {
     private void removeSelectedAsset() {
         int selectedRow = portfolioTable.getSelectedRow();
         if (selectedRow >= 0) {
-            String symbol = (String) tableModel.getValueAt(selectedRow, 0);
+            String symbol = tableModel.getSymbolAt(selectedRow);
             portfolio.removeAsset(symbol);
-            updatePortfolioTable();
         }
     }
 
-    private void updatePortfolioTable() {
-        tableModel.setRowCount(0);
-        double totalValue = portfolio.getTotalValue();
-
-        for (Asset asset : portfolio.getAssets()) {
-            double currentValue = asset.getCurrentValue();
-            double currentAllocation = asset.getCurrentAllocation(totalValue);
-            double deviation = asset.getDeviationFromTarget(totalValue);
-
-            tableModel.addRow(new Object[]{
-                    asset.getSymbol(),
-                    asset.getName(),
-                    asset.getType(),
-                    asset.getQuantity(),
-                    String.format("$%.2f", asset.getCurrentPrice()),
-                    String.format("$%.2f", currentValue),
-                    String.format("%.1f%%", asset.getTargetAllocation() * 100),
-                    String.format("%.1f%%", currentAllocation * 100),
-                    String.format("%.1f%%", deviation * 100)
-            });
-        }
-
-        totalValueLabel.setText(String.format("Total Value: $%.2f", totalValue));
+    private void updateTotalValueLabel() {
+        totalValueLabel.setText(String.format("Total Value: $%.2f", tableModel.getTotalValue()));
     }
 
     private void updateRebalancer() {
@@ -320,28 +317,81 @@ public class PortfolioGUI extends JFrame {
     }
 
     private void rebalancePortfolio() {
-        Map<String, Double> trades = rebalancer.rebalance(portfolio);
-        
-        if (trades.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "Portfolio is already balanced within the threshold.",
-                    "No Rebalancing Needed",
-                    JOptionPane.INFORMATION_MESSAGE);
+        if (rebalanceWorker != null && !rebalanceWorker.isDone()) {
             return;
         }
+        PortfolioRebalancer activeRebalancer = rebalancer;
+        tradesModel.clear();
+        rebalanceButton.setEnabled(false);
+        rebalanceProgress.setString("Calculating trades...");
+        rebalanceProgress.setVisible(true);
+        cancelRebalanceButton.setVisible(true);
+
+        // Trades are computed off the EDT on a copy taken here, so edits made
+        // while the worker runs cannot tear its reads; they apply to the next
+        // rebalance.
+        Portfolio working = portfolio.copy();
+        rebalanceWorker = new SwingWorker<>() {
+            @Override
+            protected TradeList doInBackground() {
+                return activeRebalancer.rebalance(working, new TradeList());
+            }
 
-        StringBuilder message = new StringBuilder("Rebalancing trades needed:\n\n");
-        for (Map.Entry<String, Double> trade : trades.entrySet()) {
-            message.append(String.format("%s: %s$%.2f\n",
-                    trade.getKey(),
-                    trade.getValue() > 0 ? "+" : "",
-                    trade.getValue()));
-        }
+            @Override
+            protected void done() {
+                rebalanceButton.setEnabled(true);
+                rebalanceProgress.setVisible(false);
+                cancelRebalanceButton.setVisible(false);
+                try {
+                    TradeList trades = get();
+                    if (trades.size() > 0) {
+                        tradesModel.addTrades(trades, 0, trades.size());
+                        showTradesDialog();
+                    } else {
+                        JOptionPane.showMessageDialog(PortfolioGUI.this,
+                                "Portfolio is already balanced within the threshold.",
+                                "No Rebalancing Needed",
+                                JOptionPane.INFORMATION_MESSAGE);
+                    }
+                } catch (CancellationException e) {
+                    // result discarded
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(PortfolioGUI.this,
+                            "Rebalancing failed: " + e.getCause(),
+                            "Rebalancing Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        rebalanceWorker.execute();
+    }
 
-        JOptionPane.showMessageDialog(this,
-                message.toString(),
-                "Rebalancing Trades",
-                JOptionPane.INFORMATION_MESSAGE);
+    private void showTradesDialog() {
+        if (tradesDialog == null) {
+            tradesDialog = new JDialog(this, "Rebalancing Trades", false);
+            JTable tradesTable = new JTable(tradesModel);
+            tradesTable.setAutoCreateRowSorter(true);
+            tradesTable.setDefaultRenderer(Double.class, new DefaultTableCellRenderer() {
+                @Override
+                protected void setValue(Object value) {
+                    setHorizontalAlignment(SwingConstants.RIGHT);
+                    setText(value == null ? "" : String.format("$%.2f", (Double) value));
+                }
+            });
+            tradesTable.getColumnModel().getColumn(2).setCellRenderer(new DefaultTableCellRenderer() {
+                @Override
+                protected void setValue(Object value) {
+                    setHorizontalAlignment(SwingConstants.RIGHT);
+                    setText(value == null ? "" : String.format("%.4f", (Double) value));
+                }
+            });
+            tradesDialog.add(new JScrollPane(tradesTable));
+            tradesDialog.setSize(600, 400);
+            tradesDialog.setLocationRelativeTo(this);
+        }
+        if (!tradesDialog.isVisible()) {
+            tradesDialog.setVisible(true);
+        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,263 @@
+package com.portfolio.gui;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioColumns;
+import com.portfolio.model.PortfolioListener;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Table model backed by a columnar copy of the portfolio. The copy is rebuilt on
+// a background worker whenever the portfolio changes (requests arriving while a
+// rebuild runs are coalesced into one more rebuild), and cells are formatted
+// only when the table asks for them, i.e. for visible rows.
+public class PortfolioTableModel extends AbstractTableModel implements PortfolioListener {
+    static final int SYMBOL = 0;
+    static final int NAME = 1;
+    static final int TYPE = 2;
+    static final int QUANTITY = 3;
+    static final int PRICE = 4;
+    static final int VALUE = 5;
+    static final int TARGET = 6;
+    static final int CURRENT = 7;
+    static final int DEVIATION = 8;
+
+    private static final Logger LOG = Logger.getLogger(PortfolioTableModel.class.getName());
+    private static final int MAX_LOAD_ATTEMPTS = 10;
+    private static final String[] COLUMN_NAMES = {"Symbol", "Name", "Type", "Quantity", "Price", "Value", "Target %", "Current %", "Deviation"};
+
+    private final Portfolio portfolio;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private PortfolioColumns rows = new PortfolioColumns();
+    private PortfolioColumns spare = new PortfolioColumns();
+    private boolean refreshRunning;
+
+    public PortfolioTableModel(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        portfolio.addListener(this);
+        rows.load(portfolio);
+    }
+
+    // Safe to call from any thread.
+    public void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::startRefresh);
+        }
+    }
+
+    private void startRefresh() {
+        if (refreshRunning) {
+            return; // done() picks up the pending flag
+        }
+        refreshRunning = true;
+        refreshPending.set(false);
+        PortfolioColumns target = spare;
+        new SwingWorker<PortfolioColumns, Void>() {
+            @Override
+            protected PortfolioColumns doInBackground() {
+                // Portfolio is not thread-safe and may be mutated while it is copied.
+                // A copy counts only if no mutation completed during it; a mutation
+                // still in progress notifies listeners afterwards, which queues
+                // another refresh that replaces the copy.
+                for (int attempt = 1; ; attempt++) {
+                    long version = portfolio.getVersion();
+                    try {
+                        target.load(portfolio);
+                    } catch (RuntimeException e) {
+                        if (attempt >= MAX_LOAD_ATTEMPTS) {
+                            throw e;
+                        }
+                        continue;
+                    }
+                    if (portfolio.getVersion() == version || attempt >= MAX_LOAD_ATTEMPTS) {
+                        // past the limit the mutations that kept interfering have queued a refresh
+                        return target;
+                    }
+                }
+            }
+
+            @Override
+            protected void done() {
+                refreshRunning = false;
+                try {
+                    swapIn(get());
+                } catch (ExecutionException e) {
+                    // keep showing the last good rows
+                    LOG.log(Level.WARNING, "Could not refresh table for portfolio " + portfolio.getName(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (refreshPending.get()) {
+                    startRefresh();
+                }
+            }
+        }.execute();
+    }
+
+    private void swapIn(PortfolioColumns updated) {
+        PortfolioColumns previous = rows;
+        rows = updated;
+        spare = previous;
+        if (!sameRows(previous, updated)) {
+            fireTableDataChanged();
+            return;
+        }
+        if (previous.getTotalValue() != updated.getTotalValue()) {
+            // allocations of every row depend on the total
+            if (updated.size() > 0) {
+                fireTableRowsUpdated(0, updated.size() - 1);
+            }
+            return;
+        }
+        int changedFrom = -1;
+        for (int i = 0; i <= updated.size(); i++) {
+            boolean changed = i < updated.size() && rowChanged(previous, updated, i);
+            if (changed && changedFrom < 0) {
+                changedFrom = i;
+            } else if (!changed && changedFrom >= 0) {
+                fireTableRowsUpdated(changedFrom, i - 1);
+                changedFrom = -1;
+            }
+        }
+    }
+
+    private static boolean sameRows(PortfolioColumns a, PortfolioColumns b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.symbolId(i) != b.symbolId(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean rowChanged(PortfolioColumns a, PortfolioColumns b, int i) {
+        return a.quantity(i) != b.quantity(i)
+                || a.price(i) != b.price(i)
+                || a.target(i) != b.target(i)
+                || a.type(i) != b.type(i)
+                || !Objects.equals(a.name(i), b.name(i));
+    }
+
+    public double getTotalValue() {
+        return rows.getTotalValue();
+    }
+
+    public String getSymbolAt(int row) {
+        return rows.symbol(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case SYMBOL:
+                return rows.symbol(row);
+            case NAME:
+                return rows.name(row);
+            case TYPE:
+                return rows.type(row);
+            case QUANTITY:
+                return rows.quantity(row);
+            case PRICE:
+                return String.format("$%.2f", rows.price(row));
+            case VALUE:
+                return String.format("$%.2f", rows.value(row));
+            case TARGET:
+                return String.format("%.1f%%", rows.target(row) * 100);
+            case CURRENT:
+                return String.format("%.1f%%", rows.allocation(row) * 100);
+            case DEVIATION:
+                return String.format("%.1f%%", rows.deviation(row) * 100);
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == QUANTITY || column == PRICE || column == TARGET; // Only quantity, price, and target % are editable
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        double number;
+        try {
+            number = Double.parseDouble(value.toString().replace("$", "").replace("%", "").trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        String symbol = rows.symbol(row);
+        switch (column) {
+            case QUANTITY:
+                portfolio.updateQuantity(symbol, number);
+                break;
+            case PRICE:
+                portfolio.updatePrice(symbol, number);
+                break;
+            case TARGET:
+                portfolio.updateTarget(symbol, number / 100);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void assetAdded(Portfolio portfolio, Asset asset) {
+        requestRefresh();
+    }
+
+    @Override
+    public void assetRemoved(Portfolio portfolio, String symbol) {
+        requestRefresh();
+    }
+
+    @Override
+    public void priceUpdated(Portfolio portfolio, String symbol, double price) {
+        requestRefresh();
+    }
+
+    @Override
+    public void quantityUpdated(Portfolio portfolio, String symbol, double quantity) {
+        requestRefresh();
+    }
+
+    @Override
+    public void targetUpdated(Portfolio portfolio, String symbol, double targetAllocation) {
+        requestRefresh();
+    }
+
+    @Override
+    public void assetReplaced(Portfolio portfolio, Asset asset) {
+        requestRefresh();
+    }
+
+    @Override
+    public void cashBalanceChanged(Portfolio portfolio, double cashBalance) {
+        requestRefresh();
+    }
+}
@@ -0,0 +1,66 @@
+package com.portfolio.gui;
+
+import com.portfolio.model.TradeList;
+
+import javax.swing.table.AbstractTableModel;
+
+public class TradesTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"Symbol", "Action", "Shares", "Price ($)", "Amount ($)"};
+
+    private final TradeList rows = new TradeList();
+
+    // Appends rows [from, to) of trades.
+    public void addTrades(TradeList trades, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = rows.size();
+        for (int i = from; i < to; i++) {
+            rows.add(trades, i);
+        }
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    public void clear() {
+        rows.clear();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column >= 2 ? Double.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0:
+                return rows.symbol(row);
+            case 1:
+                return rows.side(row) == TradeList.Side.BUY ? "Buy" : "Sell";
+            case 2:
+                return Math.abs(rows.shares(row));
+            case 3:
+                return rows.price(row);
+            case 4:
+                return Math.abs(rows.amount(row));
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+}
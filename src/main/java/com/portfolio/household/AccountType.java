@@ -0,0 +1,7 @@
+package com.portfolio.household;
+
+public enum AccountType {
+    TAXABLE,
+    TAX_DEFERRED,
+    TAX_FREE
+}
@@ -0,0 +1,45 @@
+package com.portfolio.household;
+
+import com.portfolio.model.AssetType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Preferred account types per asset class, best first. Buys go to the most
+// preferred account that has cash; sells come out of the least preferred
+// account first. Account types missing from an order rank after the listed
+// ones, and classes without an order treat all accounts alike.
+public class AssetLocationPreferences {
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+
+    private final Map<AssetType, int[]> ranks = new EnumMap<>(AssetType.class);
+
+    // Income-producing assets in tax-deferred accounts, tax-efficient equity
+    // in taxable ones, the highest expected growth in tax-free ones.
+    public static AssetLocationPreferences standard() {
+        return new AssetLocationPreferences()
+                .prefer(AssetType.BOND, AccountType.TAX_DEFERRED, AccountType.TAX_FREE, AccountType.TAXABLE)
+                .prefer(AssetType.MUTUAL_FUND, AccountType.TAX_DEFERRED, AccountType.TAX_FREE, AccountType.TAXABLE)
+                .prefer(AssetType.STOCK, AccountType.TAXABLE, AccountType.TAX_FREE, AccountType.TAX_DEFERRED)
+                .prefer(AssetType.ETF, AccountType.TAXABLE, AccountType.TAX_FREE, AccountType.TAX_DEFERRED)
+                .prefer(AssetType.CRYPTO, AccountType.TAX_FREE, AccountType.TAX_DEFERRED, AccountType.TAXABLE)
+                .prefer(AssetType.COMMODITY, AccountType.TAX_FREE, AccountType.TAX_DEFERRED, AccountType.TAXABLE);
+    }
+
+    public AssetLocationPreferences prefer(AssetType assetType, AccountType... order) {
+        int[] rank = new int[ACCOUNT_TYPES.length];
+        Arrays.fill(rank, order.length);
+        for (int i = order.length - 1; i >= 0; i--) {
+            rank[order[i].ordinal()] = i;
+        }
+        ranks.put(assetType, rank);
+        return this;
+    }
+
+    // 0 is the best location; equal ranks keep the household's account order.
+    public int rank(AssetType assetType, AccountType accountType) {
+        int[] rank = assetType != null ? ranks.get(assetType) : null;
+        return rank != null ? rank[accountType.ordinal()] : 0;
+    }
+}
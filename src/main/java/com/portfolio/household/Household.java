@@ -0,0 +1,327 @@
+package com.portfolio.household;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioListener;
+import com.portfolio.model.SymbolIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Merged exposure across the accounts of one household. Positions are keyed by
+// ids from a symbol index shared by all accounts and summed into dense arrays;
+// the Assets themselves stay in their portfolios. Each account is observed via
+// PortfolioListener, so a price, quantity or cash change in one account updates
+// the household by that position's delta only. As with Portfolio, changes made
+// directly on an Asset are not seen until refresh() is called.
+//
+// Mutations are synchronized on the household. Reads are not: hold the
+// household's monitor for a consistent view across several reads, as
+// HouseholdRebalancingStrategy does.
+public class Household {
+    private final String name;
+    private final SymbolIndex symbolIndex;
+    private final List<HouseholdAccount> accounts = new ArrayList<>();
+    private final Map<Portfolio, AccountListener> listeners = new IdentityHashMap<>();
+    private int symbolCount;
+    private double[] values = new double[0];
+    private double[] quantities = new double[0];
+    private double[] prices = new double[0];
+    private double[] targets = new double[0];
+    private AssetType[] types = new AssetType[0];
+    private double cashBalance;
+    private double totalValue;
+    private volatile long version;
+
+    public Household(String name) {
+        this(name, new SymbolIndex());
+    }
+
+    public Household(String name, SymbolIndex symbolIndex) {
+        this.name = name;
+        this.symbolIndex = symbolIndex;
+    }
+
+    public synchronized HouseholdAccount addAccount(Portfolio portfolio, AccountType type) {
+        if (listeners.containsKey(portfolio)) {
+            throw new IllegalArgumentException("Portfolio already in household: " + portfolio.getName());
+        }
+        HouseholdAccount account = new HouseholdAccount(portfolio, type, accounts.size(), values.length);
+        accounts.add(account);
+        load(account);
+        AccountListener listener = new AccountListener(account);
+        listeners.put(portfolio, listener);
+        portfolio.addListener(listener);
+        version++;
+        return account;
+    }
+
+    public synchronized void removeAccount(Portfolio portfolio) {
+        AccountListener listener = listeners.remove(portfolio);
+        if (listener == null) {
+            return;
+        }
+        portfolio.removeListener(listener);
+        unload(listener.account);
+        accounts.remove(listener.account.index);
+        for (int i = 0; i < accounts.size(); i++) {
+            accounts.get(i).index = i;
+        }
+        version++;
+    }
+
+    // Full reload of one account, for changes made directly on its Assets.
+    public synchronized void refresh(Portfolio portfolio) {
+        AccountListener listener = listeners.get(portfolio);
+        if (listener == null) {
+            throw new IllegalArgumentException("Portfolio not in household: " + portfolio.getName());
+        }
+        unload(listener.account);
+        load(listener.account);
+        version++;
+    }
+
+    public synchronized void refresh() {
+        for (HouseholdAccount account : accounts) {
+            unload(account);
+            load(account);
+        }
+        version++;
+    }
+
+    // Household-level target weight of a symbol. Symbols without one use the
+    // accounts' own targets weighted by account value.
+    public synchronized void setTarget(String symbol, double targetAllocation) {
+        int id = register(symbol);
+        targets[id] = targetAllocation;
+        version++;
+    }
+
+    public synchronized void clearTargets() {
+        Arrays.fill(targets, Double.NaN);
+        version++;
+    }
+
+    private void load(HouseholdAccount account) {
+        Portfolio portfolio = account.getPortfolio();
+        List<Asset> assets = portfolio.getAssets();
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            Asset asset = assets.get(i);
+            apply(account, register(asset.getSymbol()), asset);
+        }
+        applyCash(account, portfolio.getCashBalance());
+    }
+
+    private void unload(HouseholdAccount account) {
+        for (int id = 0; id < symbolCount; id++) {
+            remove(account, id);
+        }
+        applyCash(account, 0);
+    }
+
+    private int register(String symbol) {
+        int id = symbolIndex.idOf(symbol);
+        if (id >= values.length) {
+            int capacity = Math.max(id + 1, values.length * 2);
+            int previous = values.length;
+            values = Arrays.copyOf(values, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            Arrays.fill(targets, previous, capacity, Double.NaN);
+            types = Arrays.copyOf(types, capacity);
+            for (HouseholdAccount account : accounts) {
+                account.ensureCapacity(capacity);
+            }
+        }
+        symbolCount = Math.max(symbolCount, id + 1);
+        return id;
+    }
+
+    private void apply(HouseholdAccount account, int id, Asset asset) {
+        double value = asset.getCurrentValue();
+        double delta = value - account.values[id];
+        values[id] += delta;
+        quantities[id] += asset.getQuantity() - account.quantities[id];
+        totalValue += delta;
+        account.totalValue += delta;
+        account.values[id] = value;
+        account.quantities[id] = asset.getQuantity();
+        account.targets[id] = asset.getTargetAllocation();
+        prices[id] = asset.getCurrentPrice();
+        if (types[id] == null) {
+            types[id] = asset.getType();
+        }
+    }
+
+    private void remove(HouseholdAccount account, int id) {
+        double value = account.values[id];
+        values[id] -= value;
+        quantities[id] -= account.quantities[id];
+        totalValue -= value;
+        account.totalValue -= value;
+        account.values[id] = 0;
+        account.quantities[id] = 0;
+        account.targets[id] = 0;
+    }
+
+    private void applyCash(HouseholdAccount account, double cash) {
+        double delta = cash - account.cashBalance;
+        cashBalance += delta;
+        totalValue += delta;
+        account.totalValue += delta;
+        account.cashBalance = cash;
+    }
+
+    private synchronized void assetChanged(HouseholdAccount account, Asset asset) {
+        if (asset != null) {
+            apply(account, register(asset.getSymbol()), asset);
+            version++;
+        }
+    }
+
+    private synchronized void assetRemoved(HouseholdAccount account, String symbol) {
+        int id = symbolIndex.find(symbol);
+        if (id >= 0 && id < symbolCount) {
+            remove(account, id);
+            version++;
+        }
+    }
+
+    private synchronized void cashChanged(HouseholdAccount account, double cash) {
+        applyCash(account, cash);
+        version++;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SymbolIndex getSymbolIndex() {
+        return symbolIndex;
+    }
+
+    public List<HouseholdAccount> getAccounts() {
+        return Collections.unmodifiableList(accounts);
+    }
+
+    public HouseholdAccount getAccount(Portfolio portfolio) {
+        AccountListener listener = listeners.get(portfolio);
+        return listener != null ? listener.account : null;
+    }
+
+    // Ids run from 0 to getSymbolCount() - 1; ids the household has never seen
+    // read as empty positions.
+    public int getSymbolCount() {
+        return symbolCount;
+    }
+
+    public String symbol(int id) {
+        return symbolIndex.symbol(id);
+    }
+
+    public AssetType type(int id) {
+        return types[id];
+    }
+
+    public double value(int id) {
+        return values[id];
+    }
+
+    public double quantity(int id) {
+        return quantities[id];
+    }
+
+    // Last price seen for the symbol in any account.
+    public double price(int id) {
+        return prices[id];
+    }
+
+    public double value(String symbol) {
+        int id = symbolIndex.find(symbol);
+        return id >= 0 && id < symbolCount ? values[id] : 0;
+    }
+
+    public double getCashBalance() {
+        return cashBalance;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double allocation(int id) {
+        return totalValue > 0 ? values[id] / totalValue : 0;
+    }
+
+    public double target(int id) {
+        if (!Double.isNaN(targets[id])) {
+            return targets[id];
+        }
+        if (totalValue <= 0) {
+            return 0;
+        }
+        double weighted = 0;
+        for (int i = 0, n = accounts.size(); i < n; i++) {
+            HouseholdAccount account = accounts.get(i);
+            weighted += account.targets[id] * account.totalValue;
+        }
+        return weighted / totalValue;
+    }
+
+    public double deviation(int id) {
+        return allocation(id) - target(id);
+    }
+
+    private final class AccountListener implements PortfolioListener {
+        private final HouseholdAccount account;
+
+        AccountListener(HouseholdAccount account) {
+            this.account = account;
+        }
+
+        @Override
+        public void assetAdded(Portfolio portfolio, Asset asset) {
+            assetChanged(account, asset);
+        }
+
+        @Override
+        public void assetRemoved(Portfolio portfolio, String symbol) {
+            Household.this.assetRemoved(account, symbol);
+        }
+
+        @Override
+        public void priceUpdated(Portfolio portfolio, String symbol, double price) {
+            assetChanged(account, portfolio.getAsset(symbol));
+        }
+
+        @Override
+        public void quantityUpdated(Portfolio portfolio, String symbol, double quantity) {
+            assetChanged(account, portfolio.getAsset(symbol));
+        }
+
+        @Override
+        public void targetUpdated(Portfolio portfolio, String symbol, double targetAllocation) {
+            assetChanged(account, portfolio.getAsset(symbol));
+        }
+
+        @Override
+        public void assetReplaced(Portfolio portfolio, Asset asset) {
+            assetChanged(account, asset);
+        }
+
+        @Override
+        public void cashBalanceChanged(Portfolio portfolio, double cashBalance) {
+            cashChanged(account, cashBalance);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.portfolio.household;
+
+import com.portfolio.model.Portfolio;
+
+import java.util.Arrays;
+
+// One portfolio's contribution to a household: its holdings as dense arrays
+// indexed by the household's symbol ids, kept current by the household.
+public final class HouseholdAccount {
+    private final Portfolio portfolio;
+    private final AccountType type;
+    int index;
+    double[] values;
+    double[] quantities;
+    double[] targets;
+    double cashBalance;
+    double totalValue;
+
+    HouseholdAccount(Portfolio portfolio, AccountType type, int index, int capacity) {
+        this.portfolio = portfolio;
+        this.type = type;
+        this.index = index;
+        this.values = new double[capacity];
+        this.quantities = new double[capacity];
+        this.targets = new double[capacity];
+    }
+
+    void ensureCapacity(int capacity) {
+        if (values.length < capacity) {
+            values = Arrays.copyOf(values, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+        }
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public AccountType getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public double getCashBalance() {
+        return cashBalance;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public double value(int symbolId) {
+        return symbolId < values.length ? values[symbolId] : 0;
+    }
+
+    public double quantity(int symbolId) {
+        return symbolId < quantities.length ? quantities[symbolId] : 0;
+    }
+}
@@ -0,0 +1,118 @@
+package com.portfolio.household;
+
+import com.portfolio.model.AssetType;
+
+import java.util.List;
+
+// Threshold rebalancing on the merged household exposure: a symbol whose
+// household weight is more than threshold away from its target is traded back
+// to target, and the trade is then placed in accounts by asset location. Sells
+// are taken from the least preferred accounts holding the symbol first; buys go
+// to the most preferred accounts, limited to each account's cash plus what its
+// own sells freed up, since money does not move between accounts.
+public class HouseholdRebalancingStrategy {
+    private static final AssetType[] TYPES = AssetType.values();
+
+    private final AssetLocationPreferences preferences;
+
+    public HouseholdRebalancingStrategy() {
+        this(AssetLocationPreferences.standard());
+    }
+
+    public HouseholdRebalancingStrategy(AssetLocationPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    public HouseholdTrades calculateRebalancingTrades(Household household, double threshold) {
+        return calculateRebalancingTrades(household, threshold, new HouseholdTrades());
+    }
+
+    public HouseholdTrades calculateRebalancingTrades(Household household, double threshold, HouseholdTrades trades) {
+        synchronized (household) {
+            List<HouseholdAccount> accounts = household.getAccounts();
+            int accountCount = accounts.size();
+            trades.reset(accountCount);
+            double totalValue = household.getTotalValue();
+            if (accountCount == 0 || totalValue <= 0) {
+                return trades;
+            }
+
+            int[][] order = locationOrder(accounts);
+            double[] cash = new double[accountCount];
+            for (int a = 0; a < accountCount; a++) {
+                cash[a] = accounts.get(a).getCashBalance();
+            }
+            int symbolCount = household.getSymbolCount();
+
+            for (int id = 0; id < symbolCount; id++) {
+                double deviation = household.deviation(id);
+                if (deviation <= threshold) {
+                    continue;
+                }
+                int[] accountOrder = order[typeIndex(household.type(id))];
+                double remaining = deviation * totalValue;
+                for (int k = accountCount - 1; k >= 0 && remaining > 0; k--) {
+                    HouseholdAccount account = accounts.get(accountOrder[k]);
+                    double amount = Math.min(remaining, account.value(id));
+                    if (amount > 0) {
+                        trades.forAccount(account.getIndex()).add(household.symbol(id), id, -amount, household.price(id));
+                        cash[account.getIndex()] += amount;
+                        remaining -= amount;
+                    }
+                }
+            }
+
+            for (int id = 0; id < symbolCount; id++) {
+                double deviation = household.deviation(id);
+                if (deviation >= -threshold) {
+                    continue;
+                }
+                double remaining = -deviation * totalValue;
+                double price = household.price(id);
+                if (price <= 0) {
+                    trades.addUnallocated(remaining);
+                    continue;
+                }
+                int[] accountOrder = order[typeIndex(household.type(id))];
+                for (int k = 0; k < accountCount && remaining > 0; k++) {
+                    int a = accountOrder[k];
+                    double amount = Math.min(remaining, cash[a]);
+                    if (amount > 0) {
+                        trades.forAccount(a).add(household.symbol(id), id, amount, price);
+                        cash[a] -= amount;
+                        remaining -= amount;
+                    }
+                }
+                if (remaining > 0) {
+                    trades.addUnallocated(remaining);
+                }
+            }
+            return trades;
+        }
+    }
+
+    // Account indices sorted by location rank for each asset type, with a last
+    // row for positions of unknown type. Stable, so ties keep account order.
+    private int[][] locationOrder(List<HouseholdAccount> accounts) {
+        int accountCount = accounts.size();
+        int[][] order = new int[TYPES.length + 1][accountCount];
+        for (int t = 0; t <= TYPES.length; t++) {
+            AssetType type = t < TYPES.length ? TYPES[t] : null;
+            int[] row = order[t];
+            for (int i = 0; i < accountCount; i++) {
+                int rank = preferences.rank(type, accounts.get(i).getType());
+                int j = i;
+                while (j > 0 && preferences.rank(type, accounts.get(row[j - 1]).getType()) > rank) {
+                    row[j] = row[j - 1];
+                    j--;
+                }
+                row[j] = i;
+            }
+        }
+        return order;
+    }
+
+    private static int typeIndex(AssetType type) {
+        return type != null ? type.ordinal() : TYPES.length;
+    }
+}
@@ -0,0 +1,62 @@
+package com.portfolio.household;
+
+import com.portfolio.model.TradeList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Household trades split by account, one TradeList per account in household
+// account order, with symbol ids from the household's symbol index. Reused
+// across calls like TradeList.
+public class HouseholdTrades {
+    private final List<TradeList> accountTrades = new ArrayList<>();
+    private int accountCount;
+    private double unallocated;
+
+    void reset(int accountCount) {
+        while (accountTrades.size() < accountCount) {
+            accountTrades.add(new TradeList());
+        }
+        for (int i = 0; i < accountCount; i++) {
+            accountTrades.get(i).clear();
+        }
+        this.accountCount = accountCount;
+        this.unallocated = 0;
+    }
+
+    void addUnallocated(double amount) {
+        unallocated += amount;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public TradeList forAccount(int index) {
+        if (index >= accountCount) {
+            throw new IndexOutOfBoundsException("No account " + index);
+        }
+        return accountTrades.get(index);
+    }
+
+    public TradeList forAccount(HouseholdAccount account) {
+        return forAccount(account.getIndex());
+    }
+
+    // Buys that no account had the cash for, in dollars.
+    public double getUnallocated() {
+        return unallocated;
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < accountCount; i++) {
+            size += accountTrades.get(i).size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.portfolio.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        if (Metrics.isEnabled()) {
+            value.increment();
+        }
+    }
+
+    public void add(long amount) {
+        if (Metrics.isEnabled()) {
+            value.add(amount);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getValue() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
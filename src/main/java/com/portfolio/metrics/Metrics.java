@@ -0,0 +1,98 @@
+package com.portfolio.metrics;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Process-wide registry of hot-path timers and counters. Off by default; enable
+// with -Dportfolio.metrics=on (histograms and counters) or =jfr (additionally
+// emits a JFR event per timed call), or at runtime with setMode. Look timers up
+// once and keep them in a field: the lookup itself is a map access.
+public final class Metrics {
+    public enum Mode {
+        OFF,
+        ON,
+        JFR
+    }
+
+    private static final ConcurrentMap<TimerKey, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+    private static volatile Mode mode = parseMode(System.getProperty("portfolio.metrics", "off"));
+
+    private Metrics() {
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode newMode) {
+        mode = newMode;
+    }
+
+    public static boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    public static long start() {
+        return mode == Mode.OFF ? 0 : System.nanoTime();
+    }
+
+    public static Timer timer(String operation) {
+        return timer(operation, null);
+    }
+
+    public static Timer timer(String operation, String strategy) {
+        return TIMERS.computeIfAbsent(new TimerKey(operation, strategy), key -> new Timer(operation, strategy));
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    public static List<Timer> getTimers() {
+        return sorted(TIMERS.values(), Comparator.comparing(Timer::getOperation)
+                .thenComparing(Timer::getStrategy, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
+
+    public static List<Counter> getCounters() {
+        return sorted(COUNTERS.values(), Comparator.comparing(Counter::getName));
+    }
+
+    // Clears recorded values; registered timers and counters stay valid.
+    public static void reset() {
+        TIMERS.values().forEach(Timer::reset);
+        COUNTERS.values().forEach(Counter::reset);
+    }
+
+    static Mode parseMode(String value) {
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "on":
+            case "true":
+                return Mode.ON;
+            case "jfr":
+                return Mode.JFR;
+            default:
+                return Mode.OFF;
+        }
+    }
+
+    private static <T> List<T> sorted(Collection<T> values, Comparator<T> order) {
+        List<T> list = new ArrayList<>(values);
+        list.sort(order);
+        return list;
+    }
+
+    @Value
+    private static class TimerKey {
+        String operation;
+        String strategy;
+    }
+}
@@ -0,0 +1,102 @@
+package com.portfolio.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Renders the registry as Prometheus text exposition format (timers become
+// summaries in seconds) or as a compact one-line summary for periodic logging.
+public final class MetricsExporter {
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private MetricsExporter() {
+    }
+
+    public static String prometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        try {
+            writePrometheus(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public static void writePrometheus(Appendable out) throws IOException {
+        out.append("# HELP portfolio_operation_seconds Latency of instrumented portfolio operations\n");
+        out.append("# TYPE portfolio_operation_seconds summary\n");
+        for (Timer timer : Metrics.getTimers()) {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            String labels = labels(timer);
+            for (double quantile : QUANTILES) {
+                out.append("portfolio_operation_seconds{").append(labels)
+                        .append(",quantile=\"").append(String.valueOf(quantile)).append("\"} ")
+                        .append(seconds(snapshot.getPercentileNanos(quantile * 100))).append('\n');
+            }
+            out.append("portfolio_operation_seconds_sum{").append(labels).append("} ")
+                    .append(seconds(snapshot.getSumNanos())).append('\n');
+            out.append("portfolio_operation_seconds_count{").append(labels).append("} ")
+                    .append(String.valueOf(snapshot.getCount())).append('\n');
+        }
+        for (Counter counter : Metrics.getCounters()) {
+            String name = "portfolio_" + counter.getName() + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(String.valueOf(counter.getValue())).append('\n');
+        }
+    }
+
+    // e.g. "updateTotalValue n=1200 p50=0.4us p99=2.1us max=15.0us | ..."
+    public static String logLine() {
+        StringBuilder line = new StringBuilder("metrics");
+        for (Timer timer : Metrics.getTimers()) {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            line.append(" | ").append(timer.getOperation());
+            if (timer.getStrategy() != null) {
+                line.append('[').append(timer.getStrategy()).append(']');
+            }
+            line.append(String.format(Locale.ROOT, " n=%d p50=%.1fus p99=%.1fus max=%.1fus",
+                    snapshot.getCount(), snapshot.getPercentileNanos(50) / 1e3,
+                    snapshot.getPercentileNanos(99) / 1e3, snapshot.getMaxNanos() / 1e3));
+        }
+        for (Counter counter : Metrics.getCounters()) {
+            line.append(" | ").append(counter.getName()).append('=').append(counter.getValue());
+        }
+        return line.toString();
+    }
+
+    // Passes logLine() to the sink at a fixed rate until the returned executor is shut down.
+    public static ScheduledExecutorService startReporter(long period, TimeUnit unit, Consumer<String> sink) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> sink.accept(logLine()), period, period, unit);
+        return scheduler;
+    }
+
+    private static String labels(Timer timer) {
+        StringBuilder labels = new StringBuilder("operation=\"").append(escape(timer.getOperation())).append('"');
+        if (timer.getStrategy() != null) {
+            labels.append(",strategy=\"").append(escape(timer.getStrategy())).append('"');
+        }
+        return labels.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
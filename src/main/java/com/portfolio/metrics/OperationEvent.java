@@ -0,0 +1,39 @@
+package com.portfolio.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Emitted for every timed call in JFR mode. Record with
+//   java -Dportfolio.metrics=jfr -XX:StartFlightRecording=filename=rebalance.jfr ...
+// and filter on com.portfolio.Operation in JDK Mission Control.
+@Name("com.portfolio.Operation")
+@Label("Portfolio Operation")
+@Category("Portfolio")
+@Description("Latency of an instrumented valuation or rebalancing call")
+@StackTrace(false)
+class OperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+    static void emit(String operation, String strategy, long latency) {
+        OperationEvent event = new OperationEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.strategy = strategy;
+            event.latency = latency;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.portfolio.metrics;
+
+// Latency of one operation, optionally tagged with the strategy that ran it.
+// Usage on a hot path:
+//
+//   long start = Metrics.start();
+//   ...
+//   TIMER.stop(start);
+//
+// When metrics are off, start() returns 0 without reading the clock and stop()
+// returns immediately, so the disabled cost is one volatile read per call.
+public class Timer {
+    private final String operation;
+    private final String strategy;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String operation, String strategy) {
+        this.operation = operation;
+        this.strategy = strategy;
+    }
+
+    public void stop(long start) {
+        if (start == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        histogram.record(elapsed);
+        if (Metrics.getMode() == Metrics.Mode.JFR) {
+            OperationEvent.emit(operation, strategy, elapsed);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    // null for operations that are not strategy specific
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public LatencyHistogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    void reset() {
+        histogram.reset();
+    }
+}
@@ -17,6 +17,19 @@ public class Asset {
         return quantity * currentPrice;
     }
 
+    public long getQuantityMicros() {
+        return Money.toMicros(quantity);
+    }
+
+    public long getPriceMicros() {
+        return Money.toMicros(currentPrice);
+    }
+
+    // Exact quantity x price in micros; see Money.
+    public long getCurrentValueMicros() {
+        return Money.multiply(getQuantityMicros(), getPriceMicros());
+    }
+
     public double getCurrentAllocation(double totalPortfolioValue) {
         return totalPortfolioValue > 0 ? getCurrentValue() / totalPortfolioValue : 0;
     }
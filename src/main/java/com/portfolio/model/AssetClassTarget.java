@@ -0,0 +1,12 @@
+package com.portfolio.model;
+
+import lombok.Value;
+
+@Value
+public class AssetClassTarget {
+    AssetType type;
+    // share of total portfolio value allocated to the class
+    double targetAllocation;
+    // allowed absolute drift of the class weight before it is rebalanced
+    double tolerance;
+}
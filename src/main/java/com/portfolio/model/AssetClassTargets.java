@@ -0,0 +1,47 @@
+package com.portfolio.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Class-level targets and tolerance bands. When a class has a target, each
+// asset's targetAllocation is read as its weight relative to the other assets of
+// the same class; classes without one fall back to the sum of their assets'
+// targets and the strategy threshold as band.
+public class AssetClassTargets {
+    private final Map<AssetType, AssetClassTarget> targets = new EnumMap<>(AssetType.class);
+    // Bumped by set and remove; see RebalancingStrategy.getConfigVersion.
+    private long version;
+
+    public AssetClassTargets set(AssetType type, double targetAllocation, double tolerance) {
+        if (targetAllocation < 0 || tolerance < 0) {
+            throw new IllegalArgumentException("Target and tolerance must not be negative");
+        }
+        targets.put(type, new AssetClassTarget(type, targetAllocation, tolerance));
+        version++;
+        return this;
+    }
+
+    public AssetClassTargets remove(AssetType type) {
+        targets.remove(type);
+        version++;
+        return this;
+    }
+
+    public AssetClassTarget get(AssetType type) {
+        return targets.get(type);
+    }
+
+    public Collection<AssetClassTarget> getTargets() {
+        return Collections.unmodifiableCollection(targets.values());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double getTotalTarget() {
+        return targets.values().stream().mapToDouble(AssetClassTarget::getTargetAllocation).sum();
+    }
+}
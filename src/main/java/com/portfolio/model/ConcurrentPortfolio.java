@@ -0,0 +1,234 @@
+package com.portfolio.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Portfolio for concurrent use. Writers are serialized by one lock and publish a
+// new immutable PortfolioSnapshot per update (copy-on-write of only the arrays
+// they change); readers take the current snapshot with a single volatile read
+// and never block or see a half-applied update. The total value is recomputed
+// from the snapshot's own arrays, so it always matches the holdings it is
+// published with.
+//
+// Each published update copies O(assets) state, so high-rate feeds should group
+// ticks with update(...) and publish once per batch.
+public class ConcurrentPortfolio {
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile PortfolioSnapshot snapshot;
+
+    public ConcurrentPortfolio(String name) {
+        this.snapshot = new PortfolioSnapshot(0, name, 0, Collections.emptyMap(), new String[0], new String[0],
+                new AssetType[0], new double[0], new double[0], new double[0]);
+    }
+
+    public static ConcurrentPortfolio of(Portfolio portfolio) {
+        ConcurrentPortfolio concurrent = new ConcurrentPortfolio(portfolio.getName());
+        concurrent.update(batch -> {
+            batch.setCashBalance(portfolio.getCashBalance());
+            for (Asset asset : portfolio.getAssets()) {
+                batch.addAsset(asset);
+            }
+        });
+        return concurrent;
+    }
+
+    public PortfolioSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    public double getTotalValue() {
+        return snapshot.totalValue;
+    }
+
+    public List<String> getSymbols() {
+        return snapshot.getSymbols();
+    }
+
+    // Applies all changes made by the action atomically: readers see either none
+    // or all of them. If the action throws, nothing is published.
+    public PortfolioSnapshot update(Consumer<Batch> action) {
+        writeLock.lock();
+        try {
+            Batch batch = new Batch(snapshot);
+            action.accept(batch);
+            if (batch.changed) {
+                snapshot = batch.build();
+            }
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void updatePrice(String symbol, double price) {
+        update(batch -> batch.setPrice(symbol, price));
+    }
+
+    public void updateQuantity(String symbol, double quantity) {
+        update(batch -> batch.setQuantity(symbol, quantity));
+    }
+
+    public void setCashBalance(double cashBalance) {
+        update(batch -> batch.setCashBalance(cashBalance));
+    }
+
+    public void addAsset(Asset asset) {
+        update(batch -> batch.addAsset(asset));
+    }
+
+    public void removeAsset(String symbol) {
+        update(batch -> batch.removeAsset(symbol));
+    }
+
+    // Pending changes on top of a base snapshot. Arrays and the symbol index
+    // are copied on their first write only, so the base stays untouched.
+    public static final class Batch {
+        private final PortfolioSnapshot base;
+        private String name;
+        private double cashBalance;
+        private Map<String, Integer> index;
+        private String[] symbols;
+        private String[] names;
+        private AssetType[] types;
+        private double[] quantities;
+        private double[] prices;
+        private double[] targets;
+        private int size;
+        private boolean pricesCopied;
+        private boolean quantitiesCopied;
+        private boolean structureCopied;
+        private boolean changed;
+
+        private Batch(PortfolioSnapshot base) {
+            this.base = base;
+            this.name = base.name;
+            this.cashBalance = base.cashBalance;
+            this.index = base.index;
+            this.symbols = base.symbols;
+            this.names = base.names;
+            this.types = base.types;
+            this.quantities = base.quantities;
+            this.prices = base.prices;
+            this.targets = base.targets;
+            this.size = base.symbols.length;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+            changed = true;
+        }
+
+        public void setCashBalance(double cashBalance) {
+            this.cashBalance = cashBalance;
+            changed = true;
+        }
+
+        public void setPrice(String symbol, double price) {
+            int i = require(symbol);
+            if (!pricesCopied) {
+                prices = prices.clone();
+                pricesCopied = true;
+            }
+            prices[i] = price;
+            changed = true;
+        }
+
+        public void setQuantity(String symbol, double quantity) {
+            int i = require(symbol);
+            if (!quantitiesCopied) {
+                quantities = quantities.clone();
+                quantitiesCopied = true;
+            }
+            quantities[i] = quantity;
+            changed = true;
+        }
+
+        public void addAsset(Asset asset) {
+            if (indexOf(asset.getSymbol()) >= 0) {
+                throw new IllegalArgumentException("Duplicate symbol: " + asset.getSymbol());
+            }
+            copyStructure(size + 1);
+            symbols[size] = asset.getSymbol();
+            names[size] = asset.getName();
+            types[size] = asset.getType();
+            quantities[size] = asset.getQuantity();
+            prices[size] = asset.getCurrentPrice();
+            targets[size] = asset.getTargetAllocation();
+            index.put(asset.getSymbol(), size);
+            size++;
+            changed = true;
+        }
+
+        public void removeAsset(String symbol) {
+            int i = indexOf(symbol);
+            if (i < 0) {
+                return;
+            }
+            copyStructure(size);
+            int tail = size - i - 1;
+            System.arraycopy(symbols, i + 1, symbols, i, tail);
+            System.arraycopy(names, i + 1, names, i, tail);
+            System.arraycopy(types, i + 1, types, i, tail);
+            System.arraycopy(quantities, i + 1, quantities, i, tail);
+            System.arraycopy(prices, i + 1, prices, i, tail);
+            System.arraycopy(targets, i + 1, targets, i, tail);
+            size--;
+            index.remove(symbol);
+            for (int j = i; j < size; j++) {
+                index.put(symbols[j], j);
+            }
+            changed = true;
+        }
+
+        public int indexOf(String symbol) {
+            Integer i = index.get(symbol);
+            return i != null ? i : -1;
+        }
+
+        private int require(String symbol) {
+            int i = indexOf(symbol);
+            if (i < 0) {
+                throw new IllegalArgumentException("Unknown symbol: " + symbol);
+            }
+            return i;
+        }
+
+        private void copyStructure(int capacity) {
+            if (structureCopied && symbols.length >= capacity) {
+                return;
+            }
+            int length = Math.max(capacity, structureCopied ? symbols.length * 2 : capacity);
+            symbols = Arrays.copyOf(symbols, length);
+            names = Arrays.copyOf(names, length);
+            types = Arrays.copyOf(types, length);
+            quantities = Arrays.copyOf(quantities, length);
+            prices = Arrays.copyOf(prices, length);
+            targets = Arrays.copyOf(targets, length);
+            if (!structureCopied) {
+                index = new HashMap<>(index);
+            }
+            structureCopied = true;
+            pricesCopied = true;
+            quantitiesCopied = true;
+        }
+
+        private PortfolioSnapshot build() {
+            if (structureCopied) {
+                return new PortfolioSnapshot(base.version + 1, name, cashBalance, Collections.unmodifiableMap(index),
+                        Arrays.copyOf(symbols, size), Arrays.copyOf(names, size), Arrays.copyOf(types, size),
+                        Arrays.copyOf(quantities, size), Arrays.copyOf(prices, size), Arrays.copyOf(targets, size));
+            }
+            return new PortfolioSnapshot(base.version + 1, name, cashBalance, index, symbols, names, types,
+                    quantities, prices, targets);
+        }
+    }
+}
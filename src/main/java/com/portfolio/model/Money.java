@@ -0,0 +1,59 @@
+package com.portfolio.model;
+
+import java.math.BigDecimal;
+
+// Exact monetary arithmetic on longs scaled by one million ("micros"): $1.25 is
+// 1_250_000. Sums of micros are exact and independent of order, so totals over
+// large books do not drift by pennies the way double sums do. Range is about
+// +/- $9.2 trillion. Quantities and weights use the same scale (a weight of
+// 0.25 is 250_000 micros), and products are rounded half away from zero back to
+// micros. Nothing here allocates except format().
+public final class Money {
+    public static final long SCALE = 1_000_000L;
+
+    private Money() {
+    }
+
+    // Nearest micro. Exact for any double written with at most six decimals and
+    // magnitude below ~9e9, which covers prices, share counts and weights.
+    public static long toMicros(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    public static double toDouble(long micros) {
+        return (double) micros / SCALE;
+    }
+
+    // a * b / SCALE, e.g. quantity x price or amount x weight, rounded half away
+    // from zero. Splitting a at the scale keeps every intermediate product in
+    // range as long as the result and b * SCALE fit in a long.
+    public static long multiply(long a, long b) {
+        long whole = a / SCALE;
+        long fraction = a % SCALE;
+        return Math.addExact(Math.multiplyExact(whole, b), divideRounded(fraction * b, SCALE));
+    }
+
+    // value x weight, where the weight is a plain fraction such as 0.05
+    public static long fraction(long micros, double weight) {
+        return multiply(micros, toMicros(weight));
+    }
+
+    public static long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    public static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, 6);
+    }
+
+    // Exact decimal text with cents, more digits only when present: "1234.50", "0.125".
+    public static String format(long micros) {
+        BigDecimal value = toBigDecimal(micros).stripTrailingZeros();
+        return value.scale() < 2 ? value.setScale(2).toPlainString() : value.toPlainString();
+    }
+}
@@ -1,36 +1,391 @@
 package com.portfolio.model;
 
+import com.portfolio.metrics.Counter;
+import com.portfolio.metrics.Metrics;
+import com.portfolio.metrics.Timer;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Data
 public class Portfolio {
+    public static final int DEFAULT_DRIFT_CORRECTION_INTERVAL = 10_000;
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+    private static final Timer UPDATE_TOTAL_VALUE = Metrics.timer("updateTotalValue");
+    private static final Timer DEVIATION_FROM_TARGET = Metrics.timer("getDeviationFromTarget");
+    private static final Counter PRICE_UPDATES = Metrics.counter("price_updates");
+
     private String name;
-    private List<Asset> assets;
+    private final List<Asset> assets = new ArrayList<>();
     private double totalValue;
     private double cashBalance;
 
+    @EqualsAndHashCode.Exclude
+    private final long id;
+
+    // Bumped by every mutation made through this class, so callers can tell
+    // whether derived results are still current. Changes made directly on an
+    // Asset are not seen until updateTotalValue() is called.
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile long version;
+
+    @EqualsAndHashCode.Exclude
+    private int driftCorrectionInterval = DEFAULT_DRIFT_CORRECTION_INTERVAL;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final DriftState drift = new DriftState();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile PortfolioListener[] listeners = new PortfolioListener[0];
+
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final List<Asset> assetsView = Collections.unmodifiableList(assets);
+
     public Portfolio() {
-        this.assets = new ArrayList<>();
+        this(NEXT_ID.incrementAndGet());
     }
 
-    public void addAsset(Asset asset) {
-        assets.add(asset);
+    // Restores a persisted portfolio under its original id. Ids handed out
+    // afterwards continue above it, so recover before creating new portfolios.
+    public Portfolio(long id) {
+        this.id = id;
+        NEXT_ID.accumulateAndGet(id, Math::max);
+    }
+
+    public synchronized void addListener(PortfolioListener listener) {
+        PortfolioListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeListener(PortfolioListener listener) {
+        listeners = Arrays.stream(listeners)
+                .filter(existing -> existing != listener)
+                .toArray(PortfolioListener[]::new);
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        version++;
+        for (PortfolioListener listener : listeners) {
+            listener.nameChanged(this, name);
+        }
+    }
+
+    public void setTotalValue(double totalValue) {
+        this.totalValue = totalValue;
+        version++;
+    }
+
+    public void setCashBalance(double cashBalance) {
+        totalValue += cashBalance - this.cashBalance;
+        this.cashBalance = cashBalance;
+        version++;
+        for (PortfolioListener listener : listeners) {
+            listener.cashBalanceChanged(this, cashBalance);
+        }
+    }
+
+    // Detached copy under the same id and version for work on another thread,
+    // such as a rebalance: assets are cloned and listeners are not carried over.
+    // (id, version) still names one state, so a RebalanceCache can be shared
+    // with the original as long as the copy is only read.
+    public Portfolio copy() {
+        long copiedVersion = version;
+        List<Asset> cloned = new ArrayList<>(assets.size());
+        for (Asset asset : assets) {
+            cloned.add(Asset.builder()
+                    .symbol(asset.getSymbol())
+                    .name(asset.getName())
+                    .type(asset.getType())
+                    .quantity(asset.getQuantity())
+                    .currentPrice(asset.getCurrentPrice())
+                    .targetAllocation(asset.getTargetAllocation())
+                    .build());
+        }
+        Portfolio copy = new Portfolio(id);
+        copy.name = name;
+        copy.cashBalance = cashBalance;
+        copy.setAssets(cloned);
+        copy.version = copiedVersion;
+        return copy;
+    }
+
+    // Assets are held in slots addressed through a symbol -> slot index, so
+    // lookups, adds and removes are O(1). Removing an asset moves the last one
+    // into its slot. Symbols are unique; adding a duplicate throws. Each slot
+    // also keeps the symbol's global SymbolIndex id, looked up when the asset is
+    // added, for PortfolioColumns.
+    public List<Asset> getAssets() {
+        return assetsView;
+    }
+
+    // Replaces all holdings with one total recompute. Listeners see the old
+    // holdings removed and the new ones added.
+    public void setAssets(List<Asset> assets) {
+        Map<String, Integer> slots = new HashMap<>(Math.max(16, assets.size() * 4 / 3 + 1));
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            if (slots.put(assets.get(i).getSymbol(), i) != null) {
+                throw new IllegalArgumentException("Duplicate symbol: " + assets.get(i).getSymbol());
+            }
+        }
+        int[] symbolIds = new int[Math.max(16, assets.size())];
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            symbolIds[i] = SymbolIndex.global().idOf(assets.get(i).getSymbol());
+        }
+        List<Asset> previous = listeners.length > 0 ? new ArrayList<>(this.assets) : List.of();
+        this.assets.clear();
+        this.assets.addAll(assets);
+        drift.slots = slots;
+        drift.symbolIds = symbolIds;
         updateTotalValue();
+        for (PortfolioListener listener : listeners) {
+            previous.forEach(asset -> listener.assetRemoved(this, asset.getSymbol()));
+            assets.forEach(asset -> listener.assetAdded(this, asset));
+        }
+    }
+
+    public void addAsset(Asset asset) {
+        insert(asset);
+        double value = asset.getCurrentValue();
+        totalValue += value;
+        drift.dollarDeviation += Math.abs(value - asset.getTargetAllocation() * drift.referenceTotal);
+        drift.targetSum += asset.getTargetAllocation();
+        version++;
+        for (PortfolioListener listener : listeners) {
+            listener.assetAdded(this, asset);
+        }
     }
 
     public void removeAsset(String symbol) {
-        assets.removeIf(asset -> asset.getSymbol().equals(symbol));
+        Asset asset = delete(symbol);
+        if (asset == null) {
+            return;
+        }
+        double value = asset.getCurrentValue();
+        totalValue -= value;
+        drift.dollarDeviation -= Math.abs(value - asset.getTargetAllocation() * drift.referenceTotal);
+        drift.targetSum -= asset.getTargetAllocation();
+        version++;
+        for (PortfolioListener listener : listeners) {
+            listener.assetRemoved(this, symbol);
+        }
+    }
+
+    // Bulk variants recompute the totals once per batch. addAll checks every
+    // symbol before adding any, so a duplicate leaves the portfolio unchanged.
+    public void addAll(Collection<Asset> added) {
+        Set<String> symbols = new HashSet<>();
+        for (Asset asset : added) {
+            if (drift.slots.containsKey(asset.getSymbol()) || !symbols.add(asset.getSymbol())) {
+                throw new IllegalArgumentException("Duplicate symbol: " + asset.getSymbol());
+            }
+        }
+        added.forEach(this::insert);
+        updateTotalValue();
+        for (PortfolioListener listener : listeners) {
+            added.forEach(asset -> listener.assetAdded(this, asset));
+        }
+    }
+
+    public void removeAll(Collection<String> symbols) {
+        List<String> removed = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            if (delete(symbol) != null) {
+                removed.add(symbol);
+            }
+        }
         updateTotalValue();
+        for (PortfolioListener listener : listeners) {
+            removed.forEach(symbol -> listener.assetRemoved(this, symbol));
+        }
+    }
+
+    // Upserts positions: a symbol already held takes the given quantity, price,
+    // target, name and type on its existing Asset; new symbols are added.
+    public void applyAll(Collection<Asset> positions) {
+        List<Asset> added = new ArrayList<>();
+        List<Asset> changed = new ArrayList<>(positions.size());
+        for (Asset position : positions) {
+            Asset asset = getAsset(position.getSymbol());
+            if (asset == null) {
+                insert(position);
+                added.add(position);
+            } else {
+                asset.setName(position.getName());
+                asset.setType(position.getType());
+                asset.setQuantity(position.getQuantity());
+                asset.setCurrentPrice(position.getCurrentPrice());
+                asset.setTargetAllocation(position.getTargetAllocation());
+                changed.add(asset);
+            }
+        }
+        updateTotalValue();
+        for (PortfolioListener listener : listeners) {
+            added.forEach(asset -> listener.assetAdded(this, asset));
+            changed.forEach(asset -> listener.assetReplaced(this, asset));
+        }
+    }
+
+    private void insert(Asset asset) {
+        if (drift.slots.putIfAbsent(asset.getSymbol(), assets.size()) != null) {
+            throw new IllegalArgumentException("Duplicate symbol: " + asset.getSymbol());
+        }
+        int slot = assets.size();
+        if (slot == drift.symbolIds.length) {
+            drift.symbolIds = Arrays.copyOf(drift.symbolIds, slot * 2);
+        }
+        drift.symbolIds[slot] = SymbolIndex.global().idOf(asset.getSymbol());
+        assets.add(asset);
+    }
+
+    private Asset delete(String symbol) {
+        Integer slot = drift.slots.remove(symbol);
+        if (slot == null) {
+            return null;
+        }
+        int last = assets.size() - 1;
+        Asset asset = assets.get(slot);
+        if (slot != last) {
+            Asset moved = assets.get(last);
+            assets.set(slot, moved);
+            drift.slots.put(moved.getSymbol(), slot);
+            drift.symbolIds[slot] = drift.symbolIds[last];
+        }
+        assets.remove(last);
+        return asset;
+    }
+
+    // Global SymbolIndex id of the asset in slot (its index in getAssets()).
+    // Only the mutating thread writes the ids, so this is a plain read.
+    int symbolId(int slot) {
+        return drift.symbolIds[slot];
+    }
+
+    public Asset getAsset(String symbol) {
+        Integer slot = drift.slots.get(symbol);
+        return slot != null ? assets.get(slot) : null;
+    }
+
+    // Price and quantity updates run in O(1): the total value and the running sum
+    // of absolute dollar deviations are adjusted by the changed asset's delta only.
+    public void updatePrice(String symbol, double newPrice) {
+        Asset asset = requireAsset(symbol);
+        double oldValue = asset.getCurrentValue();
+        asset.setCurrentPrice(newPrice);
+        applyValueChange(asset, oldValue);
+        PRICE_UPDATES.increment();
+        for (PortfolioListener listener : listeners) {
+            listener.priceUpdated(this, symbol, newPrice);
+        }
+    }
+
+    public void updateQuantity(String symbol, double newQuantity) {
+        Asset asset = requireAsset(symbol);
+        double oldValue = asset.getCurrentValue();
+        asset.setQuantity(newQuantity);
+        applyValueChange(asset, oldValue);
+        for (PortfolioListener listener : listeners) {
+            listener.quantityUpdated(this, symbol, newQuantity);
+        }
+    }
+
+    public void updateTarget(String symbol, double newTarget) {
+        Asset asset = requireAsset(symbol);
+        double value = asset.getCurrentValue();
+        double oldTarget = asset.getTargetAllocation();
+        asset.setTargetAllocation(newTarget);
+        drift.dollarDeviation += Math.abs(value - newTarget * drift.referenceTotal)
+                - Math.abs(value - oldTarget * drift.referenceTotal);
+        drift.targetSum += newTarget - oldTarget;
+        version++;
+        for (PortfolioListener listener : listeners) {
+            listener.targetUpdated(this, symbol, newTarget);
+        }
+    }
+
+    private Asset requireAsset(String symbol) {
+        Asset asset = getAsset(symbol);
+        if (asset == null) {
+            throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        }
+        return asset;
+    }
+
+    private void applyValueChange(Asset asset, double oldValue) {
+        double newValue = asset.getCurrentValue();
+        double targetValue = asset.getTargetAllocation() * drift.referenceTotal;
+
+        totalValue += newValue - oldValue;
+        version++;
+        drift.dollarDeviation += Math.abs(newValue - targetValue) - Math.abs(oldValue - targetValue);
+        if (++drift.ticksSinceRecompute >= driftCorrectionInterval) {
+            updateTotalValue();
+        }
     }
 
     public void updateTotalValue() {
-        this.totalValue = assets.stream()
-                .mapToDouble(Asset::getCurrentValue)
-                .sum() + cashBalance;
+        long start = Metrics.start();
+        double sum = 0;
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            sum += assets.get(i).getCurrentValue();
+        }
+        this.totalValue = sum + cashBalance;
+        version++;
+        recomputeDrift();
+        UPDATE_TOTAL_VALUE.stop(start);
+    }
+
+    private void recomputeDrift() {
+        double deviation = 0;
+        double targetSum = 0;
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            Asset asset = assets.get(i);
+            deviation += Math.abs(asset.getCurrentValue() - asset.getTargetAllocation() * totalValue);
+            targetSum += asset.getTargetAllocation();
+        }
+        drift.referenceTotal = totalValue;
+        drift.dollarDeviation = deviation;
+        drift.targetSum = targetSum;
+        drift.ticksSinceRecompute = 0;
+    }
+
+    public long getCashBalanceMicros() {
+        return Money.toMicros(cashBalance);
+    }
+
+    // Exact total in micros, recomputed from the holdings on every call rather
+    // than accumulated, so it never picks up rounding from incremental updates.
+    public long getTotalValueMicros() {
+        long sum = getCashBalanceMicros();
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            sum = Math.addExact(sum, assets.get(i).getCurrentValueMicros());
+        }
+        return sum;
     }
 
     public Map<String, Double> getCurrentAllocations() {
@@ -42,20 +397,50 @@ public class Portfolio {
     }
 
     public Map<String, Double> getDeviationFromTarget() {
-        return assets.stream()
+        long start = Metrics.start();
+        Map<String, Double> deviations = assets.stream()
                 .collect(Collectors.toMap(
                     Asset::getSymbol,
                     asset -> asset.getDeviationFromTarget(totalValue)
                 ));
+        DEVIATION_FROM_TARGET.stop(start);
+        return deviations;
     }
 
     public double getTotalDeviation() {
-        return assets.stream()
-                .mapToDouble(asset -> Math.abs(asset.getDeviationFromTarget(totalValue)))
-                .sum();
+        double sum = 0;
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            sum += Math.abs(assets.get(i).getDeviationFromTarget(totalValue));
+        }
+        return sum;
     }
 
+    // The tracked dollar deviation is exact at the reference total. Moving the total
+    // by d shifts each |value - target * total| term by at most target * |d|, so the
+    // true deviation lies within targetSum * |d| of the tracked one. Only when the
+    // threshold falls inside that band is a full recompute needed.
     public boolean needsRebalancing(double threshold) {
-        return getTotalDeviation() > threshold;
+        if (totalValue <= 0) {
+            return getTotalDeviation() > threshold;
+        }
+        double limit = threshold * totalValue;
+        double band = drift.targetSum * Math.abs(totalValue - drift.referenceTotal);
+        if (drift.dollarDeviation - band > limit) {
+            return true;
+        }
+        if (drift.dollarDeviation + band <= limit) {
+            return false;
+        }
+        recomputeDrift();
+        return drift.dollarDeviation > limit;
+    }
+
+    private static final class DriftState {
+        private Map<String, Integer> slots = new HashMap<>();
+        private int[] symbolIds = new int[16];
+        private double referenceTotal;
+        private double dollarDeviation;
+        private double targetSum;
+        private int ticksSinceRecompute;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package com.portfolio.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class PortfolioColumns {
+    private final SymbolIndex symbolIndex;
+    private int size;
+    private String[] symbols = new String[0];
+    private String[] names = new String[0];
+    private int[] symbolIds = new int[0];
+    private AssetType[] types = new AssetType[0];
+    private double[] quantities = new double[0];
+    private double[] prices = new double[0];
+    private double[] targets = new double[0];
+    private double[] values = new double[0];
+    private double cashBalance;
+    private double totalValue;
+
+    public PortfolioColumns() {
+        this(SymbolIndex.global());
+    }
+
+    public PortfolioColumns(SymbolIndex symbolIndex) {
+        this.symbolIndex = symbolIndex;
+    }
+
+    public static PortfolioColumns of(Portfolio portfolio) {
+        return new PortfolioColumns().load(portfolio);
+    }
+
+    // Reuses the backing arrays when they are large enough, so repeated loads of
+    // similarly sized portfolios do not allocate. Symbol ids of the global index
+    // come from the portfolio's slots, so loads skip the index.
+    public PortfolioColumns load(Portfolio portfolio) {
+        List<Asset> assets = portfolio.getAssets();
+        int n = assets.size();
+        boolean global = symbolIndex == SymbolIndex.global();
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            Asset asset = assets.get(i);
+            symbols[i] = asset.getSymbol();
+            names[i] = asset.getName();
+            symbolIds[i] = global ? portfolio.symbolId(i) : symbolIndex.idOf(asset.getSymbol());
+            types[i] = asset.getType();
+            quantities[i] = asset.getQuantity();
+            prices[i] = asset.getCurrentPrice();
+            targets[i] = asset.getTargetAllocation();
+            values[i] = quantities[i] * prices[i];
+        }
+        for (int i = n; i < size; i++) {
+            symbols[i] = null;
+            names[i] = null;
+            types[i] = null;
+        }
+        this.size = n;
+        this.cashBalance = portfolio.getCashBalance();
+        this.totalValue = portfolio.getTotalValue();
+        return this;
+    }
+
+    // Drops the references to the loaded symbols and names, keeping the arrays
+    // for the next load. Instances cached per thread call it once done, so they
+    // don't hold on to the last portfolio's data.
+    public void clear() {
+        Arrays.fill(symbols, 0, size, null);
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(types, 0, size, null);
+        size = 0;
+        cashBalance = 0;
+        totalValue = 0;
+    }
+
+    private void ensureCapacity(int n) {
+        if (quantities.length >= n) {
+            return;
+        }
+        int capacity = Math.max(n, quantities.length * 2);
+        symbols = new String[capacity];
+        names = new String[capacity];
+        symbolIds = new int[capacity];
+        types = new AssetType[capacity];
+        quantities = new double[capacity];
+        prices = new double[capacity];
+        targets = new double[capacity];
+        values = new double[capacity];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public SymbolIndex getSymbolIndex() {
+        return symbolIndex;
+    }
+
+    public String symbol(int i) {
+        return symbols[i];
+    }
+
+    public String name(int i) {
+        return names[i];
+    }
+
+    public int symbolId(int i) {
+        return symbolIds[i];
+    }
+
+    public AssetType type(int i) {
+        return types[i];
+    }
+
+    public double quantity(int i) {
+        return quantities[i];
+    }
+
+    public double price(int i) {
+        return prices[i];
+    }
+
+    public double target(int i) {
+        return targets[i];
+    }
+
+    public double value(int i) {
+        return values[i];
+    }
+
+    public double getCashBalance() {
+        return cashBalance;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    // Exact counterparts of value(i) and getTotalValue(), computed on demand from
+    // the loaded quantities and prices so the double path pays nothing for them.
+    public long valueMicros(int i) {
+        return Money.multiply(Money.toMicros(quantities[i]), Money.toMicros(prices[i]));
+    }
+
+    public long totalValueMicros() {
+        long sum = Money.toMicros(cashBalance);
+        for (int i = 0; i < size; i++) {
+            sum = Math.addExact(sum, valueMicros(i));
+        }
+        return sum;
+    }
+
+    public double allocation(int i) {
+        return totalValue > 0 ? values[i] / totalValue : 0;
+    }
+
+    public double deviation(int i) {
+        return allocation(i) - targets[i];
+    }
+
+    public double totalDeviation() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += Math.abs(deviation(i));
+        }
+        return sum;
+    }
+}
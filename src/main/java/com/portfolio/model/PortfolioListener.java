@@ -0,0 +1,32 @@
+package com.portfolio.model;
+
+public interface PortfolioListener {
+    default void nameChanged(Portfolio portfolio, String name) {
+    }
+
+    default void assetAdded(Portfolio portfolio, Asset asset) {
+    }
+
+    default void assetRemoved(Portfolio portfolio, String symbol) {
+    }
+
+    default void priceUpdated(Portfolio portfolio, String symbol, double price) {
+    }
+
+    default void quantityUpdated(Portfolio portfolio, String symbol, double quantity) {
+    }
+
+    default void targetUpdated(Portfolio portfolio, String symbol, double targetAllocation) {
+    }
+
+    // Any field of a held asset, including name and type, may have changed
+    // (Portfolio.applyAll). Reported field by field unless overridden.
+    default void assetReplaced(Portfolio portfolio, Asset asset) {
+        quantityUpdated(portfolio, asset.getSymbol(), asset.getQuantity());
+        priceUpdated(portfolio, asset.getSymbol(), asset.getCurrentPrice());
+        targetUpdated(portfolio, asset.getSymbol(), asset.getTargetAllocation());
+    }
+
+    default void cashBalanceChanged(Portfolio portfolio, double cashBalance) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.portfolio.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Immutable state of a ConcurrentPortfolio at one version. Holdings are parallel
+// arrays in asset order; arrays that an update did not touch are shared with the
+// previous snapshot, and none of them are written after publication, so any
+// number of threads may read a snapshot without locking.
+public final class PortfolioSnapshot {
+    final long version;
+    final String name;
+    final double cashBalance;
+    final double totalValue;
+    final Map<String, Integer> index;
+    final String[] symbols;
+    final String[] names;
+    final AssetType[] types;
+    final double[] quantities;
+    final double[] prices;
+    final double[] targets;
+
+    PortfolioSnapshot(long version, String name, double cashBalance, Map<String, Integer> index, String[] symbols,
+                      String[] names, AssetType[] types, double[] quantities, double[] prices, double[] targets) {
+        this.version = version;
+        this.name = name;
+        this.cashBalance = cashBalance;
+        this.index = index;
+        this.symbols = symbols;
+        this.names = names;
+        this.types = types;
+        this.quantities = quantities;
+        this.prices = prices;
+        this.targets = targets;
+        double sum = cashBalance;
+        for (int i = 0; i < quantities.length; i++) {
+            sum += quantities[i] * prices[i];
+        }
+        this.totalValue = sum;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getCashBalance() {
+        return cashBalance;
+    }
+
+    public double getTotalValue() {
+        return totalValue;
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public int indexOf(String symbol) {
+        Integer i = index.get(symbol);
+        return i != null ? i : -1;
+    }
+
+    public String symbol(int i) {
+        return symbols[i];
+    }
+
+    public String name(int i) {
+        return names[i];
+    }
+
+    public AssetType type(int i) {
+        return types[i];
+    }
+
+    public double quantity(int i) {
+        return quantities[i];
+    }
+
+    public double price(int i) {
+        return prices[i];
+    }
+
+    public double target(int i) {
+        return targets[i];
+    }
+
+    public double value(int i) {
+        return quantities[i] * prices[i];
+    }
+
+    public double allocation(int i) {
+        return totalValue > 0 ? value(i) / totalValue : 0;
+    }
+
+    public double deviation(int i) {
+        return allocation(i) - targets[i];
+    }
+
+    public double totalDeviation() {
+        double sum = 0;
+        for (int i = 0; i < symbols.length; i++) {
+            sum += Math.abs(deviation(i));
+        }
+        return sum;
+    }
+
+    // Same rule as Portfolio.needsRebalancing, evaluated exactly on this version.
+    public boolean needsRebalancing(double threshold) {
+        return totalDeviation() > threshold;
+    }
+
+    public List<String> getSymbols() {
+        return Collections.unmodifiableList(Arrays.asList(symbols));
+    }
+
+    // Detached mutable copy for APIs that take a Portfolio, such as the
+    // rebalancing strategies. Changes to it do not affect the source.
+    public Portfolio toPortfolio() {
+        List<Asset> assets = new ArrayList<>(symbols.length);
+        for (int i = 0; i < symbols.length; i++) {
+            assets.add(Asset.builder()
+                    .symbol(symbols[i])
+                    .name(names[i])
+                    .type(types[i])
+                    .quantity(quantities[i])
+                    .currentPrice(prices[i])
+                    .targetAllocation(targets[i])
+                    .build());
+        }
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName(name);
+        portfolio.setCashBalance(cashBalance);
+        portfolio.setAssets(assets);
+        return portfolio;
+    }
+}
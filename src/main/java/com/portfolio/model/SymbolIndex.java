@@ -0,0 +1,59 @@
+package com.portfolio.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dense int ids for symbols. Ids stay valid for the life of the index and are
+// never reused, so it only grows: use it for a symbol universe, not arbitrary
+// user input.
+public class SymbolIndex {
+    private static final SymbolIndex GLOBAL = new SymbolIndex();
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[64];
+    private volatile int size;
+
+    public static SymbolIndex global() {
+        return GLOBAL;
+    }
+
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        return register(symbol);
+    }
+
+    private synchronized int register(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        int next = size;
+        if (next == symbols.length) {
+            symbols = Arrays.copyOf(symbols, next * 2);
+        }
+        symbols[next] = symbol.intern();
+        size = next + 1;
+        ids.put(symbols[next], next);
+        return next;
+    }
+
+    public int find(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    public String symbol(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown symbol id: " + id);
+        }
+        return symbols[id];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,144 @@
+package com.portfolio.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Rebalancing trades as parallel primitive arrays: one row per trade with the
+// symbol, its SymbolIndex id, the signed dollar amount (positive buys), the
+// signed share quantity and the price the quantity was derived from. A list is
+// meant to be cleared and refilled across calls, so steady-state use does not
+// allocate; iterate with an index loop over size().
+public class TradeList {
+    public enum Side {
+        BUY, SELL
+    }
+
+    private int size;
+    private String[] symbols;
+    private int[] symbolIds;
+    private double[] amounts;
+    private double[] shares;
+    private double[] prices;
+
+    public TradeList() {
+        this(16);
+    }
+
+    public TradeList(int capacity) {
+        symbols = new String[capacity];
+        symbolIds = new int[capacity];
+        amounts = new double[capacity];
+        shares = new double[capacity];
+        prices = new double[capacity];
+    }
+
+    public TradeList clear() {
+        Arrays.fill(symbols, 0, size, null);
+        size = 0;
+        return this;
+    }
+
+    // Shares are amount / price, or 0 when there is no usable price.
+    public void add(String symbol, int symbolId, double amount, double price) {
+        if (size == amounts.length) {
+            grow();
+        }
+        symbols[size] = symbol;
+        symbolIds[size] = symbolId;
+        amounts[size] = amount;
+        shares[size] = price > 0 ? amount / price : 0;
+        prices[size] = price;
+        size++;
+    }
+
+    public void add(TradeList other, int i) {
+        add(other.symbols[i], other.symbolIds[i], other.amounts[i], other.prices[i]);
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, amounts.length * 2);
+        symbols = Arrays.copyOf(symbols, capacity);
+        symbolIds = Arrays.copyOf(symbolIds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        shares = Arrays.copyOf(shares, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String symbol(int i) {
+        return symbols[i];
+    }
+
+    public int symbolId(int i) {
+        return symbolIds[i];
+    }
+
+    public Side side(int i) {
+        return amounts[i] > 0 ? Side.BUY : Side.SELL;
+    }
+
+    public double amount(int i) {
+        return amounts[i];
+    }
+
+    public double shares(int i) {
+        return shares[i];
+    }
+
+    public double price(int i) {
+        return prices[i];
+    }
+
+    public double totalBought() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += Math.max(amounts[i], 0);
+        }
+        return sum;
+    }
+
+    public double totalSold() {
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += Math.max(-amounts[i], 0);
+        }
+        return sum;
+    }
+
+    public TradeList copy() {
+        TradeList copy = new TradeList(Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            copy.add(this, i);
+        }
+        return copy;
+    }
+
+    // Adapter for callers of the Map<String, Double> API.
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new HashMap<>(Math.max(16, size * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            map.put(symbols[i], amounts[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("TradeList[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(symbols[i]).append('=').append(amounts[i]);
+        }
+        return text.append(']').toString();
+    }
+}
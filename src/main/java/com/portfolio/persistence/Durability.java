@@ -0,0 +1,10 @@
+package com.portfolio.persistence;
+
+public enum Durability {
+    // records are written by the background thread and left to the OS page cache
+    ASYNC,
+    // the background thread fsyncs once per batch of records; callers never wait
+    GROUP_COMMIT,
+    // callers wait until the batch containing their record has been fsynced
+    SYNC
+}
@@ -0,0 +1,102 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Portfolio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+public final class JournalReader {
+    static final long DEFAULT_WINDOW_BYTES = 64L << 20;
+
+    private JournalReader() {
+    }
+
+    // Replays every complete record onto the book and returns how many were
+    // applied. Reading stops at the first torn or corrupt frame.
+    public static long replay(Path file, Map<Long, Portfolio> book) throws IOException {
+        return replay(file, book, DEFAULT_WINDOW_BYTES);
+    }
+
+    static long replay(Path file, Map<Long, Portfolio> book, long windowBytes) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            FrameCursor cursor = new FrameCursor(channel, windowBytes);
+            long applied = 0;
+            ByteBuffer payload;
+            while ((payload = cursor.next()) != null) {
+                JournalRecord.apply(payload, book);
+                applied++;
+            }
+            return applied;
+        }
+    }
+
+    static long validLength(FileChannel channel) throws IOException {
+        return validLength(channel, DEFAULT_WINDOW_BYTES);
+    }
+
+    static long validLength(FileChannel channel, long windowBytes) throws IOException {
+        FrameCursor cursor = new FrameCursor(channel, windowBytes);
+        while (cursor.next() != null) {
+            // advance past every complete frame
+        }
+        return cursor.position;
+    }
+
+    // Walks the frames through a mapped window that slides along the file, the
+    // way PriceHistory reads its bars, so journals of any length can be read
+    // with a long position. A frame larger than the window gets its own mapping.
+    private static final class FrameCursor {
+        private final FileChannel channel;
+        private final long size;
+        private final long windowBytes;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        FrameCursor(FileChannel channel, long windowBytes) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowBytes = windowBytes;
+        }
+
+        ByteBuffer next() throws IOException {
+            if (size - position < JournalRecord.FRAME_HEADER) {
+                return null;
+            }
+            ensureMapped(JournalRecord.FRAME_HEADER);
+            int offset = (int) (position - windowStart);
+            int length = window.getInt(offset);
+            int crc = window.getInt(offset + 4);
+            if (length <= 0 || length > Integer.MAX_VALUE - JournalRecord.FRAME_HEADER
+                    || length > size - position - JournalRecord.FRAME_HEADER) {
+                return null;
+            }
+            ensureMapped(JournalRecord.FRAME_HEADER + length);
+            int start = (int) (position - windowStart) + JournalRecord.FRAME_HEADER;
+            ByteBuffer payload = window.duplicate().position(start).limit(start + length).slice();
+            if (JournalRecord.crc(payload) != crc) {
+                return null;
+            }
+            position += JournalRecord.FRAME_HEADER + length;
+            return payload;
+        }
+
+        private void ensureMapped(int bytes) throws IOException {
+            if (window != null && position >= windowStart && position + bytes <= windowStart + window.limit()) {
+                return;
+            }
+            long length = Math.min(size - position, Math.max(windowBytes, bytes));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            windowStart = position;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Journal frame: int payloadLength, int crc32(payload), payload.
+// Payload: byte op, long portfolioId, then op-specific fields; strings are
+// int byteLength (-1 for null) followed by UTF-8 bytes.
+final class JournalRecord {
+    static final int FRAME_HEADER = 8;
+
+    static final byte ADD_ASSET = 1;
+    static final byte REMOVE_ASSET = 2;
+    static final byte UPDATE_PRICE = 3;
+    static final byte UPDATE_QUANTITY = 4;
+    static final byte SET_CASH = 5;
+    static final byte UPDATE_TARGET = 6;
+    static final byte REPLACE_ASSET = 7;
+    static final byte SET_NAME = 8;
+
+    private static final AssetType[] TYPES = AssetType.values();
+
+    private JournalRecord() {
+    }
+
+    static byte[] addAsset(Portfolio portfolio, Asset asset) {
+        return assetRecord(ADD_ASSET, portfolio, asset);
+    }
+
+    // Same payload as ADD_ASSET; replayed in place through Portfolio.applyAll.
+    static byte[] replaceAsset(Portfolio portfolio, Asset asset) {
+        return assetRecord(REPLACE_ASSET, portfolio, asset);
+    }
+
+    private static byte[] assetRecord(byte op, Portfolio portfolio, Asset asset) {
+        byte[] symbol = utf8(asset.getSymbol());
+        byte[] name = utf8(asset.getName());
+        ByteBuffer frame = frame(1 + Long.BYTES + size(symbol) + size(name) + 1 + 3 * Double.BYTES);
+        frame.put(op);
+        frame.putLong(portfolio.getId());
+        putString(frame, symbol);
+        putString(frame, name);
+        frame.put(asset.getType() != null ? (byte) asset.getType().ordinal() : -1);
+        frame.putDouble(asset.getQuantity());
+        frame.putDouble(asset.getCurrentPrice());
+        frame.putDouble(asset.getTargetAllocation());
+        return seal(frame);
+    }
+
+    static byte[] removeAsset(Portfolio portfolio, String symbol) {
+        byte[] symbolBytes = utf8(symbol);
+        ByteBuffer frame = frame(1 + Long.BYTES + size(symbolBytes));
+        frame.put(REMOVE_ASSET);
+        frame.putLong(portfolio.getId());
+        putString(frame, symbolBytes);
+        return seal(frame);
+    }
+
+    static byte[] updateValue(byte op, Portfolio portfolio, String symbol, double value) {
+        byte[] symbolBytes = utf8(symbol);
+        ByteBuffer frame = frame(1 + Long.BYTES + size(symbolBytes) + Double.BYTES);
+        frame.put(op);
+        frame.putLong(portfolio.getId());
+        putString(frame, symbolBytes);
+        frame.putDouble(value);
+        return seal(frame);
+    }
+
+    static byte[] setCash(Portfolio portfolio, double cashBalance) {
+        ByteBuffer frame = frame(1 + Long.BYTES + Double.BYTES);
+        frame.put(SET_CASH);
+        frame.putLong(portfolio.getId());
+        frame.putDouble(cashBalance);
+        return seal(frame);
+    }
+
+    static byte[] setName(Portfolio portfolio, String name) {
+        byte[] nameBytes = utf8(name);
+        ByteBuffer frame = frame(1 + Long.BYTES + size(nameBytes));
+        frame.put(SET_NAME);
+        frame.putLong(portfolio.getId());
+        putString(frame, nameBytes);
+        return seal(frame);
+    }
+
+    // Applies one payload to the book, creating the portfolio on first reference.
+    static void apply(ByteBuffer payload, Map<Long, Portfolio> book) {
+        byte op = payload.get();
+        Portfolio portfolio = book.computeIfAbsent(payload.getLong(), Portfolio::new);
+        switch (op) {
+            case ADD_ASSET: {
+                Asset asset = getAsset(payload);
+                portfolio.removeAsset(asset.getSymbol());
+                portfolio.addAsset(asset);
+                break;
+            }
+            case REPLACE_ASSET:
+                portfolio.applyAll(List.of(getAsset(payload)));
+                break;
+            case REMOVE_ASSET:
+                portfolio.removeAsset(getString(payload));
+                break;
+            case UPDATE_PRICE:
+                portfolio.updatePrice(getString(payload), payload.getDouble());
+                break;
+            case UPDATE_QUANTITY:
+                portfolio.updateQuantity(getString(payload), payload.getDouble());
+                break;
+            case UPDATE_TARGET:
+                portfolio.updateTarget(getString(payload), payload.getDouble());
+                break;
+            case SET_CASH:
+                portfolio.setCashBalance(payload.getDouble());
+                break;
+            case SET_NAME:
+                portfolio.setName(getString(payload));
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal operation: " + op);
+        }
+    }
+
+    private static Asset getAsset(ByteBuffer payload) {
+        String symbol = getString(payload);
+        String name = getString(payload);
+        byte type = payload.get();
+        return Asset.builder()
+                .symbol(symbol)
+                .name(name)
+                .type(type >= 0 ? TYPES[type] : null)
+                .quantity(payload.getDouble())
+                .currentPrice(payload.getDouble())
+                .targetAllocation(payload.getDouble())
+                .build();
+    }
+
+    static int crc(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer frame(int payloadLength) {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + payloadLength);
+        frame.putInt(payloadLength);
+        frame.putInt(0); // crc, filled in by seal
+        return frame;
+    }
+
+    private static byte[] seal(ByteBuffer frame) {
+        ByteBuffer payload = ByteBuffer.wrap(frame.array(), FRAME_HEADER, frame.capacity() - FRAME_HEADER);
+        frame.putInt(4, crc(payload));
+        return frame.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int size(byte[] value) {
+        return Integer.BYTES + (value != null ? value.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
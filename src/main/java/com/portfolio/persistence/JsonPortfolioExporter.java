@@ -0,0 +1,77 @@
+package com.portfolio.persistence;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// JSON export for interop with other tools. Derived values (allocations,
+// deviations, current value) are written for readability but ignored on import.
+public class JsonPortfolioExporter {
+    private static final TypeReference<List<Portfolio>> PORTFOLIO_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper;
+
+    public JsonPortfolioExporter() {
+        this.mapper = new ObjectMapper()
+                .addMixIn(Asset.class, AssetMixIn.class)
+                .addMixIn(Asset.AssetBuilder.class, AssetBuilderMixIn.class)
+                .addMixIn(Portfolio.class, PortfolioMixIn.class)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    public void write(Path file, List<Portfolio> portfolios) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(out, portfolios);
+        }
+    }
+
+    public void write(OutputStream out, List<Portfolio> portfolios) throws IOException {
+        mapper.writeValue(out, portfolios);
+    }
+
+    public List<Portfolio> read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    public List<Portfolio> read(InputStream in) throws IOException {
+        List<Portfolio> portfolios = mapper.readValue(in, PORTFOLIO_LIST);
+        portfolios.forEach(Portfolio::updateTotalValue);
+        return portfolios;
+    }
+
+    @JsonDeserialize(builder = Asset.AssetBuilder.class)
+    @JsonIgnoreProperties(value = {"quantityMicros", "priceMicros", "currentValueMicros"})
+    private abstract static class AssetMixIn {
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    private abstract static class AssetBuilderMixIn {
+    }
+
+    @JsonIgnoreProperties(value = {"id", "version", "currentAllocations", "deviationFromTarget", "totalDeviation", "driftCorrectionInterval",
+            "cashBalanceMicros", "totalValueMicros"},
+            allowGetters = true)
+    private abstract static class PortfolioMixIn {
+    }
+}
@@ -0,0 +1,311 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-ahead journal of portfolio mutations. Attached portfolios encode each
+// mutation on the calling thread and hand it to a bounded queue; a single writer
+// thread drains the queue, writes the whole batch with one channel write and,
+// depending on the durability level, fsyncs once per batch (group commit).
+public class MutationJournal implements PortfolioListener, AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 65_536;
+    private static final int MAX_BATCH = 4_096;
+    private static final Entry STOP = new Entry(null, null);
+
+    private final FileChannel channel;
+    private final Durability durability;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final LongAdder recordsWritten = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private MutationJournal(FileChannel channel, Durability durability, int queueCapacity) {
+        this.channel = channel;
+        this.durability = durability;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeLoop, "mutation-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static MutationJournal open(Path file, Durability durability) throws IOException {
+        return open(file, durability, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    // Any torn record at the tail (from a crash mid-write) is cut off so new
+    // records are appended right after the last complete one.
+    public static MutationJournal open(Path file, Durability durability, int queueCapacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validLength = JournalReader.validLength(channel);
+            channel.truncate(validLength);
+            channel.position(validLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new MutationJournal(channel, durability, queueCapacity);
+    }
+
+    // Records the current name so portfolios first seen during replay are
+    // recreated with it; later renames are journaled through nameChanged.
+    public void attach(Portfolio portfolio) {
+        append(JournalRecord.setName(portfolio, portfolio.getName()));
+        portfolio.addListener(this);
+    }
+
+    public void detach(Portfolio portfolio) {
+        portfolio.removeListener(this);
+    }
+
+    @Override
+    public void nameChanged(Portfolio portfolio, String name) {
+        append(JournalRecord.setName(portfolio, name));
+    }
+
+    @Override
+    public void assetAdded(Portfolio portfolio, Asset asset) {
+        append(JournalRecord.addAsset(portfolio, asset));
+    }
+
+    @Override
+    public void assetRemoved(Portfolio portfolio, String symbol) {
+        append(JournalRecord.removeAsset(portfolio, symbol));
+    }
+
+    @Override
+    public void priceUpdated(Portfolio portfolio, String symbol, double price) {
+        append(JournalRecord.updateValue(JournalRecord.UPDATE_PRICE, portfolio, symbol, price));
+    }
+
+    @Override
+    public void quantityUpdated(Portfolio portfolio, String symbol, double quantity) {
+        append(JournalRecord.updateValue(JournalRecord.UPDATE_QUANTITY, portfolio, symbol, quantity));
+    }
+
+    @Override
+    public void targetUpdated(Portfolio portfolio, String symbol, double targetAllocation) {
+        append(JournalRecord.updateValue(JournalRecord.UPDATE_TARGET, portfolio, symbol, targetAllocation));
+    }
+
+    @Override
+    public void assetReplaced(Portfolio portfolio, Asset asset) {
+        append(JournalRecord.replaceAsset(portfolio, asset));
+    }
+
+    @Override
+    public void cashBalanceChanged(Portfolio portfolio, double cashBalance) {
+        append(JournalRecord.setCash(portfolio, cashBalance));
+    }
+
+    private void append(byte[] record) {
+        Entry entry = new Entry(record, durability == Durability.SYNC ? new CompletableFuture<>() : null);
+        enqueue(entry);
+        if (entry.done != null) {
+            await(entry.done);
+        }
+    }
+
+    // Blocks until every record appended so far is written and fsynced,
+    // regardless of the durability level.
+    public void flush() {
+        Entry marker = new Entry(null, new CompletableFuture<>());
+        enqueue(marker);
+        await(marker.done);
+    }
+
+    // Drops all journaled records. Call after a snapshot containing every
+    // mutation so far has been written and while no mutations are in flight.
+    public synchronized void truncate() throws IOException {
+        flush();
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+    }
+
+    private void enqueue(Entry entry) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        checkFailure();
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to journal", e);
+        }
+    }
+
+    private void await(CompletableFuture<Void> done) {
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal sync", e);
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException("Journal write failed", (IOException) e.getCause());
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (failure != null) {
+                // Nothing after a failed write may reach the file, or replay
+                // would apply later mutations on top of a missing one.
+                for (Entry entry : batch) {
+                    if (entry == STOP) {
+                        running = false;
+                    } else if (entry.done != null) {
+                        entry.done.completeExceptionally(failure);
+                    }
+                }
+                batch.clear();
+                continue;
+            }
+            try {
+                boolean needsSync = durability != Durability.ASYNC;
+                for (Entry entry : batch) {
+                    if (entry == STOP) {
+                        running = false;
+                        continue;
+                    }
+                    if (entry.record == null) {
+                        needsSync = true;
+                        continue;
+                    }
+                    if (entry.record.length > buffer.remaining()) {
+                        drain(buffer);
+                        if (entry.record.length > buffer.capacity()) {
+                            channel.write(ByteBuffer.wrap(entry.record));
+                            continue;
+                        }
+                    }
+                    buffer.put(entry.record);
+                }
+                drain(buffer);
+                if (needsSync) {
+                    channel.force(false);
+                    syncs.increment();
+                }
+                for (Entry entry : batch) {
+                    if (entry.record != null) {
+                        recordsWritten.increment();
+                    }
+                }
+                for (Entry entry : batch) {
+                    if (entry.done != null) {
+                        entry.done.complete(null);
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+                for (Entry entry : batch) {
+                    if (entry == STOP) {
+                        running = false;
+                    } else if (entry.done != null) {
+                        entry.done.completeExceptionally(e);
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void drain(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten.sum();
+    }
+
+    public long getSyncCount() {
+        return syncs.sum();
+    }
+
+    // Writes and fsyncs everything still queued, then stops the writer thread.
+    // The thread and channel are released even after a write failure, which is
+    // then rethrown.
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (failure == null) {
+                flush();
+            }
+        } catch (UncheckedIOException e) {
+            // recorded in failure, rethrown below
+        } finally {
+            closed = true;
+            try {
+                queue.put(STOP);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                if (failure == null) {
+                    channel.force(false);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] record;
+        private final CompletableFuture<Void> done;
+
+        private Entry(byte[] record, CompletableFuture<Void> done) {
+            this.record = record;
+            this.done = done;
+        }
+    }
+}
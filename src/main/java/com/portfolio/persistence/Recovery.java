@@ -0,0 +1,35 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Portfolio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Recovery {
+    private Recovery() {
+    }
+
+    // Rebuilds the book from the latest snapshot (if any) plus the journal of
+    // mutations made since. Portfolios are keyed by id, so renames and
+    // portfolios sharing a name replay onto the right book entry.
+    public static List<Portfolio> recover(Path snapshotFile, Path journalFile) throws IOException {
+        Map<Long, Portfolio> book = new LinkedHashMap<>();
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try (Snapshot snapshot = Snapshot.open(snapshotFile)) {
+                for (int i = 0; i < snapshot.size(); i++) {
+                    Portfolio portfolio = snapshot.getPortfolio(i);
+                    book.put(portfolio.getId(), portfolio);
+                }
+            }
+        }
+        JournalReader.replay(journalFile, book);
+        List<Portfolio> portfolios = new ArrayList<>(book.values());
+        portfolios.forEach(Portfolio::updateTotalValue);
+        return portfolios;
+    }
+}
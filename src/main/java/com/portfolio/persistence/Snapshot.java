@@ -0,0 +1,144 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Read-only view over a memory-mapped snapshot. Only the string dictionary and
+// the offset index are decoded on open; portfolios are decoded on access and are
+// not cached, so callers decide what stays on the heap.
+public class Snapshot implements AutoCloseable {
+    private static final AssetType[] TYPES = AssetType.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final String[] strings;
+    private final long[] offsets;
+    private final boolean hasIds;
+
+    private Snapshot(FileChannel channel, MappedByteBuffer buffer, String[] strings, long[] offsets, boolean hasIds) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.strings = strings;
+        this.offsets = offsets;
+        this.hasIds = hasIds;
+    }
+
+    public static Snapshot open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot files larger than 2 GB are not supported: " + file);
+            }
+            if (size < SnapshotFormat.HEADER_SIZE) {
+                throw new IOException("Not a portfolio snapshot: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != SnapshotFormat.MAGIC) {
+                throw new IOException("Not a portfolio snapshot: " + file);
+            }
+            int version = buffer.getInt(4);
+            if (version != 1 && version != SnapshotFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            int portfolioCount = buffer.getInt(8);
+            int stringCount = buffer.getInt(12);
+            long indexOffset = buffer.getLong(16);
+
+            String[] strings = new String[stringCount];
+            int position = SnapshotFormat.HEADER_SIZE;
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.getInt(position);
+                byte[] bytes = new byte[length];
+                buffer.duplicate().position(position + 4).get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += 4 + length;
+            }
+            long[] offsets = new long[portfolioCount];
+            for (int i = 0; i < portfolioCount; i++) {
+                offsets[i] = buffer.getLong((int) indexOffset + i * Long.BYTES);
+            }
+            return new Snapshot(channel, buffer, strings, offsets, version >= 2);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    public String getPortfolioName(int index) {
+        return string(buffer.getInt(blockStart(index)));
+    }
+
+    public Portfolio getPortfolio(int index) {
+        int position = blockStart(index);
+        Portfolio portfolio = hasIds ? new Portfolio(buffer.getLong((int) offsets[index])) : new Portfolio();
+        portfolio.setName(string(buffer.getInt(position)));
+        portfolio.setCashBalance(buffer.getDouble(position + 4));
+        int assetCount = buffer.getInt(position + 12);
+
+        int symbols = position + 16;
+        int names = symbols + assetCount * Integer.BYTES;
+        int types = names + assetCount * Integer.BYTES;
+        int quantities = types + assetCount;
+        int prices = quantities + assetCount * Double.BYTES;
+        int targets = prices + assetCount * Double.BYTES;
+
+        List<Asset> assets = new ArrayList<>(assetCount);
+        for (int i = 0; i < assetCount; i++) {
+            byte type = buffer.get(types + i);
+            assets.add(Asset.builder()
+                    .symbol(string(buffer.getInt(symbols + i * Integer.BYTES)))
+                    .name(string(buffer.getInt(names + i * Integer.BYTES)))
+                    .type(type >= 0 ? TYPES[type] : null)
+                    .quantity(buffer.getDouble(quantities + i * Double.BYTES))
+                    .currentPrice(buffer.getDouble(prices + i * Double.BYTES))
+                    .targetAllocation(buffer.getDouble(targets + i * Double.BYTES))
+                    .build());
+        }
+        portfolio.setAssets(assets);
+        return portfolio;
+    }
+
+    public Stream<Portfolio> stream() {
+        return IntStream.range(0, size()).mapToObj(this::getPortfolio);
+    }
+
+    public List<Portfolio> loadAll() {
+        List<Portfolio> portfolios = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            portfolios.add(getPortfolio(i));
+        }
+        return portfolios;
+    }
+
+    // Position of the name id, after the portfolio id where the format has one.
+    private int blockStart(int index) {
+        return (int) offsets[index] + (hasIds ? Long.BYTES : 0);
+    }
+
+    private String string(int id) {
+        return id == SnapshotFormat.NO_STRING ? null : strings[id];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,21 @@
+package com.portfolio.persistence;
+
+// Binary snapshot layout (big-endian):
+//
+//   header      int magic, int version, int portfolioCount, int stringCount, long indexOffset
+//   strings     stringCount x (int byteLength, UTF-8 bytes)   symbols, asset and portfolio names
+//   portfolios  per portfolio: long id, int nameId, double cashBalance, int assetCount,
+//               int[assetCount] symbolIds, int[assetCount] nameIds, byte[assetCount] types,
+//               double[assetCount] quantities, double[assetCount] prices, double[assetCount] targets
+//   index       long[portfolioCount] offsets of each portfolio block
+//
+// Version 1 blocks have no id; portfolios read from them get fresh ids.
+final class SnapshotFormat {
+    static final int MAGIC = 0x50525342; // "PRSB"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+    static final int NO_STRING = -1;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,138 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.Portfolio;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SnapshotWriter {
+
+    // Writes to a temporary sibling file and atomically moves it into place, so a
+    // crash while saving never leaves a truncated snapshot behind.
+    public void write(Path file, List<Portfolio> portfolios) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Portfolio portfolio : portfolios) {
+            intern(portfolio.getName(), ids, strings);
+            for (Asset asset : portfolio.getAssets()) {
+                intern(asset.getSymbol(), ids, strings);
+                intern(asset.getName(), ids, strings);
+            }
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long[] offsets = new long[portfolios.size()];
+        long indexOffset;
+        try (CountingOutputStream counter = new CountingOutputStream(Files.newOutputStream(temp));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 1 << 16))) {
+            out.writeInt(SnapshotFormat.MAGIC);
+            out.writeInt(SnapshotFormat.VERSION);
+            out.writeInt(portfolios.size());
+            out.writeInt(strings.size());
+            out.writeLong(0); // index offset, patched below
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (int p = 0; p < portfolios.size(); p++) {
+                out.flush();
+                offsets[p] = counter.count;
+                writePortfolio(out, portfolios.get(p), ids);
+            }
+            out.flush();
+            indexOffset = counter.count;
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer patch = ByteBuffer.allocate(Long.BYTES).putLong(0, indexOffset);
+            channel.write(patch, SnapshotFormat.HEADER_SIZE - Long.BYTES);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writePortfolio(DataOutputStream out, Portfolio portfolio, Map<String, Integer> ids) throws IOException {
+        List<Asset> assets = portfolio.getAssets();
+        out.writeLong(portfolio.getId());
+        out.writeInt(idOf(portfolio.getName(), ids));
+        out.writeDouble(portfolio.getCashBalance());
+        out.writeInt(assets.size());
+        for (Asset asset : assets) {
+            out.writeInt(idOf(asset.getSymbol(), ids));
+        }
+        for (Asset asset : assets) {
+            out.writeInt(idOf(asset.getName(), ids));
+        }
+        for (Asset asset : assets) {
+            out.writeByte(asset.getType() != null ? asset.getType().ordinal() : -1);
+        }
+        for (Asset asset : assets) {
+            out.writeDouble(asset.getQuantity());
+        }
+        for (Asset asset : assets) {
+            out.writeDouble(asset.getCurrentPrice());
+        }
+        for (Asset asset : assets) {
+            out.writeDouble(asset.getTargetAllocation());
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> ids, List<String> strings) {
+        if (value != null && !ids.containsKey(value)) {
+            ids.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    private static int idOf(String value, Map<String, Integer> ids) {
+        return value != null ? ids.get(value) : SnapshotFormat.NO_STRING;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfolio.scheduler;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// Persisted schedule state of one portfolio. lastRun is null until the
+// scheduler has rebalanced it once.
+@Value
+public class PolicyRecord {
+    String portfolioId;
+    RebalancePolicy policy;
+    Instant lastRun;
+}
@@ -0,0 +1,80 @@
+package com.portfolio.scheduler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary policy file (big-endian):
+//
+//   header   int magic, int version, int recordCount
+//   records  recordCount x (UTF portfolioId, byte cadence, byte dayOfMonth, boolean onDrift,
+//            double threshold, long lastRunMillis or NEVER)
+//
+// Only policies and last runs are stored; next due times are recomputed from
+// them on load, so a file stays valid however long the service was down.
+public final class PolicyStore {
+    static final int MAGIC = 0x50525350; // "PRSP"
+    static final int VERSION = 1;
+    static final long NEVER = Long.MIN_VALUE;
+
+    private static final RebalancePolicy.Cadence[] CADENCES = RebalancePolicy.Cadence.values();
+
+    private PolicyStore() {
+    }
+
+    // Writes to a temporary sibling file and atomically moves it into place.
+    public static void write(Path file, Collection<PolicyRecord> records) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(records.size());
+            for (PolicyRecord record : records) {
+                RebalancePolicy policy = record.getPolicy();
+                out.writeUTF(record.getPortfolioId());
+                out.writeByte(policy.getCadence().ordinal());
+                out.writeByte(policy.getDayOfMonth());
+                out.writeBoolean(policy.isOnDrift());
+                out.writeDouble(policy.getThreshold());
+                out.writeLong(record.getLastRun() != null ? record.getLastRun().toEpochMilli() : NEVER);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<PolicyRecord> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a policy file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported policy file version " + version);
+            }
+            int count = in.readInt();
+            List<PolicyRecord> records = new ArrayList<>(count);
+            // most accounts share a handful of policies
+            Map<RebalancePolicy, RebalancePolicy> policies = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String id = in.readUTF();
+                RebalancePolicy policy = new RebalancePolicy(CADENCES[in.readByte()], in.readByte(), in.readBoolean(),
+                        in.readDouble());
+                policy = policies.computeIfAbsent(policy, p -> p);
+                long lastRun = in.readLong();
+                records.add(new PolicyRecord(id, policy, lastRun != NEVER ? Instant.ofEpochMilli(lastRun) : null));
+            }
+            return records;
+        }
+    }
+}
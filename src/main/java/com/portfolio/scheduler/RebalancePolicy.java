@@ -0,0 +1,86 @@
+package com.portfolio.scheduler;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+// When a portfolio is rebalanced: on a calendar cadence, whenever it drifts past
+// the threshold, or both (whichever comes first). The threshold is also what the
+// rebalancer is run with, so 0 trades all the way back to target on the
+// calendar date.
+@Value
+@Builder
+public class RebalancePolicy {
+    public enum Cadence {
+        NONE(0), MONTHLY(1), QUARTERLY(3);
+
+        private final int months;
+
+        Cadence(int months) {
+            this.months = months;
+        }
+    }
+
+    @Builder.Default
+    Cadence cadence = Cadence.NONE;
+    // clamped to the length of short months
+    @Builder.Default
+    int dayOfMonth = 1;
+    @Builder.Default
+    boolean onDrift = false;
+    @Builder.Default
+    double threshold = 0.05;
+
+    public RebalancePolicy(@NonNull Cadence cadence, int dayOfMonth, boolean onDrift, double threshold) {
+        if (dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new IllegalArgumentException("dayOfMonth must be between 1 and 31");
+        }
+        if (threshold < 0 || Double.isNaN(threshold)) {
+            throw new IllegalArgumentException("threshold must be non-negative");
+        }
+        this.cadence = cadence;
+        this.dayOfMonth = dayOfMonth;
+        this.onDrift = onDrift;
+        this.threshold = threshold;
+    }
+
+    public static RebalancePolicy monthly(double threshold) {
+        return builder().cadence(Cadence.MONTHLY).threshold(threshold).build();
+    }
+
+    public static RebalancePolicy quarterly(double threshold) {
+        return builder().cadence(Cadence.QUARTERLY).threshold(threshold).build();
+    }
+
+    public static RebalancePolicy onDrift(double threshold) {
+        return builder().onDrift(true).threshold(threshold).build();
+    }
+
+    public boolean isCalendar() {
+        return cadence != Cadence.NONE;
+    }
+
+    // First calendar date strictly after the given instant, at the start of that
+    // day in the zone; null without a cadence. Quarters start in January, April,
+    // July and October.
+    public Instant nextDue(Instant after, ZoneId zone) {
+        if (!isCalendar()) {
+            return null;
+        }
+        ZonedDateTime from = after.atZone(zone);
+        YearMonth month = YearMonth.from(from);
+        month = month.minusMonths((month.getMonthValue() - 1) % cadence.months);
+        while (true) {
+            Instant due = month.atDay(Math.min(dayOfMonth, month.lengthOfMonth())).atStartOfDay(zone).toInstant();
+            if (due.isAfter(after)) {
+                return due;
+            }
+            month = month.plusMonths(cadence.months);
+        }
+    }
+}
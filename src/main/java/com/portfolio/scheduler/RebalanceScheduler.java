@@ -0,0 +1,543 @@
+package com.portfolio.scheduler;
+
+import com.portfolio.feed.DriftListener;
+import com.portfolio.metrics.Counter;
+import com.portfolio.metrics.Metrics;
+import com.portfolio.model.Portfolio;
+import com.portfolio.service.BatchRebalancer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Rebalances registered portfolios according to their RebalancePolicy. Calendar
+// due times live in a TimingWheel keyed by an int handle per portfolio; drift
+// triggers arrive as DriftListener callbacks, so register the scheduler on a
+// PriceFeed whose threshold is no larger than the smallest policy threshold.
+// Due portfolios wait in a FIFO ready queue (at most once each) and every tick
+// hands them to a BatchRebalancer on a fixed worker pool, grouped by threshold,
+// in batches of batchSize and no faster than the rate limit. A tick waits for
+// its batches, so a slow pool delays the next tick instead of piling up work.
+// The cost of a tick is the wheel advance plus the due portfolios, however many
+// are registered.
+//
+// Workers rebalance copies of the due portfolios, taken on the portfolioOwner
+// (the PriceFeed) when one is configured, so they never read a portfolio the
+// feed is updating. Results name the registered portfolios and go to the sink on
+// the scheduler thread; applying the trades is up to it. Only policies and last
+// run times are persisted (save/restore); next due times are recomputed from
+// them, and a calendar date missed while the service was down fires on the first
+// tick after restore.
+public class RebalanceScheduler implements DriftListener, AutoCloseable {
+    private static final Counter SCHEDULED = Metrics.counter("scheduled_rebalances");
+    private static final Counter TICK_FAILURES = Metrics.counter("scheduler_tick_failures");
+    private static final int MAX_COPY_ATTEMPTS = 10;
+    private static final long NEVER = PolicyStore.NEVER;
+    private static final int NONE = -1;
+
+    private final SchedulerConfig config;
+    private final Consumer<BatchRebalancer.BatchResult> sink;
+    private final ExecutorService workers;
+    private final int chunkSize;
+    private final double burst;
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder tickFailures = new LongAdder();
+
+    // registry, guarded by this
+    private final Map<String, Integer> handles = new HashMap<>();
+    private final Map<Portfolio, Integer> handlesByPortfolio = new IdentityHashMap<>();
+    private final Map<RebalancePolicy, RebalancePolicy> policyPool = new HashMap<>();
+    private final TimingWheel wheel;
+    private final IntQueue ready = new IntQueue();
+    private String[] ids = new String[16];
+    private Portfolio[] portfolios = new Portfolio[16];
+    private RebalancePolicy[] policies = new RebalancePolicy[16];
+    private long[] lastRuns = new long[16];
+    private boolean[] queued = new boolean[16];
+    private final IntQueue freeHandles = new IntQueue();
+    private int handleCount;
+    private int pending;
+
+    // used by the ticking thread only
+    private final Map<Double, BatchRebalancer> rebalancers = new HashMap<>();
+    private double tokens;
+    private long refilledAt;
+
+    private ScheduledExecutorService ticker;
+
+    public RebalanceScheduler(SchedulerConfig config, Consumer<BatchRebalancer.BatchResult> sink) {
+        if (config.getTickMillis() <= 0 || config.getBatchSize() <= 0 || config.getWorkerThreads() <= 0) {
+            throw new IllegalArgumentException("tickMillis, batchSize and workerThreads must be positive");
+        }
+        if (config.getOwnerTimeoutMillis() <= 0) {
+            throw new IllegalArgumentException("ownerTimeoutMillis must be positive");
+        }
+        if (!(config.getMaxRebalancesPerSecond() > 0)) {
+            throw new IllegalArgumentException("maxRebalancesPerSecond must be positive");
+        }
+        this.config = config;
+        this.sink = sink;
+        this.workers = Executors.newFixedThreadPool(config.getWorkerThreads(), daemonThreads("rebalance-worker"));
+        this.chunkSize = Math.max(1, (config.getBatchSize() + config.getWorkerThreads() - 1) / config.getWorkerThreads());
+        this.burst = Math.max(1, config.getMaxRebalancesPerSecond());
+        this.tokens = burst;
+        long now = config.getClock().millis();
+        this.refilledAt = now;
+        this.wheel = new TimingWheel(Math.floorDiv(now, config.getTickMillis()), 16);
+    }
+
+    public RebalanceScheduler start() {
+        synchronized (this) {
+            if (ticker != null) {
+                throw new IllegalStateException("Scheduler already started");
+            }
+            ticker = Executors.newSingleThreadScheduledExecutor(daemonThreads("rebalance-scheduler"));
+        }
+        ticker.scheduleWithFixedDelay(this::runTick, config.getTickMillis(), config.getTickMillis(),
+                TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    private void runTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            // keep the schedule alive; the next tick retries whatever is still queued
+            tickFailures.increment();
+            TICK_FAILURES.increment();
+        }
+    }
+
+    public void register(String id, Portfolio portfolio, RebalancePolicy policy) {
+        register(id, portfolio, policy, null);
+    }
+
+    // Registers or replaces the policy for id. The next calendar date is
+    // counted from lastRun when given (a past date fires on the next tick),
+    // otherwise from now. A drift policy whose portfolio is already past its
+    // threshold is queued right away, since the feed only reports changes.
+    public synchronized void register(String id, Portfolio portfolio, RebalancePolicy policy, Instant lastRun) {
+        Integer existing = handles.get(id);
+        int handle;
+        if (existing != null) {
+            handle = existing;
+            handlesByPortfolio.remove(portfolios[handle]);
+        } else {
+            handle = allocateHandle();
+            handles.put(id, handle);
+        }
+        ids[handle] = id;
+        portfolios[handle] = portfolio;
+        policies[handle] = policyPool.computeIfAbsent(policy, p -> p);
+        lastRuns[handle] = lastRun != null ? lastRun.toEpochMilli() : NEVER;
+        handlesByPortfolio.put(portfolio, handle);
+        Instant now = config.getClock().instant();
+        scheduleCalendar(handle, lastRun != null ? lastRun : now, now);
+        if (policy.isOnDrift() && portfolio.needsRebalancing(policy.getThreshold())) {
+            enqueue(handle);
+        }
+    }
+
+    public synchronized boolean unregister(String id) {
+        Integer handle = handles.remove(id);
+        if (handle == null) {
+            return false;
+        }
+        handlesByPortfolio.remove(portfolios[handle]);
+        wheel.cancel(handle);
+        if (queued[handle]) {
+            queued[handle] = false;
+            pending--;
+        }
+        ids[handle] = null;
+        portfolios[handle] = null;
+        policies[handle] = null;
+        freeHandles.add(handle);
+        return true;
+    }
+
+    // Queues the portfolio regardless of its policy, e.g. after a manual request.
+    public synchronized boolean trigger(String id) {
+        Integer handle = handles.get(id);
+        if (handle == null) {
+            return false;
+        }
+        enqueue(handle);
+        return true;
+    }
+
+    @Override
+    public void onDriftChanged(Portfolio portfolio, boolean needsRebalancing) {
+        if (!needsRebalancing) {
+            return;
+        }
+        synchronized (this) {
+            Integer handle = handlesByPortfolio.get(portfolio);
+            if (handle != null && policies[handle].isOnDrift()) {
+                enqueue(handle);
+            }
+        }
+    }
+
+    // Advances the calendar to the clock's time and dispatches due portfolios
+    // until the queue is empty or the rate limit is reached. Called by the
+    // scheduler thread once started; call it directly to drive the scheduler
+    // from your own loop. Returns the number of portfolios dispatched.
+    public int tick() {
+        long now = config.getClock().millis();
+        Instant nowInstant = Instant.ofEpochMilli(now);
+        synchronized (this) {
+            wheel.advance(Math.floorDiv(now, config.getTickMillis()), handle -> {
+                scheduleCalendar(handle, nowInstant, nowInstant);
+                enqueue(handle);
+            });
+        }
+        refill(now);
+
+        int total = 0;
+        Map<Double, List<Portfolio>> groups = new LinkedHashMap<>();
+        while (tokens >= 1) {
+            int taken = takeReady((int) Math.min(config.getBatchSize(), tokens), groups);
+            if (taken == 0) {
+                break;
+            }
+            tokens -= taken;
+            for (Map.Entry<Double, List<Portfolio>> group : groups.entrySet()) {
+                List<Portfolio> originals = group.getValue();
+                List<Portfolio> copies;
+                try {
+                    copies = copies(originals);
+                } catch (RuntimeException e) {
+                    // put back this group and the ones after it for the next tick
+                    requeueFrom(groups, group.getKey());
+                    throw e;
+                }
+                BatchRebalancer.BatchResult result = toOriginals(
+                        rebalancer(group.getKey()).rebalanceAll(copies), originals);
+                recordRuns(result, now);
+                batches.increment();
+                sink.accept(result);
+            }
+            groups.clear();
+            total += taken;
+        }
+        dispatched.add(total);
+        SCHEDULED.add(total);
+        return total;
+    }
+
+    private void refill(long now) {
+        if (Double.isInfinite(config.getMaxRebalancesPerSecond())) {
+            tokens = Double.POSITIVE_INFINITY;
+        } else if (now > refilledAt) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * config.getMaxRebalancesPerSecond() / 1000.0);
+            refilledAt = now;
+        }
+    }
+
+    private synchronized int takeReady(int limit, Map<Double, List<Portfolio>> groups) {
+        int taken = 0;
+        while (taken < limit) {
+            int handle = ready.poll();
+            if (handle == NONE) {
+                break;
+            }
+            // skip handles that were unregistered while queued
+            if (!queued[handle]) {
+                continue;
+            }
+            queued[handle] = false;
+            pending--;
+            groups.computeIfAbsent(policies[handle].getThreshold(), threshold -> new ArrayList<>())
+                    .add(portfolios[handle]);
+            taken++;
+        }
+        return taken;
+    }
+
+    // Copies on the owner when there is one. An owner that rejects the task
+    // (a PriceFeed that is not running) mutates nothing, so the copies are then
+    // taken here; one that does not run it in time fails the tick.
+    private List<Portfolio> copies(List<Portfolio> originals) {
+        Executor owner = config.getPortfolioOwner();
+        if (owner == null) {
+            return checkedCopies(originals);
+        }
+        CompletableFuture<List<Portfolio>> copied;
+        try {
+            copied = CompletableFuture.supplyAsync(() -> copyAll(originals), owner);
+        } catch (RejectedExecutionException e) {
+            return checkedCopies(originals);
+        }
+        try {
+            return copied.get(config.getOwnerTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            copied.cancel(false);
+            throw new IllegalStateException("Portfolio owner did not run the copy within "
+                    + config.getOwnerTimeoutMillis() + " ms", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Copying due portfolios failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the portfolio owner", e);
+        }
+    }
+
+    private static List<Portfolio> checkedCopies(List<Portfolio> originals) {
+        List<Portfolio> copies = new ArrayList<>(originals.size());
+        for (Portfolio portfolio : originals) {
+            copies.add(checkedCopy(portfolio));
+        }
+        return copies;
+    }
+
+    private static List<Portfolio> copyAll(List<Portfolio> originals) {
+        List<Portfolio> copies = new ArrayList<>(originals.size());
+        for (Portfolio portfolio : originals) {
+            copies.add(portfolio.copy());
+        }
+        return copies;
+    }
+
+    // Best effort without an owner: keep a copy only if no mutation completed
+    // while it was taken.
+    private static Portfolio checkedCopy(Portfolio portfolio) {
+        Portfolio copy;
+        int attempts = 0;
+        long version;
+        do {
+            version = portfolio.getVersion();
+            copy = portfolio.copy();
+        } while (portfolio.getVersion() != version && ++attempts < MAX_COPY_ATTEMPTS);
+        return copy;
+    }
+
+    // Results of a copied batch, naming the registered portfolios instead.
+    private static BatchRebalancer.BatchResult toOriginals(BatchRebalancer.BatchResult result,
+                                                           List<Portfolio> originals) {
+        List<BatchRebalancer.PortfolioResult> remapped = new ArrayList<>(result.getResults().size());
+        for (BatchRebalancer.PortfolioResult copied : result.getResults()) {
+            remapped.add(new BatchRebalancer.PortfolioResult(copied.getIndex(),
+                    originals.get(copied.getIndex()), copied.getTrades(), copied.getError()));
+        }
+        return new BatchRebalancer.BatchResult(remapped, result.getStats());
+    }
+
+    private synchronized void requeueFrom(Map<Double, List<Portfolio>> groups, double threshold) {
+        boolean reached = false;
+        for (Map.Entry<Double, List<Portfolio>> group : groups.entrySet()) {
+            reached |= group.getKey() == threshold;
+            if (!reached) {
+                continue;
+            }
+            for (Portfolio portfolio : group.getValue()) {
+                Integer handle = handlesByPortfolio.get(portfolio);
+                if (handle != null) {
+                    enqueue(handle);
+                }
+            }
+        }
+    }
+
+    private synchronized void recordRuns(BatchRebalancer.BatchResult result, long now) {
+        for (BatchRebalancer.PortfolioResult portfolioResult : result.getResults()) {
+            Integer handle = handlesByPortfolio.get(portfolioResult.getPortfolio());
+            if (handle != null && portfolioResult.isSuccess()) {
+                lastRuns[handle] = now;
+            }
+        }
+    }
+
+    private BatchRebalancer rebalancer(double threshold) {
+        return rebalancers.computeIfAbsent(threshold,
+                t -> new BatchRebalancer(config.getStrategy(), t, workers, chunkSize));
+    }
+
+    private void scheduleCalendar(int handle, Instant from, Instant now) {
+        ZoneId zone = config.getClock().getZone();
+        Instant due = policies[handle].nextDue(from, zone);
+        if (due != null && !due.isAfter(now)) {
+            // a date missed while not running: queue it once and go on from now
+            enqueue(handle);
+            due = policies[handle].nextDue(now, zone);
+        }
+        if (due == null) {
+            wheel.cancel(handle);
+        } else {
+            long tickMillis = config.getTickMillis();
+            wheel.schedule(handle, Math.floorDiv(due.toEpochMilli() + tickMillis - 1, tickMillis));
+        }
+    }
+
+    private void enqueue(int handle) {
+        if (!queued[handle]) {
+            queued[handle] = true;
+            pending++;
+            ready.add(handle);
+        }
+    }
+
+    private int allocateHandle() {
+        int handle = freeHandles.poll();
+        if (handle != NONE) {
+            return handle;
+        }
+        if (handleCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            portfolios = Arrays.copyOf(portfolios, capacity);
+            policies = Arrays.copyOf(policies, capacity);
+            lastRuns = Arrays.copyOf(lastRuns, capacity);
+            queued = Arrays.copyOf(queued, capacity);
+        }
+        return handleCount++;
+    }
+
+    public void save(Path file) throws IOException {
+        List<PolicyRecord> records;
+        synchronized (this) {
+            records = new ArrayList<>(handles.size());
+            for (int handle = 0; handle < handleCount; handle++) {
+                if (ids[handle] != null) {
+                    records.add(new PolicyRecord(ids[handle], policies[handle],
+                            lastRuns[handle] != NEVER ? Instant.ofEpochMilli(lastRuns[handle]) : null));
+                }
+            }
+        }
+        PolicyStore.write(file, records);
+    }
+
+    // Re-registers every saved policy whose portfolio the lookup still knows;
+    // returns how many were restored.
+    public int restore(Path file, Function<String, Portfolio> lookup) throws IOException {
+        int restored = 0;
+        for (PolicyRecord record : PolicyStore.read(file)) {
+            Portfolio portfolio = lookup.apply(record.getPortfolioId());
+            if (portfolio != null) {
+                register(record.getPortfolioId(), portfolio, record.getPolicy(), record.getLastRun());
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    public synchronized RebalancePolicy getPolicy(String id) {
+        Integer handle = handles.get(id);
+        return handle != null ? policies[handle] : null;
+    }
+
+    public synchronized Instant getLastRun(String id) {
+        Integer handle = handles.get(id);
+        return handle != null && lastRuns[handle] != NEVER ? Instant.ofEpochMilli(lastRuns[handle]) : null;
+    }
+
+    // Start of the tick the next calendar run fires in, or null without one.
+    public synchronized Instant getNextDue(String id) {
+        Integer handle = handles.get(id);
+        if (handle == null || !wheel.isScheduled(handle)) {
+            return null;
+        }
+        return Instant.ofEpochMilli(wheel.deadline(handle) * config.getTickMillis());
+    }
+
+    public synchronized int getRegisteredCount() {
+        return handles.size();
+    }
+
+    public synchronized int getScheduledCount() {
+        return wheel.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getTickFailureCount() {
+        return tickFailures.sum();
+    }
+
+    // Stops ticking after the current tick and shuts the worker pool down.
+    @Override
+    public void close() throws InterruptedException {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = ticker;
+        }
+        if (running != null) {
+            running.shutdown();
+            running.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Growable ring buffer of ints; poll() returns NONE when empty.
+    private static final class IntQueue {
+        private int[] values = new int[16];
+        private int head;
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                int[] grown = new int[values.length * 2];
+                int tail = values.length - head;
+                System.arraycopy(values, head, grown, 0, tail);
+                System.arraycopy(values, 0, grown, tail, head);
+                values = grown;
+                head = 0;
+            }
+            values[(head + size) % values.length] = value;
+            size++;
+        }
+
+        int poll() {
+            if (size == 0) {
+                return NONE;
+            }
+            int value = values[head];
+            head = (head + 1) % values.length;
+            size--;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.portfolio.scheduler;
+
+import com.portfolio.strategy.RebalancingStrategy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Clock;
+import java.util.concurrent.Executor;
+
+@Value
+@Builder
+public class SchedulerConfig {
+    @NonNull
+    RebalancingStrategy strategy;
+    // calendar resolution and how often due portfolios are dispatched
+    @Builder.Default
+    long tickMillis = 1000;
+    // portfolios handed to the BatchRebalancer at a time
+    @Builder.Default
+    int batchSize = 1024;
+    @Builder.Default
+    int workerThreads = Runtime.getRuntime().availableProcessors();
+    // sustained dispatch rate; bursts up to one second's worth
+    @Builder.Default
+    double maxRebalancesPerSecond = Double.POSITIVE_INFINITY;
+    // its zone decides where calendar days start
+    @NonNull
+    @Builder.Default
+    Clock clock = Clock.systemDefaultZone();
+    // the thread that mutates the portfolios (e.g. the PriceFeed); due portfolios
+    // are copied on it before rebalancing. Without one they are copied on the
+    // scheduler thread and retried while their version changes.
+    Executor portfolioOwner;
+    // how long a tick waits for the owner to take the copies before it fails
+    @Builder.Default
+    long ownerTimeoutMillis = 10_000;
+}
@@ -0,0 +1,200 @@
+package com.portfolio.scheduler;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Hierarchical timing wheel over int entry ids (Varghese & Lauck). Level 0 has
+// 256 one-tick slots, each of the four levels above 64 slots of 64 times the
+// span of the level below, covering 2^32 ticks; later deadlines park in the
+// last slot of the top level and are re-placed when it comes round. Slots are
+// intrusive doubly linked lists in int arrays, so schedule and cancel are O(1)
+// without allocation and advancing one tick touches one slot per level only
+// at that level's boundary. Stretches in which no level can expire or cascade
+// anything are skipped, so long gaps between advances stay cheap. Not
+// thread-safe.
+final class TimingWheel {
+    private static final int LEVEL0_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 5;
+    private static final int NONE = -1;
+
+    private final int[] heads;
+    private final int[] levelCounts = new int[LEVELS];
+    private int[] next;
+    private int[] prev;
+    private int[] slots;
+    private long[] deadlines;
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long startTick, int capacity) {
+        this.currentTick = startTick;
+        this.heads = new int[slotOffset(LEVELS)];
+        Arrays.fill(heads, NONE);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.slots = new int[capacity];
+        this.deadlines = new long[capacity];
+        Arrays.fill(slots, NONE);
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isScheduled(int id) {
+        return id < slots.length && slots[id] != NONE;
+    }
+
+    long deadline(int id) {
+        return deadlines[id];
+    }
+
+    // Deadlines at or before the current tick fire on the next advance.
+    void schedule(int id, long deadlineTick) {
+        ensureCapacity(id + 1);
+        if (slots[id] != NONE) {
+            unlink(id);
+        } else {
+            size++;
+        }
+        deadlines[id] = deadlineTick;
+        place(id, currentTick + 1);
+    }
+
+    boolean cancel(int id) {
+        if (!isScheduled(id)) {
+            return false;
+        }
+        unlink(id);
+        size--;
+        return true;
+    }
+
+    // Moves time forward to nowTick, passing every entry that expires on the way
+    // to the consumer in deadline-tick order. Entries are unscheduled before the
+    // consumer sees them, so it may reschedule them.
+    void advance(long nowTick, IntConsumer expired) {
+        while (currentTick < nowTick) {
+            long skipTo = nextBoundary() - 1;
+            if (skipTo >= nowTick) {
+                currentTick = nowTick;
+                return;
+            }
+            currentTick = Math.max(currentTick, skipTo) + 1;
+            cascade();
+            int slot = (int) (currentTick & ((1 << LEVEL0_BITS) - 1));
+            int id;
+            while ((id = heads[slot]) != NONE) {
+                unlink(id);
+                size--;
+                expired.accept(id);
+            }
+        }
+    }
+
+    // First tick at which something can expire or cascade: the next tick when
+    // level 0 holds entries, else the next boundary of the lowest occupied level.
+    private long nextBoundary() {
+        if (levelCounts[0] > 0) {
+            return currentTick + 1;
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            if (levelCounts[level] > 0) {
+                return ((currentTick >>> shift(level)) + 1) << shift(level);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // At a level boundary the current slot of the level above is emptied into
+    // the levels below, top level first so nothing is moved twice in one tick.
+    private void cascade() {
+        if ((currentTick & ((1 << LEVEL0_BITS) - 1)) != 0) {
+            return;
+        }
+        int top = 1;
+        while (top < LEVELS - 1 && ((currentTick >>> shift(top)) & ((1 << LEVEL_BITS) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = slotOffset(level) + (int) ((currentTick >>> shift(level)) & ((1 << LEVEL_BITS) - 1));
+            int id = heads[slot];
+            heads[slot] = NONE;
+            while (id != NONE) {
+                int following = next[id];
+                levelCounts[level]--;
+                slots[id] = NONE;
+                // may land in the level 0 slot that expires this very tick
+                place(id, currentTick);
+                id = following;
+            }
+        }
+    }
+
+    private void place(int id, long earliest) {
+        long deadline = Math.max(deadlines[id], earliest);
+        int slot;
+        if (deadline - currentTick < (1 << LEVEL0_BITS)) {
+            slot = (int) (deadline & ((1 << LEVEL0_BITS) - 1));
+        } else {
+            int level = 1;
+            while (level < LEVELS - 1 && (deadline >>> shift(level)) - (currentTick >>> shift(level)) >= (1 << LEVEL_BITS)) {
+                level++;
+            }
+            long position = Math.min(deadline >>> shift(level), (currentTick >>> shift(level)) + (1 << LEVEL_BITS) - 1);
+            slot = slotOffset(level) + (int) (position & ((1 << LEVEL_BITS) - 1));
+        }
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+        slots[id] = slot;
+        levelCounts[levelOf(slot)]++;
+    }
+
+    private void unlink(int id) {
+        if (prev[id] != NONE) {
+            next[prev[id]] = next[id];
+        } else {
+            heads[slots[id]] = next[id];
+        }
+        if (next[id] != NONE) {
+            prev[next[id]] = prev[id];
+        }
+        levelCounts[levelOf(slots[id])]--;
+        slots[id] = NONE;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= slots.length) {
+            return;
+        }
+        int length = Math.max(capacity, slots.length * 2);
+        int from = slots.length;
+        next = Arrays.copyOf(next, length);
+        prev = Arrays.copyOf(prev, length);
+        slots = Arrays.copyOf(slots, length);
+        deadlines = Arrays.copyOf(deadlines, length);
+        Arrays.fill(slots, from, length, NONE);
+    }
+
+    private static int shift(int level) {
+        return LEVEL0_BITS + (level - 1) * LEVEL_BITS;
+    }
+
+    private static int levelOf(int slot) {
+        return slot < (1 << LEVEL0_BITS) ? 0 : 1 + ((slot - (1 << LEVEL0_BITS)) >> LEVEL_BITS);
+    }
+
+    private static int slotOffset(int level) {
+        return level == 0 ? 0 : (1 << LEVEL0_BITS) + (level - 1) * (1 << LEVEL_BITS);
+    }
+}
@@ -0,0 +1,184 @@
+package com.portfolio.server;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Closed-loop load generator for RebalanceServer. Each client thread sends its
+// next request as soon as the previous one returns and records the round trip.
+// Without --url an in-process server is started on a free port.
+//
+//   java -cp portfolio-rebalancer.jar com.portfolio.server.LoadGenerator \
+//       --clients 32 --requests 200000 --assets 50 --distinct 1000
+public class LoadGenerator {
+    private static final AssetType[] TYPES = AssetType.values();
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        String strategy = "threshold";
+        int clients = 16;
+        int requests = 100_000;
+        int assets = 50;
+        int distinct = 1_000;
+        int warmup = 20_000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--strategy":
+                    strategy = args[++i];
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "--requests":
+                    requests = Integer.parseInt(args[++i]);
+                    break;
+                case "--assets":
+                    assets = Integer.parseInt(args[++i]);
+                    break;
+                case "--distinct":
+                    distinct = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        RebalanceServer server = null;
+        if (url == null) {
+            server = new RebalanceServer(0);
+            server.start();
+            url = "http://127.0.0.1:" + server.getPort();
+        }
+        try {
+            URI uri = URI.create(url + "/rebalance?strategy=" + strategy + "&threshold=0.05");
+            List<byte[]> bodies = createBodies(distinct, assets);
+            run(uri, bodies, clients, warmup);
+            long[] latencies = new long[requests];
+            long elapsed = run(uri, bodies, clients, requests, latencies);
+            report(latencies, elapsed);
+            if (server != null) {
+                System.out.printf(Locale.ROOT, "server: %d requests, %d coalesced, %d batches%n",
+                        server.getRequestCount(), server.getCoalescedCount(), server.getBatchCount());
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static void run(URI uri, List<byte[]> bodies, int clients, int requests) throws InterruptedException {
+        run(uri, bodies, clients, requests, new long[requests]);
+    }
+
+    private static long run(URI uri, List<byte[]> bodies, int clients, int requests, long[] latencies)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .POST(HttpRequest.BodyPublishers.ofByteArray(bodies.get(i % bodies.size())))
+                                .header("Content-Type", "application/json")
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        if (failures.get() > 0) {
+            System.out.println("failed requests: " + failures.get());
+        }
+        return elapsed;
+    }
+
+    private static void report(long[] latencies, long elapsedNanos) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf(Locale.ROOT, "requests: %d in %.2f s (%.0f req/s)%n",
+                sorted.length, elapsedNanos / 1e9, sorted.length / (elapsedNanos / 1e9));
+        System.out.printf(Locale.ROOT, "latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e3;
+    }
+
+    private static List<byte[]> createBodies(int count, int assetCount) throws IOException {
+        ObjectWriter writer = new JsonPortfolioExporter().getMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+        SplittableRandom random = new SplittableRandom(42);
+        List<byte[]> bodies = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            List<Asset> assets = new ArrayList<>(assetCount);
+            for (int i = 0; i < assetCount; i++) {
+                double price = 10 + random.nextDouble() * 490;
+                assets.add(Asset.builder()
+                        .symbol("SYM" + i)
+                        .name("Asset " + i)
+                        .quantity(Math.max(1, Math.round((0.5 + random.nextDouble()) * 20_000 / price)))
+                        .currentPrice(price)
+                        .targetAllocation(1.0 / assetCount)
+                        .type(TYPES[i % TYPES.length])
+                        .build());
+            }
+            Portfolio portfolio = new Portfolio();
+            portfolio.setName("Load-" + p);
+            portfolio.setCashBalance(5_000.0);
+            portfolio.setAssets(assets);
+            bodies.add(writer.writeValueAsBytes(portfolio));
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,162 @@
+package com.portfolio.server;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.service.PortfolioRebalancer;
+import com.portfolio.strategy.RebalancingStrategy;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Collects rebalancing jobs from request threads and runs them in groups. The
+// batching thread takes whatever has queued up since the last round (it never
+// waits for a batch to fill), groups jobs by strategy and threshold and hands
+// each group, split into at most parallelism chunks, to the worker pool without
+// waiting for it, so it keeps draining the queue while groups run. Batches grow
+// with load without adding latency when idle.
+//
+// At most maxPending jobs may be queued or running at once; submit rejects the
+// rest, which bounds both the queue and the work handed to the pool.
+class MicroBatcher implements AutoCloseable {
+    // thresholds come from requests, so only the most recently used are kept
+    private static final int MAX_REBALANCERS = 64;
+
+    private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService executor;
+    private final int maxBatchSize;
+    private final int parallelism;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread thread;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder jobs = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean closed;
+
+    // used by the batching thread only
+    private final Map<GroupKey, PortfolioRebalancer> rebalancers =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<GroupKey, PortfolioRebalancer> eldest) {
+                    return size() > MAX_REBALANCERS;
+                }
+            };
+
+    MicroBatcher(ExecutorService executor, int parallelism, int maxBatchSize, int maxPending) {
+        if (parallelism <= 0 || maxBatchSize <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("parallelism, maxBatchSize and maxPending must be positive");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPending = maxPending;
+        this.thread = new Thread(this::run, "rebalance-micro-batcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    CompletableFuture<Map<String, Double>> submit(Portfolio portfolio, RebalancingStrategy strategy, double threshold) {
+        if (closed) {
+            throw new RejectedExecutionException("Batcher is closed");
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Rebalance queue is full");
+        }
+        Job job = new Job(portfolio, new GroupKey(strategy, threshold), new CompletableFuture<>());
+        job.result.whenComplete((trades, error) -> pending.decrementAndGet());
+        queue.add(job);
+        return job.result;
+    }
+
+    private void run() {
+        List<Job> batch = new ArrayList<>(maxBatchSize);
+        Map<GroupKey, List<Job>> groups = new LinkedHashMap<>();
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            for (Job job : batch) {
+                groups.computeIfAbsent(job.key, key -> new ArrayList<>()).add(job);
+            }
+            groups.forEach(this::dispatch);
+            batches.increment();
+            jobs.add(batch.size());
+            batch.clear();
+            groups.clear();
+        }
+        Job job;
+        while ((job = queue.poll()) != null) {
+            job.result.completeExceptionally(new RejectedExecutionException("Batcher is closed"));
+        }
+    }
+
+    private void dispatch(GroupKey key, List<Job> group) {
+        // Each portfolio is visited once, so a result cache would only add contention.
+        PortfolioRebalancer rebalancer = rebalancers.computeIfAbsent(key,
+                k -> new PortfolioRebalancer(k.strategy, k.threshold, null));
+        int chunkSize = (group.size() + parallelism - 1) / parallelism;
+        for (int from = 0; from < group.size(); from += chunkSize) {
+            List<Job> chunk = group.subList(from, Math.min(from + chunkSize, group.size()));
+            try {
+                executor.execute(() -> rebalance(rebalancer, chunk));
+            } catch (RejectedExecutionException e) {
+                chunk.forEach(job -> job.result.completeExceptionally(e));
+            }
+        }
+    }
+
+    private static void rebalance(PortfolioRebalancer rebalancer, List<Job> chunk) {
+        for (Job job : chunk) {
+            try {
+                job.result.complete(rebalancer.rebalance(job.portfolio));
+            } catch (RuntimeException e) {
+                job.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    long getBatchCount() {
+        return batches.sum();
+    }
+
+    long getJobCount() {
+        return jobs.sum();
+    }
+
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+
+    @Value
+    private static class GroupKey {
+        RebalancingStrategy strategy;
+        double threshold;
+    }
+
+    @Value
+    private static class Job {
+        Portfolio portfolio;
+        GroupKey key;
+        CompletableFuture<Map<String, Double>> result;
+    }
+}
@@ -0,0 +1,335 @@
+package com.portfolio.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.metrics.MetricsExporter;
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.strategy.CostAwareRebalancingStrategy;
+import com.portfolio.strategy.EqualWeightStrategy;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Embedded HTTP/JSON front end for the rebalancer, built on the JDK HttpServer so
+// it needs no container.
+//
+//   POST /rebalance?strategy=threshold&threshold=0.05   body: one portfolio as JSON
+//   GET  /strategies
+//   GET  /health
+//   GET  /metrics      Prometheus text format (enable with -Dportfolio.metrics=on)
+//
+// Identical requests that arrive while one is being computed share its result,
+// and everything else goes through a MicroBatcher so that bursts of small
+// portfolios are rebalanced in groups on the worker pool. Handler threads never
+// block on a result: responses are serialized and written back on the handler
+// pool once the batch completes, so the batching thread stays free.
+//
+// Bodies over maxBodyBytes get 413, and requests arriving while maxPendingJobs
+// are already queued or running get 503.
+//
+// Launch with -Dsun.net.httpserver.nodelay=true: HttpServer writes headers and
+// body separately, and with Nagle on, small responses wait for the client's
+// delayed ACK (~40 ms per request).
+public class RebalanceServer implements AutoCloseable {
+    public static final int DEFAULT_MAX_BODY_BYTES = 1 << 20;
+    public static final int DEFAULT_MAX_PENDING_JOBS = 16_384;
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final HttpServer server;
+    private final Map<String, RebalancingStrategy> strategies;
+    private final ObjectMapper mapper = new JsonPortfolioExporter().getMapper();
+    private final ObjectWriter writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    private final Map<RequestKey, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService handlers;
+    private final ExecutorService workers;
+    private final MicroBatcher batcher;
+    private final int maxBodyBytes;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public RebalanceServer(int port) throws IOException {
+        this(port, defaultStrategies(), Runtime.getRuntime().availableProcessors());
+    }
+
+    public RebalanceServer(int port, Map<String, RebalancingStrategy> strategies, int workerThreads) throws IOException {
+        this(port, strategies, workerThreads, DEFAULT_MAX_BODY_BYTES, DEFAULT_MAX_PENDING_JOBS);
+    }
+
+    public RebalanceServer(int port, Map<String, RebalancingStrategy> strategies, int workerThreads,
+                           int maxBodyBytes, int maxPendingJobs) throws IOException {
+        if (maxBodyBytes <= 0) {
+            throw new IllegalArgumentException("maxBodyBytes must be positive");
+        }
+        this.strategies = Map.copyOf(strategies);
+        this.maxBodyBytes = maxBodyBytes;
+        this.handlers = Executors.newCachedThreadPool(daemonThreads("rebalance-http"));
+        this.workers = Executors.newFixedThreadPool(workerThreads, daemonThreads("rebalance-worker"));
+        this.batcher = new MicroBatcher(workers, workerThreads, MAX_BATCH_SIZE, maxPendingJobs);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.setExecutor(handlers);
+        this.server.createContext("/rebalance", this::handleRebalance);
+        this.server.createContext("/strategies", this::handleStrategies);
+        this.server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"UP\"}"));
+        this.server.createContext("/metrics", this::handleMetrics);
+    }
+
+    public static Map<String, RebalancingStrategy> defaultStrategies() {
+        Map<String, RebalancingStrategy> strategies = new LinkedHashMap<>();
+        strategies.put("threshold", new ThresholdRebalancingStrategy());
+        strategies.put("equal-weight", new EqualWeightStrategy());
+        strategies.put("cost-aware", new CostAwareRebalancingStrategy());
+        return strategies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        RebalanceServer server = new RebalanceServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Rebalancing service listening on http://127.0.0.1:" + server.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getBatchCount() {
+        return batcher.getBatchCount();
+    }
+
+    public long getRejectedCount() {
+        return batcher.getRejectedCount();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        batcher.close();
+        workers.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handleRebalance(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            respond(exchange, 405, error("Use POST"));
+            return;
+        }
+        requests.increment();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String strategyName = query.getOrDefault("strategy", "threshold");
+        RebalancingStrategy strategy = strategies.get(strategyName);
+        if (strategy == null) {
+            respond(exchange, 400, error("Unknown strategy: " + strategyName));
+            return;
+        }
+        double threshold;
+        try {
+            threshold = Double.parseDouble(query.getOrDefault("threshold", "0.05"));
+        } catch (NumberFormatException e) {
+            respond(exchange, 400, error("Invalid threshold: " + query.get("threshold")));
+            return;
+        }
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && parseLength(contentLength) > maxBodyBytes) {
+            respond(exchange, 413, error("Request body exceeds " + maxBodyBytes + " bytes"));
+            return;
+        }
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            // one byte past the limit tells an oversized chunked body apart
+            body = in.readNBytes(maxBodyBytes + 1);
+        }
+        if (body.length > maxBodyBytes) {
+            respond(exchange, 413, error("Request body exceeds " + maxBodyBytes + " bytes"));
+            return;
+        }
+
+        RequestKey key = new RequestKey(strategyName, threshold, body);
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            existing.whenComplete((response, error) -> complete(exchange, response, error));
+            return;
+        }
+        created.whenComplete((response, error) -> {
+            inFlight.remove(key, created);
+            complete(exchange, response, error);
+        });
+
+        Portfolio portfolio;
+        try {
+            portfolio = mapper.readValue(body, Portfolio.class);
+            portfolio.updateTotalValue();
+        } catch (IOException e) {
+            created.completeExceptionally(new IllegalArgumentException("Invalid portfolio: " + e.getMessage(), e));
+            return;
+        }
+        CompletableFuture<Map<String, Double>> trades;
+        try {
+            trades = batcher.submit(portfolio, strategy, threshold);
+        } catch (RejectedExecutionException e) {
+            created.completeExceptionally(e);
+            return;
+        }
+        trades.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                created.completeExceptionally(error);
+                return;
+            }
+            try {
+                created.complete(writeTrades(portfolio.getName(), result));
+            } catch (IOException e) {
+                created.completeExceptionally(e);
+            }
+        }, handlers);
+    }
+
+    private void handleStrategies(HttpExchange exchange) throws IOException {
+        respond(exchange, 200, writer.writeValueAsBytes(strategies.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getStrategyName(), (a, b) -> a, TreeMap::new))));
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] body = MetricsExporter.prometheus().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", MetricsExporter.PROMETHEUS_CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private byte[] writeTrades(String portfolioName, Map<String, Double> trades) throws IOException {
+        List<Map<String, Object>> rows = new TreeMap<>(trades).entrySet().stream()
+                .map(trade -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("symbol", trade.getKey());
+                    row.put("action", trade.getValue() > 0 ? "BUY" : "SELL");
+                    row.put("amount", Math.abs(trade.getValue()));
+                    return row;
+                })
+                .collect(Collectors.toList());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("portfolio", portfolioName);
+        response.put("trades", rows);
+        return writer.writeValueAsBytes(response);
+    }
+
+    private void complete(HttpExchange exchange, byte[] response, Throwable error) {
+        try {
+            if (error == null) {
+                respond(exchange, 200, response);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            int status = cause instanceof IllegalArgumentException ? 400
+                    : cause instanceof RejectedExecutionException ? 503
+                    : 500;
+            respond(exchange, status, error(String.valueOf(cause.getMessage())));
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private byte[] error(String message) throws IOException {
+        return writer.writeValueAsBytes(Map.of("error", message));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1; // let the read enforce the limit
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Body bytes are compared by content, so two clients posting the same
+    // portfolio for the same strategy share one computation.
+    @EqualsAndHashCode
+    private static final class RequestKey {
+        private final String strategy;
+        private final double threshold;
+        private final byte[] body;
+
+        private RequestKey(String strategy, double threshold, byte[] body) {
+            this.strategy = strategy;
+            this.threshold = threshold;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.portfolio.service;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.RebalancingStrategy;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BatchRebalancer {
+    private static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final PortfolioRebalancer rebalancer;
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    public BatchRebalancer(RebalancingStrategy strategy, double threshold) {
+        this(strategy, threshold, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public BatchRebalancer(RebalancingStrategy strategy, double threshold, ExecutorService executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        // Each portfolio is visited once per batch, so a result cache would only add contention.
+        this.rebalancer = new PortfolioRebalancer(strategy, threshold, null);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchResult rebalanceAll(Stream<Portfolio> portfolios) {
+        return rebalanceAll(portfolios.collect(Collectors.toList()));
+    }
+
+    public BatchResult rebalanceAll(Collection<Portfolio> portfolios) {
+        List<Portfolio> input = portfolios instanceof List ? (List<Portfolio>) portfolios : new ArrayList<>(portfolios);
+        long start = System.nanoTime();
+
+        // Work is split into contiguous chunks and results are written back by index,
+        // so the output order always matches the input order regardless of scheduling.
+        PortfolioResult[] results = new PortfolioResult[input.size()];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < input.size(); from += chunkSize) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(from + chunkSize, input.size());
+            futures.add(executor.submit(() -> {
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    results[i] = rebalanceOne(i, input.get(i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Batch rebalancing interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch rebalancing failed", e.getCause());
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        int failed = 0;
+        int rebalanced = 0;
+        long tradeCount = 0;
+        for (PortfolioResult result : results) {
+            if (!result.isSuccess()) {
+                failed++;
+            } else if (!result.getTrades().isEmpty()) {
+                rebalanced++;
+                tradeCount += result.getTrades().size();
+            }
+        }
+        BatchStats stats = new BatchStats(results.length, rebalanced, failed, tradeCount, elapsedNanos);
+        return new BatchResult(Collections.unmodifiableList(Arrays.asList(results)), stats);
+    }
+
+    private PortfolioResult rebalanceOne(int index, Portfolio portfolio) {
+        try {
+            return new PortfolioResult(index, portfolio, rebalancer.rebalance(portfolio), null);
+        } catch (RuntimeException e) {
+            return new PortfolioResult(index, portfolio, Map.of(), e);
+        }
+    }
+
+    public String getStrategyName() {
+        return rebalancer.getStrategyName();
+    }
+
+    @Value
+    public static class PortfolioResult {
+        int index;
+        Portfolio portfolio;
+        Map<String, Double> trades;
+        RuntimeException error;
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    @Value
+    public static class BatchStats {
+        int portfolioCount;
+        int rebalancedCount;
+        int failedCount;
+        long tradeCount;
+        long elapsedNanos;
+
+        public double getElapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+
+        public double getPortfoliosPerSecond() {
+            return elapsedNanos > 0 ? portfolioCount * 1_000_000_000.0 / elapsedNanos : 0;
+        }
+    }
+
+    @Value
+    public static class BatchResult {
+        List<PortfolioResult> results;
+        BatchStats stats;
+
+        public List<PortfolioResult> getFailures() {
+            return results.stream()
+                    .filter(result -> !result.isSuccess())
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.portfolio.service;
+
+import com.portfolio.model.SymbolIndex;
+import com.portfolio.model.TradeList;
+
+import java.io.PrintStream;
+import java.util.Locale;
+
+// One order per symbol whose buys and sells do not cancel out, in symbol id
+// order, plus the before/after order count and notional of the netting run. A
+// net below minNotional counts as cancelled out, so rounding residue of the
+// summed amounts doesn't become an order.
+public class BlockOrders {
+    private final SymbolIndex symbolIndex;
+    private final int[] symbolIds;
+    private final double[] buys;
+    private final double[] sells;
+    private final int[] lines;
+    private final int size;
+    private final int inputLines;
+    private final double grossNotional;
+    private final double netNotional;
+
+    BlockOrders(SymbolIndex symbolIndex, double[] buysBySymbol, double[] sellsBySymbol, int[] linesBySymbol,
+                int inputLines, double grossNotional, double minNotional) {
+        int count = 0;
+        for (int s = 0; s < buysBySymbol.length; s++) {
+            if (Math.abs(buysBySymbol[s] - sellsBySymbol[s]) >= minNotional) {
+                count++;
+            }
+        }
+        this.symbolIndex = symbolIndex;
+        this.symbolIds = new int[count];
+        this.buys = new double[count];
+        this.sells = new double[count];
+        this.lines = new int[count];
+        double net = 0;
+        int b = 0;
+        for (int s = 0; s < buysBySymbol.length; s++) {
+            if (Math.abs(buysBySymbol[s] - sellsBySymbol[s]) >= minNotional) {
+                symbolIds[b] = s;
+                buys[b] = buysBySymbol[s];
+                sells[b] = sellsBySymbol[s];
+                lines[b] = linesBySymbol[s];
+                net += Math.abs(buys[b] - sells[b]);
+                b++;
+            }
+        }
+        this.size = count;
+        this.inputLines = inputLines;
+        this.grossNotional = grossNotional;
+        this.netNotional = net;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int symbolId(int block) {
+        return symbolIds[block];
+    }
+
+    public String symbol(int block) {
+        return symbolIndex.symbol(symbolIds[block]);
+    }
+
+    // Signed: positive buys in market, negative sells.
+    public double net(int block) {
+        return buys[block] - sells[block];
+    }
+
+    public TradeList.Side side(int block) {
+        return net(block) > 0 ? TradeList.Side.BUY : TradeList.Side.SELL;
+    }
+
+    public double grossBuys(int block) {
+        return buys[block];
+    }
+
+    public double grossSells(int block) {
+        return sells[block];
+    }
+
+    public int lineCount(int block) {
+        return lines[block];
+    }
+
+    public int getInputLines() {
+        return inputLines;
+    }
+
+    public int getOrderCount() {
+        return size;
+    }
+
+    public double getGrossNotional() {
+        return grossNotional;
+    }
+
+    public double getNetNotional() {
+        return netNotional;
+    }
+
+    public double getOrderReduction() {
+        return inputLines > 0 ? 1 - (double) size / inputLines : 0;
+    }
+
+    public double getNotionalReduction() {
+        return grossNotional > 0 ? 1 - netNotional / grossNotional : 0;
+    }
+
+    public void printSummary(PrintStream out) {
+        out.printf(Locale.ROOT, "Orders:   %,d lines -> %,d blocks (%.1f%% fewer)%n",
+                inputLines, size, getOrderReduction() * 100);
+        out.printf(Locale.ROOT, "Notional: $%,.2f gross -> $%,.2f net (%.1f%% crossed internally)%n",
+                grossNotional, netNotional, getNotionalReduction() * 100);
+    }
+}
@@ -1,23 +1,85 @@
 package com.portfolio.service;
 
+import com.portfolio.metrics.Counter;
+import com.portfolio.metrics.Metrics;
+import com.portfolio.metrics.Timer;
 import com.portfolio.model.Portfolio;
+import com.portfolio.model.TradeList;
 import com.portfolio.strategy.RebalancingStrategy;
 import java.util.Map;
 
 public class PortfolioRebalancer {
+    private static final Counter TRADES = Metrics.counter("trades");
+    private static final ThreadLocal<TradeList> PLAN = ThreadLocal.withInitial(TradeList::new);
+
     private final RebalancingStrategy strategy;
     private final double threshold;
+    private final RebalanceCache cache;
+    private final Timer timer;
 
     public PortfolioRebalancer(RebalancingStrategy strategy, double threshold) {
+        this(strategy, threshold, null);
+    }
+
+    // Caching is opt-in: pass a RebalanceCache, possibly shared between
+    // rebalancers, or null for none. See RebalanceCache for when it is safe.
+    public PortfolioRebalancer(RebalancingStrategy strategy, double threshold, RebalanceCache cache) {
         this.strategy = strategy;
         this.threshold = threshold;
+        this.cache = cache;
+        this.timer = Metrics.timer("calculateRebalancingTrades", strategy.getStrategyName());
     }
 
     public Map<String, Double> rebalance(Portfolio portfolio) {
-        if (!portfolio.needsRebalancing(threshold)) {
+        if (cache == null || !strategy.isCacheable()) {
+            return computeTrades(portfolio);
+        }
+        return cache.get(portfolio, strategy, threshold, () -> computeTrades(portfolio));
+    }
+
+    private Map<String, Double> computeTrades(Portfolio portfolio) {
+        if (withinThreshold(portfolio)) {
             return Map.of();
         }
-        return strategy.calculateRebalancingTrades(portfolio, threshold);
+        long start = Metrics.start();
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, threshold);
+        timer.stop(start);
+        TRADES.add(trades.size());
+        return trades;
+    }
+
+    // Typed variant of rebalance() without caching: refills trades, leaving it
+    // empty when the portfolio is within threshold.
+    public TradeList rebalance(Portfolio portfolio, TradeList trades) {
+        if (withinThreshold(portfolio)) {
+            return trades.clear();
+        }
+        long start = Metrics.start();
+        strategy.calculateRebalancingTrades(portfolio, threshold, trades);
+        timer.stop(start);
+        TRADES.add(trades.size());
+        return trades;
+    }
+
+    // Exact variant of rebalance() without caching: fills tradeMicros in asset
+    // order (see RebalancingStrategy.calculateRebalancingTradeMicros) and returns
+    // false, leaving it untouched, when the portfolio is within threshold.
+    public boolean rebalanceMicros(Portfolio portfolio, long[] tradeMicros) {
+        if (withinThreshold(portfolio)) {
+            return false;
+        }
+        long start = Metrics.start();
+        strategy.calculateRebalancingTradeMicros(portfolio, threshold, tradeMicros);
+        timer.stop(start);
+        return true;
+    }
+
+    private boolean withinThreshold(Portfolio portfolio) {
+        return strategy.gatedByPortfolioDrift() && !portfolio.needsRebalancing(threshold);
+    }
+
+    public RebalanceCache getCache() {
+        return cache;
     }
 
     public String getStrategyName() {
@@ -29,19 +91,20 @@ public class PortfolioRebalancer {
     }
 
     public void printRebalancingPlan(Portfolio portfolio) {
-        Map<String, Double> actions = rebalance(portfolio);
-        
+        TradeList trades = rebalance(portfolio, PLAN.get());
+
         System.out.println("\nRebalancing Plan (" + strategy.getStrategyName() + "):");
         System.out.println("----------------------------------------");
-        
-        actions.forEach((symbol, amount) -> {
+
+        for (int i = 0; i < trades.size(); i++) {
+            double amount = trades.amount(i);
             if (amount > 0) {
-                System.out.printf("Buy $%.2f of %s%n", amount, symbol);
+                System.out.printf("Buy $%.2f of %s%n", amount, trades.symbol(i));
             } else if (amount < 0) {
-                System.out.printf("Sell $%.2f of %s%n", Math.abs(amount), symbol);
+                System.out.printf("Sell $%.2f of %s%n", -amount, trades.symbol(i));
             }
-        });
-        
+        }
+
         System.out.println("----------------------------------------");
     }
-} 
\ No newline at end of file
+}
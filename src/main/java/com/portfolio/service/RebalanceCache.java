@@ -0,0 +1,114 @@
+package com.portfolio.service;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.RebalancingStrategy;
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// LRU cache of rebalancing results keyed by portfolio id and state version, so
+// repeated calls on an unchanged portfolio cost a single hash lookup. Strategies
+// are compared by identity plus their config version. Can be shared between
+// rebalancers.
+//
+// Only mutations made through Portfolio bump its version. Changes made directly
+// on an Asset are invisible here, so callers that use Asset setters must clear()
+// the cache or leave caching off, which is PortfolioRebalancer's default.
+// Portfolio.copy() keeps id and version, so copies share entries with their
+// original; a copy that is then mutated must not use the same cache.
+public class RebalanceCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private final int maxEntries;
+    private final Map<Key, Map<String, Double>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RebalanceCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RebalanceCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Map<String, Double>> eldest) {
+                if (size() > RebalanceCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Map<String, Double> get(Portfolio portfolio, RebalancingStrategy strategy, double threshold,
+                                   Supplier<Map<String, Double>> compute) {
+        Key key = new Key(portfolio.getId(), portfolio.getVersion(), strategy, strategy.getConfigVersion(), threshold);
+        Map<String, Double> cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        // Computed outside the lock; concurrent misses for the same key just race to store equal results.
+        Map<String, Double> result = Map.copyOf(compute.get());
+        synchronized (entries) {
+            entries.put(key, result);
+        }
+        return result;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    @Value
+    private static class Key {
+        long portfolioId;
+        long version;
+        RebalancingStrategy strategy;
+        long configVersion;
+        double threshold;
+    }
+}
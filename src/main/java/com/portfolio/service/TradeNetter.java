@@ -0,0 +1,164 @@
+package com.portfolio.service;
+
+import com.portfolio.model.SymbolIndex;
+import com.portfolio.model.TradeList;
+
+import java.util.Arrays;
+import java.util.Map;
+
+// Nets per-account trades across a whole book into one block order per symbol.
+// Trade lines are appended to parallel primitive arrays and aggregated with
+// dense per-symbol accumulators indexed by SymbolIndex id, so a run over
+// millions of lines is a few linear passes without boxing or hashing (except
+// for lines added from maps). Buys and sells of the same symbol cross
+// internally; only the net goes to market, and allocate() hands block fills
+// back to the individual lines pro rata.
+public class TradeNetter {
+    // smallest net worth sending to market, in the trades' currency
+    public static final double DEFAULT_MIN_NOTIONAL = 0.01;
+
+    private final SymbolIndex symbolIndex;
+    private final double minNotional;
+    private int lineCount;
+    private int[] accounts = new int[1024];
+    private int[] symbolIds = new int[1024];
+    private double[] amounts = new double[1024];
+    private int symbolLimit;
+
+    public TradeNetter() {
+        this(SymbolIndex.global());
+    }
+
+    // Ids of TradeLists passed to add() must come from this index.
+    public TradeNetter(SymbolIndex symbolIndex) {
+        this(symbolIndex, DEFAULT_MIN_NOTIONAL);
+    }
+
+    public TradeNetter(SymbolIndex symbolIndex, double minNotional) {
+        if (!(minNotional > 0)) {
+            throw new IllegalArgumentException("minNotional must be positive");
+        }
+        this.symbolIndex = symbolIndex;
+        this.minNotional = minNotional;
+    }
+
+    public void add(int account, int symbolId, double amount) {
+        if (amount == 0) {
+            return;
+        }
+        if (lineCount == amounts.length) {
+            int capacity = amounts.length * 2;
+            accounts = Arrays.copyOf(accounts, capacity);
+            symbolIds = Arrays.copyOf(symbolIds, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        accounts[lineCount] = account;
+        symbolIds[lineCount] = symbolId;
+        amounts[lineCount] = amount;
+        lineCount++;
+        symbolLimit = Math.max(symbolLimit, symbolId + 1);
+    }
+
+    public void add(int account, TradeList trades) {
+        for (int i = 0, n = trades.size(); i < n; i++) {
+            add(account, trades.symbolId(i), trades.amount(i));
+        }
+    }
+
+    public void add(int account, Map<String, Double> trades) {
+        for (Map.Entry<String, Double> trade : trades.entrySet()) {
+            add(account, symbolIndex.idOf(trade.getKey()), trade.getValue());
+        }
+    }
+
+    // Successful results of a batch, with the portfolio's batch index as account.
+    public void add(BatchRebalancer.BatchResult batch) {
+        for (BatchRebalancer.PortfolioResult result : batch.getResults()) {
+            if (result.isSuccess()) {
+                add(result.getIndex(), result.getTrades());
+            }
+        }
+    }
+
+    public void clear() {
+        lineCount = 0;
+        symbolLimit = 0;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public int account(int line) {
+        return accounts[line];
+    }
+
+    public int symbolId(int line) {
+        return symbolIds[line];
+    }
+
+    public double amount(int line) {
+        return amounts[line];
+    }
+
+    public BlockOrders net() {
+        double[] buys = new double[symbolLimit];
+        double[] sells = new double[symbolLimit];
+        int[] lines = new int[symbolLimit];
+        double grossNotional = 0;
+        for (int i = 0; i < lineCount; i++) {
+            int symbol = symbolIds[i];
+            double amount = amounts[i];
+            if (amount > 0) {
+                buys[symbol] += amount;
+            } else {
+                sells[symbol] -= amount;
+            }
+            lines[symbol]++;
+            grossNotional += Math.abs(amount);
+        }
+        return new BlockOrders(symbolIndex, buys, sells, lines, lineCount, grossNotional, minNotional);
+    }
+
+    // Fills every block completely; see allocate(BlockOrders, double[]).
+    public double[] allocate(BlockOrders orders) {
+        double[] fills = new double[orders.size()];
+        for (int b = 0; b < fills.length; b++) {
+            fills[b] = Math.abs(orders.net(b));
+        }
+        return allocate(orders, fills);
+    }
+
+    // Signed amount done per line, in line order, given the notional filled in
+    // market for each block (0 to |net|). The smaller side of each symbol is
+    // crossed in full against the larger one; the larger side's lines share the
+    // crossed amount plus the fill in proportion to their size. Symbols that
+    // net below minNotional have no block and are crossed in full; their
+    // residue is left unhedged.
+    public double[] allocate(BlockOrders orders, double[] fills) {
+        if (fills.length != orders.size()) {
+            throw new IllegalArgumentException("Expected " + orders.size() + " fills, got " + fills.length);
+        }
+        double[] buyRatio = new double[symbolLimit];
+        double[] sellRatio = new double[symbolLimit];
+        Arrays.fill(buyRatio, 1.0);
+        Arrays.fill(sellRatio, 1.0);
+        for (int b = 0; b < orders.size(); b++) {
+            int symbol = orders.symbolId(b);
+            double fill = Math.min(Math.max(fills[b], 0), Math.abs(orders.net(b)));
+            double buys = orders.grossBuys(b);
+            double sells = orders.grossSells(b);
+            if (buys > sells) {
+                buyRatio[symbol] = (sells + fill) / buys;
+            } else {
+                sellRatio[symbol] = (buys + fill) / sells;
+            }
+        }
+        double[] done = new double[lineCount];
+        for (int i = 0; i < lineCount; i++) {
+            double amount = amounts[i];
+            done[i] = amount * (amount > 0 ? buyRatio[symbolIds[i]] : sellRatio[symbolIds[i]]);
+        }
+        return done;
+    }
+}
@@ -0,0 +1,110 @@
+package com.portfolio.simulation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Resamples whole rows of historical returns, which keeps the cross-sectional
+// correlation of the sample without fitting a model. With blockLength > 1 runs
+// of consecutive rows are drawn together to keep some serial dependence too.
+public class BootstrapPriceModel implements PriceModel {
+    private final int assetCount;
+    private final double[] returns;
+    private final int rowCount;
+    private final int blockLength;
+
+    public BootstrapPriceModel(double[][] grossReturns, int blockLength) {
+        if (grossReturns.length == 0) {
+            throw new IllegalArgumentException("At least one row of returns is required");
+        }
+        if (blockLength < 1) {
+            throw new IllegalArgumentException("blockLength must be positive");
+        }
+        this.assetCount = grossReturns[0].length;
+        this.rowCount = grossReturns.length;
+        this.blockLength = Math.min(blockLength, rowCount);
+        this.returns = new double[rowCount * assetCount];
+        for (int t = 0; t < rowCount; t++) {
+            if (grossReturns[t].length != assetCount) {
+                throw new IllegalArgumentException("Row " + t + " has " + grossReturns[t].length + " returns");
+            }
+            System.arraycopy(grossReturns[t], 0, returns, t * assetCount, assetCount);
+        }
+    }
+
+    // Reads a price history with a header row (date,SYM1,SYM2,...) and one row of
+    // prices per period, oldest first, and keeps the given symbols in that order.
+    public static BootstrapPriceModel fromCsv(Path file, List<String> symbols, int blockLength) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("Empty price file: " + file);
+            }
+            List<String> columns = Arrays.asList(header.split(","));
+            int[] indexes = new int[symbols.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = columns.indexOf(symbols.get(i));
+                if (indexes[i] < 1) {
+                    throw new IOException("No price column for " + symbols.get(i) + " in " + file);
+                }
+            }
+            double[] previous = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                double[] prices = new double[indexes.length];
+                for (int i = 0; i < indexes.length; i++) {
+                    prices[i] = Double.parseDouble(fields[indexes[i]].trim());
+                }
+                if (previous != null) {
+                    double[] row = new double[prices.length];
+                    for (int i = 0; i < prices.length; i++) {
+                        row[i] = prices[i] / previous[i];
+                    }
+                    rows.add(row);
+                }
+                previous = prices;
+            }
+        }
+        return new BootstrapPriceModel(rows.toArray(new double[0][]), blockLength);
+    }
+
+    @Override
+    public int getAssetCount() {
+        return assetCount;
+    }
+
+    @Override
+    public Generator newGenerator() {
+        return new Generator() {
+            private int row;
+            private int remaining;
+
+            @Override
+            public void next(SplittableRandom random, double[] grossReturns) {
+                if (remaining == 0) {
+                    row = random.nextInt(rowCount - blockLength + 1);
+                    remaining = blockLength;
+                }
+                System.arraycopy(returns, row * assetCount, grossReturns, 0, assetCount);
+                row++;
+                remaining--;
+            }
+
+            @Override
+            public void reset() {
+                remaining = 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.portfolio.simulation;
+
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+@Value
+public class Distribution {
+    double mean;
+    double stdDev;
+    double min;
+    double p5;
+    double p25;
+    double median;
+    double p75;
+    double p95;
+    double max;
+
+    public static Distribution of(double[] samples) {
+        if (samples.length == 0) {
+            return new Distribution(0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double sum = 0;
+        for (double sample : sorted) {
+            sum += sample;
+        }
+        double mean = sum / sorted.length;
+        double squares = 0;
+        for (double sample : sorted) {
+            squares += (sample - mean) * (sample - mean);
+        }
+        double stdDev = sorted.length > 1 ? Math.sqrt(squares / (sorted.length - 1)) : 0;
+        return new Distribution(mean, stdDev, sorted[0], quantile(sorted, 0.05), quantile(sorted, 0.25),
+                quantile(sorted, 0.5), quantile(sorted, 0.75), quantile(sorted, 0.95), sorted[sorted.length - 1]);
+    }
+
+    // linear interpolation between closest ranks
+    private static double quantile(double[] sorted, double q) {
+        double position = q * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (position - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    public String format(double scale, String unit) {
+        return String.format(Locale.ROOT, "%.2f%s (p5 %.2f, p50 %.2f, p95 %.2f)",
+                mean * scale, unit, p5 * scale, median * scale, p95 * scale);
+    }
+}
@@ -0,0 +1,23 @@
+package com.portfolio.simulation;
+
+import java.util.SplittableRandom;
+
+// SplittableRandom has no nextGaussian before Java 17. Marsaglia's polar method
+// yields two normals per accepted pair; the second one is dropped so the
+// generator stays stateless and paths stay reproducible from the seed alone.
+final class Gaussian {
+    private Gaussian() {
+    }
+
+    static double next(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+}
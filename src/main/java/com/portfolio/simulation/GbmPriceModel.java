@@ -0,0 +1,97 @@
+package com.portfolio.simulation;
+
+import java.util.SplittableRandom;
+
+// Correlated geometric Brownian motion. Drifts and volatilities are annual; each
+// step covers 1 / stepsPerYear of a year. Independent normals are correlated
+// through the Cholesky factor of the correlation matrix.
+public class GbmPriceModel implements PriceModel {
+    private final int assetCount;
+    private final double[] stepDrift;
+    private final double[] stepVolatility;
+    private final double[] cholesky;
+
+    public GbmPriceModel(double[] drifts, double[] volatilities, double[][] correlation, int stepsPerYear) {
+        this.assetCount = drifts.length;
+        if (volatilities.length != assetCount || correlation.length != assetCount) {
+            throw new IllegalArgumentException("Drifts, volatilities and correlation must cover the same assets");
+        }
+        double dt = 1.0 / stepsPerYear;
+        this.stepDrift = new double[assetCount];
+        this.stepVolatility = new double[assetCount];
+        for (int i = 0; i < assetCount; i++) {
+            stepDrift[i] = (drifts[i] - 0.5 * volatilities[i] * volatilities[i]) * dt;
+            stepVolatility[i] = volatilities[i] * Math.sqrt(dt);
+        }
+        this.cholesky = cholesky(correlation);
+    }
+
+    // Uncorrelated assets sharing the same drift and volatility.
+    public static GbmPriceModel independent(int assetCount, double drift, double volatility, int stepsPerYear) {
+        return withConstantCorrelation(assetCount, drift, volatility, 0.0, stepsPerYear);
+    }
+
+    public static GbmPriceModel withConstantCorrelation(int assetCount, double drift, double volatility,
+                                                        double correlation, int stepsPerYear) {
+        double[] drifts = new double[assetCount];
+        double[] volatilities = new double[assetCount];
+        double[][] matrix = new double[assetCount][assetCount];
+        for (int i = 0; i < assetCount; i++) {
+            drifts[i] = drift;
+            volatilities[i] = volatility;
+            for (int j = 0; j < assetCount; j++) {
+                matrix[i][j] = i == j ? 1.0 : correlation;
+            }
+        }
+        return new GbmPriceModel(drifts, volatilities, matrix, stepsPerYear);
+    }
+
+    @Override
+    public int getAssetCount() {
+        return assetCount;
+    }
+
+    @Override
+    public Generator newGenerator() {
+        double[] normals = new double[assetCount];
+        return (random, grossReturns) -> {
+            for (int i = 0; i < assetCount; i++) {
+                normals[i] = Gaussian.next(random);
+            }
+            for (int i = 0; i < assetCount; i++) {
+                double shock = 0;
+                int row = i * assetCount;
+                for (int j = 0; j <= i; j++) {
+                    shock += cholesky[row + j] * normals[j];
+                }
+                grossReturns[i] = Math.exp(stepDrift[i] + stepVolatility[i] * shock);
+            }
+        };
+    }
+
+    // Lower-triangular factor L with L * L^T = matrix, stored row-major.
+    static double[] cholesky(double[][] matrix) {
+        int n = matrix.length;
+        double[] lower = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            if (matrix[i].length != n) {
+                throw new IllegalArgumentException("Correlation matrix must be square");
+            }
+            for (int j = 0; j <= i; j++) {
+                double sum = matrix[i][j];
+                for (int k = 0; k < j; k++) {
+                    sum -= lower[i * n + k] * lower[j * n + k];
+                }
+                if (i == j) {
+                    if (sum <= 0) {
+                        throw new IllegalArgumentException("Correlation matrix is not positive definite");
+                    }
+                    lower[i * n + i] = Math.sqrt(sum);
+                } else {
+                    lower[i * n + j] = sum / lower[j * n + j];
+                }
+            }
+        }
+        return lower;
+    }
+}
@@ -0,0 +1,21 @@
+package com.portfolio.simulation;
+
+import java.util.SplittableRandom;
+
+// Source of joint per-step price moves for a fixed list of assets.
+public interface PriceModel {
+    int getAssetCount();
+
+    // Fills grossReturns[i] with price(t + 1) / price(t) for every asset. Called
+    // on the simulation hot path, so implementations must not allocate; scratch
+    // state belongs in the generator, which is confined to one thread.
+    interface Generator {
+        void next(SplittableRandom random, double[] grossReturns);
+
+        // Called before each path so a path depends only on its own seed.
+        default void reset() {
+        }
+    }
+
+    Generator newGenerator();
+}
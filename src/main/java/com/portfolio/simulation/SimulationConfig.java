@@ -0,0 +1,42 @@
+package com.portfolio.simulation;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.CostModel;
+import com.portfolio.strategy.RebalancingStrategy;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+@Value
+@Builder
+public class SimulationConfig {
+    // starting holdings; the price model's assets follow portfolio.getAssets() order
+    @NonNull
+    Portfolio portfolio;
+    @NonNull
+    PriceModel priceModel;
+    @Singular
+    Map<String, RebalancingStrategy> strategies;
+    @Singular
+    List<Double> thresholds;
+    // steps between rebalancing checks, e.g. 1 = daily, 21 = monthly, 63 = quarterly on daily steps
+    @Singular
+    List<Integer> cadences;
+    @Builder.Default
+    int paths = 10_000;
+    @Builder.Default
+    int steps = 252;
+    @Builder.Default
+    int stepsPerYear = 252;
+    @Builder.Default
+    CostModel costModel = CostModel.builder().build();
+    @Builder.Default
+    long seed = 42;
+    // paths handed to a worker at a time
+    @Builder.Default
+    int chunkSize = 64;
+}
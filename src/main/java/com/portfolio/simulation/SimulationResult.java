@@ -0,0 +1,45 @@
+package com.portfolio.simulation;
+
+import lombok.Value;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+@Value
+public class SimulationResult {
+    List<ScenarioResult> scenarios;
+    int paths;
+    int steps;
+    long elapsedNanos;
+
+    // Per-path outcomes of one strategy / threshold / cadence combination.
+    // Turnover is annual traded notional over average portfolio value, cost and
+    // return are annual fractions of value, drift is total absolute weight deviation.
+    @Value
+    public static class ScenarioResult {
+        String strategy;
+        double threshold;
+        int cadence;
+        Distribution turnover;
+        Distribution cost;
+        Distribution meanDrift;
+        Distribution maxDrift;
+        Distribution annualReturn;
+        Distribution rebalances;
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%d paths x %d steps in %.2f s%n", paths, steps, elapsedNanos / 1e9);
+        for (ScenarioResult scenario : scenarios) {
+            out.printf(Locale.ROOT, "%n%s, threshold %.3f, every %d steps%n",
+                    scenario.getStrategy(), scenario.getThreshold(), scenario.getCadence());
+            out.println("  turnover      " + scenario.getTurnover().format(100, "%"));
+            out.println("  cost          " + scenario.getCost().format(10_000, "bp"));
+            out.println("  mean drift    " + scenario.getMeanDrift().format(100, "%"));
+            out.println("  max drift     " + scenario.getMaxDrift().format(100, "%"));
+            out.println("  return        " + scenario.getAnnualReturn().format(100, "%"));
+            out.println("  rebalances    " + scenario.getRebalances().format(1, ""));
+        }
+    }
+}
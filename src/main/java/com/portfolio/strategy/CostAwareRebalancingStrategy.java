@@ -0,0 +1,219 @@
+package com.portfolio.strategy;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioColumns;
+import java.util.HashMap;
+import java.util.Map;
+
+// Chooses per-asset trades minimizing
+//
+//     sum_i  commission * [x_i != 0] + costRate * |x_i| + penalty * (d_i - x_i)^2 / T
+//
+// where d_i is the dollar gap to target and T the portfolio value, subject to
+// buys being funded by cash plus sells and to whole lots and minimum trade sizes.
+// The objective is separable, so each asset's continuous optimum has a closed
+// form; the cash constraint adds a single multiplier on buys that is found by
+// bisection. Continuous trades are then rounded to lots (buys round down so the
+// cash constraint still holds) and kept only if they beat not trading at all.
+public class CostAwareRebalancingStrategy implements RebalancingStrategy {
+    private static final int BISECTION_STEPS = 60;
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private final CostModel costModel;
+
+    public CostAwareRebalancingStrategy() {
+        this(CostModel.builder().build());
+    }
+
+    public CostAwareRebalancingStrategy(CostModel costModel) {
+        if (costModel.getTrackingErrorPenalty() <= 0) {
+            throw new IllegalArgumentException("trackingErrorPenalty must be positive");
+        }
+        this.costModel = costModel;
+    }
+
+    @Override
+    public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
+        Map<String, Double> trades = new HashMap<>();
+        Workspace workspace = WORKSPACE.get();
+        PortfolioColumns columns = workspace.columns.load(portfolio);
+        try {
+            int n = columns.size();
+            double totalValue = columns.getTotalValue();
+            if (n == 0 || totalValue <= 0) {
+                return trades;
+            }
+            double[] gaps = workspace.gaps(n);
+            double[] chosen = workspace.chosen(n);
+
+            // Continuous optimum for a trade in direction s is d - s * (cost + mu) * T / (2 * penalty);
+            // mu is the cash multiplier and only applies to buys.
+            double shrink = totalValue / (2 * costModel.getTrackingErrorPenalty());
+            double sells = 0;
+            double buys = 0;
+            for (int i = 0; i < n; i++) {
+                gaps[i] = Math.abs(columns.deviation(i)) > threshold ? columns.target(i) * totalValue - columns.value(i) : 0;
+                chosen[i] = roundedTrade(columns, i, continuousTrade(gaps[i], 0, shrink), totalValue, false);
+                if (chosen[i] < 0) {
+                    sells -= chosen[i];
+                } else {
+                    buys += chosen[i];
+                }
+            }
+
+            double budget = columns.getCashBalance() + sells - tradingCosts(chosen, n);
+            if (buys > budget) {
+                double low = 0;
+                double high = 1;
+                while (buyTotal(gaps, n, high, shrink) > budget && high < 1e12) {
+                    high *= 2;
+                }
+                for (int step = 0; step < BISECTION_STEPS; step++) {
+                    double mu = (low + high) / 2;
+                    if (buyTotal(gaps, n, mu, shrink) > budget) {
+                        low = mu;
+                    } else {
+                        high = mu;
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    if (gaps[i] > 0) {
+                        chosen[i] = roundedTrade(columns, i, continuousTrade(gaps[i], high, shrink), totalValue, true);
+                    }
+                }
+                // Rounding and dropped trades can only lower spending, but commissions are
+                // paid on whatever remains, so trim the smallest buys if that tips us over.
+                budget = columns.getCashBalance() + sells - tradingCosts(chosen, n);
+                trimBuys(chosen, n, budget);
+            }
+
+            for (int i = 0; i < n; i++) {
+                if (chosen[i] != 0) {
+                    trades.merge(columns.symbol(i), chosen[i], Double::sum);
+                }
+            }
+            return trades;
+        } finally {
+            columns.clear();
+        }
+    }
+
+    private double continuousTrade(double gap, double mu, double shrink) {
+        if (gap > 0) {
+            return Math.max(0, gap - (costModel.getCostRate() + mu) * shrink);
+        }
+        if (gap < 0) {
+            return Math.min(0, gap + costModel.getCostRate() * shrink);
+        }
+        return 0;
+    }
+
+    private double buyTotal(double[] gaps, int n, double mu, double shrink) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (gaps[i] > 0) {
+                total += continuousTrade(gaps[i], mu, shrink) * (1 + costModel.getCostRate());
+            }
+        }
+        return total;
+    }
+
+    // Rounds a continuous dollar trade to whole lots, picking the better of the two
+    // neighbouring lot counts (buys round down once cash is binding), and drops it
+    // when it is below the minimum size or costs more than leaving the gap open.
+    private double roundedTrade(PortfolioColumns columns, int i, double trade, double totalValue, boolean cashBound) {
+        if (trade == 0) {
+            return 0;
+        }
+        double gap = columns.target(i) * totalValue - columns.value(i);
+        double price = columns.price(i);
+        double lotValue = costModel.getLotSize() > 0 ? costModel.getLotSize() * price : 0;
+        double best = trade;
+        if (lotValue > 0) {
+            double lots = Math.abs(trade) / lotValue;
+            double down = Math.floor(lots) * lotValue * Math.signum(trade);
+            double up = Math.ceil(lots) * lotValue * Math.signum(trade);
+            if (trade < 0 && Math.abs(up) > columns.value(i)) {
+                up = down;
+            }
+            best = (trade > 0 && cashBound) || cost(gap, down, totalValue) <= cost(gap, up, totalValue) ? down : up;
+        }
+        if (best == 0 || Math.abs(best) < costModel.getMinTradeValue()) {
+            return 0;
+        }
+        return cost(gap, best, totalValue) < cost(gap, 0, totalValue) ? best : 0;
+    }
+
+    private double cost(double gap, double trade, double totalValue) {
+        double residual = gap - trade;
+        double trading = trade == 0 ? 0 : costModel.getCommissionPerTrade() + costModel.getCostRate() * Math.abs(trade);
+        return trading + costModel.getTrackingErrorPenalty() * residual * residual / totalValue;
+    }
+
+    private double tradingCosts(double[] chosen, int n) {
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (chosen[i] != 0) {
+                total += costModel.getCommissionPerTrade() + costModel.getCostRate() * Math.abs(chosen[i]);
+            }
+        }
+        return total;
+    }
+
+    private void trimBuys(double[] chosen, int n, double budget) {
+        double buys = 0;
+        for (int i = 0; i < n; i++) {
+            if (chosen[i] > 0) {
+                buys += chosen[i];
+            }
+        }
+        while (buys > budget) {
+            int smallest = -1;
+            for (int i = 0; i < n; i++) {
+                if (chosen[i] > 0 && (smallest < 0 || chosen[i] < chosen[smallest])) {
+                    smallest = i;
+                }
+            }
+            if (smallest < 0) {
+                return;
+            }
+            buys -= chosen[smallest];
+            budget += costModel.getCommissionPerTrade() + costModel.getCostRate() * chosen[smallest];
+            chosen[smallest] = 0;
+        }
+    }
+
+    public CostModel getCostModel() {
+        return costModel;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Cost-Aware Rebalancing";
+    }
+
+    @Override
+    public String getStrategyDescription() {
+        return "Trades whole lots only where the reduction in tracking error outweighs commissions and spread, funding buys from cash and sells";
+    }
+
+    private static final class Workspace {
+        private final PortfolioColumns columns = new PortfolioColumns();
+        private double[] gaps = new double[0];
+        private double[] chosen = new double[0];
+
+        double[] gaps(int n) {
+            if (gaps.length < n) {
+                gaps = new double[n];
+            }
+            return gaps;
+        }
+
+        double[] chosen(int n) {
+            if (chosen.length < n) {
+                chosen = new double[n];
+            }
+            return chosen;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.portfolio.strategy;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CostModel {
+    // flat fee charged per executed trade
+    @Builder.Default
+    double commissionPerTrade = 1.0;
+    // proportional cost (spread, fees) as a fraction of traded notional
+    @Builder.Default
+    double costRate = 0.0005;
+    // shares per lot; 0 allows fractional quantities
+    @Builder.Default
+    double lotSize = 1.0;
+    // trades below this notional are dropped
+    @Builder.Default
+    double minTradeValue = 0.0;
+    // dollars of penalty per unit of squared residual weight, scaled by portfolio value
+    @Builder.Default
+    double trackingErrorPenalty = 10.0;
+}
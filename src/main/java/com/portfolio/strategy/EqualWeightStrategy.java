@@ -1,33 +1,71 @@
 package com.portfolio.strategy;
 
+import com.portfolio.model.Money;
 import com.portfolio.model.Portfolio;
-import java.util.HashMap;
+import com.portfolio.model.PortfolioColumns;
+import com.portfolio.model.TradeList;
 import java.util.Map;
 
 public class EqualWeightStrategy implements RebalancingStrategy {
+    private static final ThreadLocal<PortfolioColumns> COLUMNS = ThreadLocal.withInitial(PortfolioColumns::new);
+
     @Override
     public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
-        Map<String, Double> trades = new HashMap<>();
-        int numAssets = portfolio.getAssets().size();
-        
-        if (numAssets == 0) {
+        return calculateRebalancingTrades(portfolio, threshold, new TradeList()).toMap();
+    }
+
+    @Override
+    public TradeList calculateRebalancingTrades(Portfolio portfolio, double threshold, TradeList trades) {
+        trades.clear();
+        PortfolioColumns columns = COLUMNS.get().load(portfolio);
+        try {
+            int numAssets = columns.size();
+
+            if (numAssets == 0) {
+                return trades;
+            }
+
+            double targetAllocation = 1.0 / numAssets;
+            double totalValue = columns.getTotalValue();
+            double targetValue = totalValue * targetAllocation;
+            double minTrade = threshold * totalValue;
+
+            for (int i = 0; i < numAssets; i++) {
+                double tradeAmount = targetValue - columns.value(i);
+
+                if (Math.abs(tradeAmount) > minTrade) {
+                    trades.add(columns.symbol(i), columns.symbolId(i), tradeAmount, columns.price(i));
+                }
+            }
+
             return trades;
+        } finally {
+            columns.clear();
         }
+    }
 
-        double targetAllocation = 1.0 / numAssets;
-        double totalValue = portfolio.getTotalValue();
-        
-        for (var asset : portfolio.getAssets()) {
-            double currentValue = asset.getCurrentValue();
-            double targetValue = totalValue * targetAllocation;
-            double tradeAmount = targetValue - currentValue;
-            
-            if (Math.abs(tradeAmount) > threshold * totalValue) {
-                trades.put(asset.getSymbol(), tradeAmount);
+    // Splits the total exactly: the micros left over by the division go one each
+    // to the first assets, so the targets add up to the total to the micro.
+    @Override
+    public void calculateRebalancingTradeMicros(Portfolio portfolio, double threshold, long[] tradeMicros) {
+        PortfolioColumns columns = COLUMNS.get().load(portfolio);
+        try {
+            int numAssets = columns.size();
+            if (numAssets == 0) {
+                return;
+            }
+            long total = columns.totalValueMicros();
+            long share = Math.floorDiv(total, numAssets);
+            long remainder = Math.floorMod(total, numAssets);
+            long minTrade = Money.fraction(total, threshold);
+            for (int i = 0; i < numAssets; i++) {
+                long target = share + (i < remainder ? 1 : 0);
+                long trade = target - columns.valueMicros(i);
+                tradeMicros[i] = Math.abs(trade) > minTrade ? trade : 0;
             }
+        } finally {
+            columns.clear();
         }
-        
-        return trades;
     }
 
     @Override
@@ -1,10 +1,68 @@
 package com.portfolio.strategy;
 
+import com.portfolio.model.Asset;
+import com.portfolio.model.Money;
 import com.portfolio.model.Portfolio;
+import com.portfolio.model.SymbolIndex;
+import com.portfolio.model.TradeList;
+import java.util.List;
 import java.util.Map;
 
 public interface RebalancingStrategy {
     Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold);
+
+    // Typed variant: clears trades and refills it in asset order, with share
+    // quantities at each asset's current price. Strategies that support it
+    // override this to skip the map; the default adapts the map result.
+    default TradeList calculateRebalancingTrades(Portfolio portfolio, double threshold, TradeList trades) {
+        trades.clear();
+        Map<String, Double> amounts = calculateRebalancingTrades(portfolio, threshold);
+        if (amounts.isEmpty()) {
+            return trades;
+        }
+        List<Asset> assets = portfolio.getAssets();
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            Asset asset = assets.get(i);
+            Double amount = amounts.get(asset.getSymbol());
+            if (amount != null) {
+                trades.add(asset.getSymbol(), SymbolIndex.global().idOf(asset.getSymbol()), amount, asset.getCurrentPrice());
+            }
+        }
+        return trades;
+    }
+
+    // Exact variant: writes the trade for the i-th asset of portfolio.getAssets()
+    // to tradeMicros[i] in micros (see Money), 0 for no trade. Strategies that
+    // support it override this with long arithmetic; the default rounds the
+    // double result.
+    default void calculateRebalancingTradeMicros(Portfolio portfolio, double threshold, long[] tradeMicros) {
+        Map<String, Double> trades = calculateRebalancingTrades(portfolio, threshold);
+        List<Asset> assets = portfolio.getAssets();
+        for (int i = 0, n = assets.size(); i < n; i++) {
+            Double amount = trades.get(assets.get(i).getSymbol());
+            tradeMicros[i] = amount != null ? Money.toMicros(amount) : 0;
+        }
+    }
+
+    // Changes whenever configuration that affects results changes, so cached
+    // results computed under the old configuration are not reused.
+    default long getConfigVersion() {
+        return 0;
+    }
+
+    // False when results depend on state outside the portfolio and the
+    // strategy's configuration, such as a ledger or the clock.
+    default boolean isCacheable() {
+        return true;
+    }
+
+    // Whether callers may skip the strategy when Portfolio.needsRebalancing is
+    // false. Strategies that judge drift against targets of their own, rather
+    // than each asset's targetAllocation as a portfolio weight, return false.
+    default boolean gatedByPortfolioDrift() {
+        return true;
+    }
+
     String getStrategyName();
     String getStrategyDescription();
 } 
\ No newline at end of file
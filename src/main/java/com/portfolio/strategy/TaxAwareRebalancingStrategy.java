@@ -0,0 +1,116 @@
+package com.portfolio.strategy;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioColumns;
+import com.portfolio.tax.LotMethod;
+import com.portfolio.tax.LotSale;
+import com.portfolio.tax.TaxLedger;
+import com.portfolio.tax.TaxLots;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Threshold rebalancing that realizes as little taxed gain as it can. An
+// overweight holding always sells enough to get back to the edge of its band,
+// taking the lots with the lowest tax per share first; it only sells on toward
+// target from lots that cost no tax, such as lots at a loss. Shares without
+// lots (unknown basis) are sold last, and only when the band requires it.
+// Underweight holdings are bought to target unless a loss sale in the last 30
+// days would become a wash sale.
+public class TaxAwareRebalancingStrategy implements RebalancingStrategy {
+    private static final ThreadLocal<PortfolioColumns> COLUMNS = ThreadLocal.withInitial(PortfolioColumns::new);
+
+    private final Function<Portfolio, TaxLedger> ledgers;
+    private final Clock clock;
+
+    public TaxAwareRebalancingStrategy(TaxLedger ledger) {
+        this(portfolio -> ledger, Clock.systemDefaultZone());
+    }
+
+    // Looks up the ledger of each portfolio it rebalances; null means no lots.
+    public TaxAwareRebalancingStrategy(Function<Portfolio, TaxLedger> ledgers, Clock clock) {
+        this.ledgers = ledgers;
+        this.clock = clock;
+    }
+
+    @Override
+    public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
+        Map<String, Double> trades = new HashMap<>();
+        plan(portfolio, threshold, trades, null);
+        return trades;
+    }
+
+    // The lot sales behind the sells of calculateRebalancingTrades, for
+    // TaxLedger.execute once the trades are done.
+    public List<LotSale> planSales(Portfolio portfolio, double threshold) {
+        List<LotSale> sales = new ArrayList<>();
+        plan(portfolio, threshold, new HashMap<>(), sales);
+        return sales;
+    }
+
+    private void plan(Portfolio portfolio, double threshold, Map<String, Double> trades, List<LotSale> sales) {
+        PortfolioColumns columns = COLUMNS.get().load(portfolio);
+        try {
+            double totalValue = columns.getTotalValue();
+            if (totalValue <= 0) {
+                return;
+            }
+            TaxLedger ledger = ledgers.apply(portfolio);
+            LocalDate today = LocalDate.now(clock);
+
+            for (int i = 0; i < columns.size(); i++) {
+                double deviation = columns.deviation(i);
+                TaxLots lots = ledger != null ? ledger.find(columns.symbol(i)) : null;
+                if (deviation > threshold) {
+                    double price = columns.price(i);
+                    if (price <= 0) {
+                        continue;
+                    }
+                    double desired = Math.min(deviation * totalValue / price, columns.quantity(i));
+                    double required = Math.min((deviation - threshold) * totalValue / price, desired);
+                    double shares = desired;
+                    if (lots != null) {
+                        List<LotSale> selected = lots.select(required, desired, LotMethod.TAX_OPTIMAL, today, price,
+                                ledger.getRates());
+                        double sold = 0;
+                        for (LotSale sale : selected) {
+                            sold += sale.getQuantity();
+                        }
+                        double untracked = Math.max(0, columns.quantity(i) - lots.getQuantity());
+                        shares = sold + Math.min(Math.max(0, required - sold), untracked);
+                        if (sales != null) {
+                            sales.addAll(selected);
+                        }
+                    }
+                    if (shares > 0) {
+                        trades.put(columns.symbol(i), -shares * price);
+                    }
+                } else if (deviation < -threshold && (lots == null || !lots.isInWashSaleWindow(today))) {
+                    trades.put(columns.symbol(i), -deviation * totalValue);
+                }
+            }
+        } finally {
+            columns.clear();
+        }
+    }
+
+    // Results follow the lot ledger and the clock, neither of which moves the portfolio version.
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Tax-Aware Rebalancing";
+    }
+
+    @Override
+    public String getStrategyDescription() {
+        return "Rebalances outside the threshold band while selling the lots with the lowest tax first";
+    }
+}
@@ -1,25 +1,56 @@
 package com.portfolio.strategy;
 
+import com.portfolio.model.Money;
 import com.portfolio.model.Portfolio;
-import java.util.HashMap;
+import com.portfolio.model.PortfolioColumns;
+import com.portfolio.model.TradeList;
 import java.util.Map;
 
 public class ThresholdRebalancingStrategy implements RebalancingStrategy {
+    private static final ThreadLocal<PortfolioColumns> COLUMNS = ThreadLocal.withInitial(PortfolioColumns::new);
+
     @Override
     public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
-        Map<String, Double> trades = new HashMap<>();
-        Map<String, Double> deviations = portfolio.getDeviationFromTarget();
-        
-        for (Map.Entry<String, Double> entry : deviations.entrySet()) {
-            double deviation = entry.getValue();
-            if (Math.abs(deviation) > threshold) {
-                // Calculate the amount needed to rebalance
-                double tradeAmount = -deviation * portfolio.getTotalValue();
-                trades.put(entry.getKey(), tradeAmount);
+        return calculateRebalancingTrades(portfolio, threshold, new TradeList()).toMap();
+    }
+
+    @Override
+    public TradeList calculateRebalancingTrades(Portfolio portfolio, double threshold, TradeList trades) {
+        trades.clear();
+        PortfolioColumns columns = COLUMNS.get().load(portfolio);
+        try {
+            double totalValue = columns.getTotalValue();
+
+            for (int i = 0; i < columns.size(); i++) {
+                double deviation = columns.deviation(i);
+                if (Math.abs(deviation) > threshold) {
+                    // Calculate the amount needed to rebalance
+                    double tradeAmount = -deviation * totalValue;
+                    trades.add(columns.symbol(i), columns.symbolId(i), tradeAmount, columns.price(i));
+                }
+            }
+
+            return trades;
+        } finally {
+            columns.clear();
+        }
+    }
+
+    // Same rule in micros: trade to target when |value - target * total| exceeds
+    // threshold * total.
+    @Override
+    public void calculateRebalancingTradeMicros(Portfolio portfolio, double threshold, long[] tradeMicros) {
+        PortfolioColumns columns = COLUMNS.get().load(portfolio);
+        try {
+            long total = columns.totalValueMicros();
+            long limit = Money.fraction(total, threshold);
+            for (int i = 0; i < columns.size(); i++) {
+                long trade = Money.fraction(total, columns.target(i)) - columns.valueMicros(i);
+                tradeMicros[i] = Math.abs(trade) > limit ? trade : 0;
             }
+        } finally {
+            columns.clear();
         }
-        
-        return trades;
     }
 
     @Override
@@ -31,4 +62,4 @@ public class ThresholdRebalancingStrategy implements RebalancingStrategy {
     public String getStrategyDescription() {
         return "Rebalances assets when their allocation deviates from target by more than the specified threshold";
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package com.portfolio.strategy;
+
+import com.portfolio.model.AssetClassTarget;
+import com.portfolio.model.AssetClassTargets;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioColumns;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Two-level rebalancing: asset-class weights are checked against their tolerance
+// bands first, and only classes outside their band are drilled into. Within a
+// breached class every holding is traded back to its share of the class target,
+// so classes inside their band generate no trades at all. Class sums are taken
+// in one pass over the loaded columns on every call, so holdings changed
+// directly on an Asset (then updateTotalValue()) are seen as well.
+public class ToleranceBandStrategy implements RebalancingStrategy {
+    private static final AssetType[] TYPES = AssetType.values();
+    private static final int UNCLASSIFIED = TYPES.length;
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+    // Holdings closer than this to their share of the class target are left alone.
+    private static final double MIN_TRADE = 0.01;
+    // Summed targets may keep rounding residue; below this a class has no targets.
+    private static final double TARGET_EPSILON = 1e-9;
+
+    private final AssetClassTargets classTargets;
+
+    public ToleranceBandStrategy(AssetClassTargets classTargets) {
+        this.classTargets = classTargets;
+    }
+
+    @Override
+    public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
+        Map<String, Double> trades = new HashMap<>();
+        Workspace workspace = WORKSPACE.get();
+        PortfolioColumns columns = workspace.columns.load(portfolio);
+        try {
+            int n = columns.size();
+            double totalValue = columns.getTotalValue();
+            if (n == 0 || totalValue <= 0) {
+                return trades;
+            }
+
+            double[] classValues = workspace.classValues;
+            double[] targetSums = workspace.targetSums;
+            double[] classTargetValues = workspace.classTargetValues;
+            int[] counts = workspace.counts;
+            Arrays.fill(classValues, 0);
+            Arrays.fill(targetSums, 0);
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                int k = classOf(columns.type(i));
+                classValues[k] += columns.value(i);
+                targetSums[k] += columns.target(i);
+                counts[k]++;
+            }
+
+            // Per class, the target value to distribute, or NaN when the class is inside its band.
+            boolean anyBreached = false;
+            for (int k = 0; k <= UNCLASSIFIED; k++) {
+                AssetClassTarget target = k < UNCLASSIFIED ? classTargets.get(TYPES[k]) : null;
+                double targetWeight = target != null ? target.getTargetAllocation() : targetSums[k];
+                double tolerance = target != null ? target.getTolerance() : threshold;
+                double drift = classValues[k] / totalValue - targetWeight;
+                if (Math.abs(drift) > tolerance) {
+                    classTargetValues[k] = targetWeight * totalValue;
+                    anyBreached = true;
+                } else {
+                    classTargetValues[k] = Double.NaN;
+                }
+            }
+            if (!anyBreached) {
+                return trades;
+            }
+
+            for (int i = 0; i < n; i++) {
+                int k = classOf(columns.type(i));
+                double classTargetValue = classTargetValues[k];
+                if (Double.isNaN(classTargetValue)) {
+                    continue;
+                }
+                double share = targetSums[k] > TARGET_EPSILON ? columns.target(i) / targetSums[k] : 1.0 / counts[k];
+                double tradeAmount = classTargetValue * share - columns.value(i);
+                if (Math.abs(tradeAmount) >= MIN_TRADE) {
+                    trades.merge(columns.symbol(i), tradeAmount, Double::sum);
+                }
+            }
+            return trades;
+        } finally {
+            columns.clear();
+        }
+    }
+
+    private static int classOf(AssetType type) {
+        return type != null ? type.ordinal() : UNCLASSIFIED;
+    }
+
+    // Asset targets are weights within their class, not portfolio weights, so
+    // Portfolio.needsRebalancing says nothing about the class bands.
+    @Override
+    public boolean gatedByPortfolioDrift() {
+        return false;
+    }
+
+    @Override
+    public long getConfigVersion() {
+        return classTargets.getVersion();
+    }
+
+    public AssetClassTargets getClassTargets() {
+        return classTargets;
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "Tolerance-Band Rebalancing";
+    }
+
+    @Override
+    public String getStrategyDescription() {
+        return "Rebalances only asset classes whose weight drifts outside their tolerance band, then trades holdings within those classes back to target";
+    }
+
+    private static final class Workspace {
+        private final PortfolioColumns columns = new PortfolioColumns();
+        private final double[] classValues = new double[UNCLASSIFIED + 1];
+        private final double[] targetSums = new double[UNCLASSIFIED + 1];
+        private final double[] classTargetValues = new double[UNCLASSIFIED + 1];
+        private final int[] counts = new int[UNCLASSIFIED + 1];
+    }
+}
@@ -0,0 +1,12 @@
+package com.portfolio.tax;
+
+public enum LotMethod {
+    // oldest lots first
+    FIFO,
+    // newest lots first
+    LIFO,
+    // highest cost per share first, realizing the smallest gain
+    HIFO,
+    // lowest tax per share first, given short- and long-term rates and wash sales
+    TAX_OPTIMAL
+}
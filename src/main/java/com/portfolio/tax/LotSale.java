@@ -0,0 +1,25 @@
+package com.portfolio.tax;
+
+import lombok.Value;
+
+// Shares taken from one lot by a sale or a planned sale.
+@Value
+public class LotSale {
+    String symbol;
+    long lotId;
+    double quantity;
+    double costPerShare;
+    double price;
+    boolean longTerm;
+    // a loss disallowed because the symbol was bought within the wash-sale window
+    boolean washSale;
+    double tax;
+
+    public double getProceeds() {
+        return quantity * price;
+    }
+
+    public double getGain() {
+        return quantity * (price - costPerShare);
+    }
+}
@@ -0,0 +1,90 @@
+package com.portfolio.tax;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tax lots of one portfolio by symbol, with the gains realized through it.
+public class TaxLedger {
+    private final Map<String, TaxLots> holdings = new HashMap<>();
+    private final TaxRates rates;
+    private double shortTermGain;
+    private double longTermGain;
+    private double disallowedLoss;
+    private double tax;
+
+    public TaxLedger(TaxRates rates) {
+        this.rates = rates;
+    }
+
+    public TaxLots lots(String symbol) {
+        return holdings.computeIfAbsent(symbol, TaxLots::new);
+    }
+
+    // null when the symbol has no lots
+    public TaxLots find(String symbol) {
+        return holdings.get(symbol);
+    }
+
+    public TaxLot buy(String symbol, LocalDate acquired, double shares, double costPerShare) {
+        return lots(symbol).buy(acquired, shares, costPerShare);
+    }
+
+    public List<LotSale> sell(String symbol, double shares, LotMethod method, LocalDate asOf, double price) {
+        List<LotSale> sales = lots(symbol).sell(shares, method, asOf, price, rates);
+        sales.forEach(this::record);
+        return sales;
+    }
+
+    public LotSale sellLot(String symbol, long lotId, double shares, LocalDate asOf, double price) {
+        LotSale sale = lots(symbol).sellLot(lotId, shares, asOf, price, rates);
+        record(sale);
+        return sale;
+    }
+
+    // Executes planned lot sales, e.g. from TaxAwareRebalancingStrategy.planSales.
+    public void execute(Collection<LotSale> plan, LocalDate asOf) {
+        for (LotSale sale : plan) {
+            sellLot(sale.getSymbol(), sale.getLotId(), sale.getQuantity(), asOf, sale.getPrice());
+        }
+    }
+
+    private void record(LotSale sale) {
+        double gain = sale.getGain();
+        if (gain < 0 && sale.isWashSale()) {
+            disallowedLoss -= gain;
+        } else if (sale.isLongTerm()) {
+            longTermGain += gain;
+        } else {
+            shortTermGain += gain;
+        }
+        tax += sale.getTax();
+    }
+
+    public TaxRates getRates() {
+        return rates;
+    }
+
+    public Map<String, TaxLots> getHoldings() {
+        return Collections.unmodifiableMap(holdings);
+    }
+
+    public double getShortTermGain() {
+        return shortTermGain;
+    }
+
+    public double getLongTermGain() {
+        return longTermGain;
+    }
+
+    public double getDisallowedLoss() {
+        return disallowedLoss;
+    }
+
+    public double getTax() {
+        return tax;
+    }
+}
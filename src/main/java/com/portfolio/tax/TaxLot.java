@@ -0,0 +1,31 @@
+package com.portfolio.tax;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+@Getter
+@ToString
+public class TaxLot {
+    private final long id;
+    private final LocalDate acquired;
+    private final double costPerShare;
+    // remaining shares; reduced by sales through TaxLots
+    private double quantity;
+
+    TaxLot(long id, LocalDate acquired, double quantity, double costPerShare) {
+        this.id = id;
+        this.acquired = acquired;
+        this.quantity = quantity;
+        this.costPerShare = costPerShare;
+    }
+
+    void reduce(double sold) {
+        quantity -= sold;
+    }
+
+    public double getCostBasis() {
+        return quantity * costPerShare;
+    }
+}
@@ -0,0 +1,256 @@
+package com.portfolio.tax;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+// Open lots of one holding, indexed three ways: by id for specific-lot sales,
+// by acquisition date for FIFO/LIFO, and by cost per share within separate
+// short- and long-term sets for HIFO and tax-optimal selection. Lots move from
+// the short- to the long-term set once, when a sale date first passes their
+// one-year mark, so selection only visits the lots it actually sells from:
+// O((k + 1) log n) for k lots touched, whatever the number of open lots.
+//
+// The wash-sale check is conservative: a loss is treated as disallowed when the
+// symbol was bought in the 30 days before the sale.
+public class TaxLots {
+    static final int WASH_SALE_DAYS = 30;
+    private static final double EPSILON = 1e-9;
+    private static final Comparator<TaxLot> BY_ACQUIRED = Comparator.comparing(TaxLot::getAcquired)
+            .thenComparingLong(TaxLot::getId);
+    private static final Comparator<TaxLot> BY_COST_DESCENDING = Comparator.comparingDouble(TaxLot::getCostPerShare)
+            .reversed()
+            .thenComparingLong(TaxLot::getId);
+
+    private final String symbol;
+    private final Map<Long, TaxLot> byId = new HashMap<>();
+    private final TreeSet<TaxLot> byAcquired = new TreeSet<>(BY_ACQUIRED);
+    private final TreeSet<TaxLot> shortTerm = new TreeSet<>(BY_COST_DESCENDING);
+    private final TreeSet<TaxLot> longTerm = new TreeSet<>(BY_COST_DESCENDING);
+    // lots acquired before this date are in longTerm
+    private LocalDate longTermBefore = LocalDate.MIN;
+    private long nextId = 1;
+    private double quantity;
+    private double costBasis;
+    private LocalDate lastAcquired;
+    private LocalDate lastLossSale;
+
+    public TaxLots(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public TaxLot buy(LocalDate acquired, double shares, double costPerShare) {
+        if (shares <= 0) {
+            throw new IllegalArgumentException("Lot quantity must be positive");
+        }
+        TaxLot lot = new TaxLot(nextId++, acquired, shares, costPerShare);
+        byId.put(lot.getId(), lot);
+        byAcquired.add(lot);
+        (acquired.isBefore(longTermBefore) ? longTerm : shortTerm).add(lot);
+        quantity += shares;
+        costBasis += lot.getCostBasis();
+        if (lastAcquired == null || acquired.isAfter(lastAcquired)) {
+            lastAcquired = acquired;
+        }
+        return lot;
+    }
+
+    // Lots to sell for the given number of shares, in method order, without
+    // changing anything. Stops early when the lots run out.
+    public List<LotSale> select(double shares, LotMethod method, LocalDate asOf, double price, TaxRates rates) {
+        return select(shares, shares, method, asOf, price, rates);
+    }
+
+    // Takes lots in method order until required shares are covered, then keeps
+    // going up to desired shares only through lots that cost no tax to sell.
+    public List<LotSale> select(double required, double desired, LotMethod method, LocalDate asOf, double price,
+                                TaxRates rates) {
+        promote(asOf);
+        boolean recentPurchase = isRecentPurchase(asOf);
+        List<LotSale> sales = new ArrayList<>();
+        double taken = 0;
+        Iterator<TaxLot> lots = order(method, price, rates, recentPurchase);
+        while (taken < desired - EPSILON && lots.hasNext()) {
+            TaxLot lot = lots.next();
+            boolean longTermLot = lot.getAcquired().isBefore(longTermBefore);
+            boolean washSale = recentPurchase && price < lot.getCostPerShare();
+            double taxPerShare = rates.taxPerShare(price, lot.getCostPerShare(), longTermLot, washSale);
+            double limit = taxPerShare <= 0 ? desired : required;
+            if (taken >= limit - EPSILON) {
+                // HIFO and tax-optimal order put every taxed lot after the untaxed ones
+                if (method == LotMethod.HIFO || method == LotMethod.TAX_OPTIMAL) {
+                    break;
+                }
+                continue;
+            }
+            double shares = Math.min(lot.getQuantity(), limit - taken);
+            sales.add(new LotSale(symbol, lot.getId(), shares, lot.getCostPerShare(), price, longTermLot, washSale,
+                    shares * taxPerShare));
+            taken += shares;
+        }
+        return sales;
+    }
+
+    public List<LotSale> sell(double shares, LotMethod method, LocalDate asOf, double price, TaxRates rates) {
+        List<LotSale> sales = select(shares, method, asOf, price, rates);
+        sales.forEach(sale -> apply(sale, asOf));
+        return sales;
+    }
+
+    // Specific identification.
+    public LotSale sellLot(long lotId, double shares, LocalDate asOf, double price, TaxRates rates) {
+        TaxLot lot = byId.get(lotId);
+        if (lot == null) {
+            throw new IllegalArgumentException("No open lot " + lotId + " for " + symbol);
+        }
+        if (shares > lot.getQuantity() + EPSILON) {
+            throw new IllegalArgumentException("Lot " + lotId + " holds only " + lot.getQuantity() + " shares");
+        }
+        promote(asOf);
+        boolean longTermLot = lot.getAcquired().isBefore(longTermBefore);
+        boolean washSale = isRecentPurchase(asOf) && price < lot.getCostPerShare();
+        LotSale sale = new LotSale(symbol, lotId, shares, lot.getCostPerShare(), price, longTermLot, washSale,
+                shares * rates.taxPerShare(price, lot.getCostPerShare(), longTermLot, washSale));
+        apply(sale, asOf);
+        return sale;
+    }
+
+    private void apply(LotSale sale, LocalDate asOf) {
+        TaxLot lot = byId.get(sale.getLotId());
+        double shares = Math.min(sale.getQuantity(), lot.getQuantity());
+        lot.reduce(shares);
+        quantity -= shares;
+        costBasis -= shares * lot.getCostPerShare();
+        if (lot.getQuantity() <= EPSILON) {
+            byId.remove(lot.getId());
+            byAcquired.remove(lot);
+            shortTerm.remove(lot);
+            longTerm.remove(lot);
+        }
+        if (sale.getPrice() < lot.getCostPerShare() && (lastLossSale == null || asOf.isAfter(lastLossSale))) {
+            lastLossSale = asOf;
+        }
+    }
+
+    // Moves lots between the term sets as the one-year mark passes asOf.
+    private void promote(LocalDate asOf) {
+        LocalDate cutoff = asOf.minusYears(1);
+        if (cutoff.isAfter(longTermBefore)) {
+            for (TaxLot lot : between(longTermBefore, cutoff)) {
+                shortTerm.remove(lot);
+                longTerm.add(lot);
+            }
+        } else if (cutoff.isBefore(longTermBefore)) {
+            for (TaxLot lot : between(cutoff, longTermBefore)) {
+                longTerm.remove(lot);
+                shortTerm.add(lot);
+            }
+        }
+        longTermBefore = cutoff;
+    }
+
+    // Lots acquired on or after from and before to, copied so the term sets can
+    // be changed while going through them.
+    private Collection<TaxLot> between(LocalDate from, LocalDate to) {
+        NavigableSet<TaxLot> range = byAcquired.subSet(probe(from), true, probe(to), false);
+        return range.isEmpty() ? Collections.emptyList() : new ArrayList<>(range);
+    }
+
+    private static TaxLot probe(LocalDate date) {
+        return new TaxLot(Long.MIN_VALUE, date, 0, 0);
+    }
+
+    private Iterator<TaxLot> order(LotMethod method, double price, TaxRates rates, boolean recentPurchase) {
+        switch (method) {
+            case FIFO:
+                return byAcquired.iterator();
+            case LIFO:
+                return byAcquired.descendingIterator();
+            case HIFO:
+                return merge(shortTerm.iterator(), longTerm.iterator(), BY_COST_DESCENDING);
+            case TAX_OPTIMAL:
+                // each term set is ordered by falling cost, which is rising tax per
+                // share at that term's rate, so merging by tax keeps the global order
+                return merge(shortTerm.iterator(), longTerm.iterator(), Comparator.comparingDouble(
+                        taxPerShare(price, rates, recentPurchase)));
+            default:
+                throw new IllegalArgumentException("Unknown lot method: " + method);
+        }
+    }
+
+    private ToDoubleFunction<TaxLot> taxPerShare(double price, TaxRates rates, boolean recentPurchase) {
+        return lot -> rates.taxPerShare(price, lot.getCostPerShare(), lot.getAcquired().isBefore(longTermBefore),
+                recentPurchase && price < lot.getCostPerShare());
+    }
+
+    private static <T> Iterator<T> merge(Iterator<T> first, Iterator<T> second, Comparator<T> order) {
+        return new Iterator<T>() {
+            private T a = first.hasNext() ? first.next() : null;
+            private T b = second.hasNext() ? second.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return a != null || b != null;
+            }
+
+            @Override
+            public T next() {
+                if (a == null && b == null) {
+                    throw new NoSuchElementException();
+                }
+                if (b == null || (a != null && order.compare(a, b) <= 0)) {
+                    T next = a;
+                    a = first.hasNext() ? first.next() : null;
+                    return next;
+                }
+                T next = b;
+                b = second.hasNext() ? second.next() : null;
+                return next;
+            }
+        };
+    }
+
+    private boolean isRecentPurchase(LocalDate asOf) {
+        return lastAcquired != null && !lastAcquired.isBefore(asOf.minusDays(WASH_SALE_DAYS));
+    }
+
+    // Buying within 30 days after a loss sale would disallow that loss.
+    public boolean isInWashSaleWindow(LocalDate asOf) {
+        return lastLossSale != null && !lastLossSale.isBefore(asOf.minusDays(WASH_SALE_DAYS));
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getQuantity() {
+        return quantity;
+    }
+
+    public double getCostBasis() {
+        return costBasis;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public TaxLot getLot(long lotId) {
+        return byId.get(lotId);
+    }
+
+    // Open lots, oldest first.
+    public Collection<TaxLot> getLots() {
+        return Collections.unmodifiableSet(byAcquired);
+    }
+}
@@ -0,0 +1,26 @@
+package com.portfolio.tax;
+
+import lombok.Value;
+
+@Value
+public class TaxRates {
+    public static final TaxRates NONE = new TaxRates(0, 0);
+
+    // rate on gains from lots held a year or less
+    double shortTermRate;
+    // rate on gains from lots held longer than a year
+    double longTermRate;
+
+    public static TaxRates of(double shortTermRate, double longTermRate) {
+        return new TaxRates(shortTermRate, longTermRate);
+    }
+
+    // Tax per share of selling at price; disallowed losses count as zero.
+    double taxPerShare(double price, double costPerShare, boolean longTerm, boolean washSale) {
+        double gain = price - costPerShare;
+        if (gain < 0 && washSale) {
+            return 0;
+        }
+        return gain * (longTerm ? longTermRate : shortTermRate);
+    }
+}
@@ -0,0 +1,175 @@
+package com.portfolio.backtest;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.CostModel;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+class BacktesterTest {
+    @TempDir
+    Path tempDir;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(0.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(50)
+                .currentPrice(100.0)
+                .targetAllocation(0.5)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("BND")
+                .name("Bond ETF")
+                .quantity(50)
+                .currentPrice(100.0)
+                .targetAllocation(0.5)
+                .type(AssetType.BOND)
+                .build());
+    }
+
+    private PriceHistory convert(List<String> lines, long windowBytes) throws IOException {
+        Path csv = tempDir.resolve("prices.csv");
+        Path file = tempDir.resolve("prices.prch");
+        Files.write(csv, lines);
+        new PriceHistoryConverter().convert(csv, file);
+        return PriceHistory.open(file, windowBytes);
+    }
+
+    @Test
+    void testConvertsWideCsvAndReadsAcrossWindows() throws Exception {
+        try (PriceHistory history = convert(List.of(
+                "date,AAPL,MSFT,BND",
+                "2024-01-02,100,300,50",
+                "2024-01-03,101,,50.5",
+                "2024-01-04,102,303,51"), 24)) {
+            assertEquals(List.of("AAPL", "MSFT", "BND"), history.getSymbols());
+            assertEquals(3, history.getBarCount());
+            assertEquals(1704153600000L, history.getTimestamp(0));
+            assertEquals(51.0, history.getPrice(2, history.column("BND")));
+            assertTrue(Double.isNaN(history.getPrice(1, history.column("MSFT"))));
+            assertEquals(100.0, history.getPrice(0, 0));
+            assertEquals(1, history.findBar(1704240000000L));
+            assertEquals(-1, history.column("GOOG"));
+        }
+    }
+
+    @Test
+    void testConvertsLongCsv() throws Exception {
+        try (PriceHistory history = convert(List.of(
+                "timestamp,symbol,price",
+                "2024-01-02T09:30:00,AAPL,100",
+                "2024-01-02T09:30:00,BND,50",
+                "2024-01-02T09:31:00,BND,50.1",
+                "2024-01-02T09:32:00,AAPL,100.2"), PriceHistory.DEFAULT_WINDOW_BYTES)) {
+            assertEquals(List.of("AAPL", "BND"), history.getSymbols());
+            assertEquals(3, history.getBarCount());
+            assertEquals(60_000, history.getTimestamp(1) - history.getTimestamp(0));
+            assertTrue(Double.isNaN(history.getPrice(1, history.column("AAPL"))));
+            assertEquals(100.2, history.getPrice(2, history.column("AAPL")));
+        }
+    }
+
+    @Test
+    void testRejectsUnsortedRows() {
+        assertThrows(IOException.class, () -> convert(List.of(
+                "date,AAPL",
+                "2024-01-03,100",
+                "2024-01-02,101"), PriceHistory.DEFAULT_WINDOW_BYTES));
+    }
+
+    @Test
+    void testBuyAndHoldWhenThresholdIsNeverReached() throws Exception {
+        List<String> lines = new ArrayList<>(List.of("date,AAPL,BND"));
+        lines.add("2024-01-01,100,100");
+        lines.add("2024-01-02,110,100");
+        lines.add("2024-01-03,121,100");
+        try (PriceHistory history = convert(lines, PriceHistory.DEFAULT_WINDOW_BYTES)) {
+            BacktestResult result = new Backtester().run(history, BacktestConfig.builder()
+                    .portfolio(portfolio)
+                    .strategy(new ThresholdRebalancingStrategy())
+                    .threshold(1.0)
+                    .build());
+
+            assertEquals(3, result.getBars());
+            assertEquals(10_000.0, result.getStartValue(), 1e-9);
+            assertEquals(50 * 121 + 50 * 100, result.getEndValue(), 1e-9);
+            assertEquals(0, result.getTradeCount());
+            assertEquals(0.0, result.getMaxDrawdown());
+            assertTrue(result.getTrackingError() > 0);
+            // the source portfolio is not modified
+            assertEquals(100.0, portfolio.getAsset("AAPL").getCurrentPrice());
+        }
+    }
+
+    @Test
+    void testZeroPriceKeepsTrackingErrorFinite() throws Exception {
+        List<String> lines = new ArrayList<>(List.of("date,AAPL,BND"));
+        lines.add("2024-01-01,100,100");
+        lines.add("2024-01-02,0,100");
+        lines.add("2024-01-03,50,101");
+        lines.add("2024-01-04,55,102");
+        try (PriceHistory history = convert(lines, PriceHistory.DEFAULT_WINDOW_BYTES)) {
+            BacktestResult result = new Backtester().run(history, BacktestConfig.builder()
+                    .portfolio(portfolio)
+                    .strategy(new ThresholdRebalancingStrategy())
+                    .threshold(1.0)
+                    .build());
+
+            assertEquals(4, result.getBars());
+            assertTrue(Double.isFinite(result.getTrackingError()));
+            assertTrue(result.getTrackingError() > 0);
+        }
+    }
+
+    @Test
+    void testRebalancesAndChargesCosts() throws Exception {
+        List<String> lines = new ArrayList<>(List.of("date,AAPL,BND"));
+        double price = 100;
+        for (int day = 1; day <= 28; day++) {
+            price *= day % 2 == 0 ? 0.9 : 1.15;
+            lines.add(String.format(Locale.ROOT, "2024-02-%02d,%.4f,100", day, price));
+        }
+        try (PriceHistory history = convert(lines, 64)) {
+            BacktestResult result = new Backtester().run(history, BacktestConfig.builder()
+                    .portfolio(portfolio)
+                    .strategy(new ThresholdRebalancingStrategy())
+                    .threshold(0.02)
+                    .costModel(CostModel.builder().commissionPerTrade(1.0).costRate(0.001).build())
+                    .build());
+
+            assertTrue(result.getRebalanceCount() > 0);
+            assertTrue(result.getTurnover() > 0);
+            assertTrue(result.getTotalCost() >= result.getTradeCount());
+            assertTrue(result.getMaxDrawdown() > 0);
+        }
+    }
+
+    @Test
+    void testRejectsPortfolioSymbolsMissingFromHistory() throws Exception {
+        try (PriceHistory history = convert(List.of("date,AAPL", "2024-01-02,100"), PriceHistory.DEFAULT_WINDOW_BYTES)) {
+            assertThrows(IllegalArgumentException.class, () -> new Backtester().run(history, BacktestConfig.builder()
+                    .portfolio(portfolio)
+                    .strategy(new ThresholdRebalancingStrategy())
+                    .build()));
+        }
+    }
+}
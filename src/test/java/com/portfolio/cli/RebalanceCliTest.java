@@ -0,0 +1,109 @@
+package com.portfolio.cli;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.persistence.SnapshotWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+class RebalanceCliTest {
+    @TempDir
+    Path tempDir;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+    }
+
+    private String run(InputStream stdin, String... args) {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        int exitCode = new RebalanceCli().run(args, stdin, stdout, new PrintStream(stderr, true));
+        assertEquals(RebalanceCli.EXIT_OK, exitCode, stderr.toString(StandardCharsets.UTF_8));
+        return stdout.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testReadsJsonFromStdinAndWritesCsv() throws Exception {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new JsonPortfolioExporter().write(json, List.of(portfolio));
+
+        String output = run(new ByteArrayInputStream(json.toByteArray()), "--threshold", "0.1");
+
+        assertEquals("portfolio,symbol,action,amount\nTest Portfolio,AAPL,BUY,900.00\n", output);
+    }
+
+    @Test
+    void testReadsSnapshotAndWritesJsonLines() throws Exception {
+        Path file = tempDir.resolve("book.snap");
+        new SnapshotWriter().write(file, List.of(portfolio));
+
+        String output = run(InputStream.nullInputStream(), "--strategy", "equal-weight", "--threshold", "0.01",
+                "--format", "json", file.toString());
+
+        assertEquals("{\"portfolio\":\"Test Portfolio\",\"symbol\":\"AAPL\",\"action\":\"BUY\",\"amount\":500.00}\n"
+                + "{\"portfolio\":\"Test Portfolio\",\"symbol\":\"MSFT\",\"action\":\"BUY\",\"amount\":500.00}\n", output);
+    }
+
+    @Test
+    void testOmitsTradesThatRoundToZero() throws Exception {
+        portfolio.setCashBalance(0.0);
+        portfolio.updatePrice("MSFT", 300.0002);
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new JsonPortfolioExporter().write(json, List.of(portfolio));
+
+        String output = run(new ByteArrayInputStream(json.toByteArray()), "--strategy", "equal-weight",
+                "--threshold", "0");
+
+        assertEquals("portfolio,symbol,action,amount\n", output);
+    }
+
+    @Test
+    void testReportsMissingOptionValue() {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        int exitCode = new RebalanceCli().run(new String[]{"--threshold"}, InputStream.nullInputStream(),
+                new ByteArrayOutputStream(), new PrintStream(stderr, true));
+        assertEquals(RebalanceCli.EXIT_USAGE, exitCode);
+        assertTrue(stderr.toString(StandardCharsets.UTF_8).startsWith("Missing option value for --threshold"));
+    }
+
+    @Test
+    void testRejectsUnknownStrategy() {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        int exitCode = new RebalanceCli().run(new String[]{"--strategy", "magic"}, InputStream.nullInputStream(),
+                new ByteArrayOutputStream(), new PrintStream(stderr, true));
+        assertEquals(RebalanceCli.EXIT_USAGE, exitCode);
+    }
+}
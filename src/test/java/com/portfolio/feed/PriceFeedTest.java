@@ -0,0 +1,167 @@
+package com.portfolio.feed;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class PriceFeedTest {
+    private Portfolio portfolio;
+    private HoldingsIndex holdings;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(100.0)
+                .targetAllocation(0.5)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(10)
+                .currentPrice(100.0)
+                .targetAllocation(0.5)
+                .type(AssetType.STOCK)
+                .build());
+        holdings = new HoldingsIndex();
+        holdings.register(portfolio);
+    }
+
+    @Test
+    void testParsesCsvAndJsonLines() {
+        TickParser parser = new TickParser();
+        assertNull(parser.parse("symbol,price,timestamp"));
+        assertNull(parser.parse("   "));
+        assertEquals(new PriceTick("AAPL", 150.5, 1000L), parser.parse("AAPL,150.5,1000"));
+        assertEquals(new PriceTick("MSFT", 300.0, 2000L),
+                parser.parse("{\"symbol\":\"MSFT\",\"price\":300.0,\"timestamp\":2000}"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("AAPL,abc"));
+    }
+
+    @Test
+    void testEmitsEventWhenDriftFlips() throws Exception {
+        List<Boolean> events = new ArrayList<>();
+        String ticks = "symbol,price,timestamp\n"
+                + "AAPL,150,1\n"
+                + "not-a-tick\n"
+                + "AAPL,300,2\n"
+                + "{\"symbol\":\"GOOG\",\"price\":10,\"timestamp\":3}\n";
+
+        PriceFeed feed = new PriceFeed(holdings, 0.2, 4, 16).start();
+        feed.addListener((changed, needsRebalancing) -> {
+            assertSame(portfolio, changed);
+            events.add(needsRebalancing);
+        });
+        feed.ingest(new ByteArrayInputStream(ticks.getBytes(StandardCharsets.UTF_8)));
+        feed.close();
+
+        assertEquals(300.0, portfolio.getAsset("AAPL").getCurrentPrice(), 0.001);
+        assertEquals(4000.0, portfolio.getTotalValue(), 0.001);
+        assertEquals(List.of(true), events);
+        assertEquals(3, feed.getTicksReceived());
+        assertEquals(1, feed.getTicksRejected());
+    }
+
+    @Test
+    void testBackpressureWithSmallQueueDeliversAllTicks() throws Exception {
+        PriceFeed feed = new PriceFeed(holdings, 0.2, 8, 8).start();
+        for (int i = 0; i < 10_000; i++) {
+            feed.publish(new PriceTick(i % 2 == 0 ? "AAPL" : "MSFT", 100 + (i % 50), i));
+        }
+        feed.close();
+
+        assertEquals(10_000, feed.getTicksReceived());
+        assertEquals(149.0, portfolio.getAsset("MSFT").getCurrentPrice(), 0.001);
+        assertEquals(148.0, portfolio.getAsset("AAPL").getCurrentPrice(), 0.001);
+        portfolio.updateTotalValue();
+        assertEquals(2970.0, portfolio.getTotalValue(), 0.001);
+    }
+
+    @Test
+    void testRejectsNonPositiveAndNonFinitePrices() throws Exception {
+        TickParser parser = new TickParser();
+        for (String line : List.of("AAPL,0", "AAPL,-5", "AAPL,NaN", "AAPL,Infinity",
+                "{\"symbol\":\"AAPL\",\"price\":-1}", "{\"symbol\":\"AAPL\",\"price\":0}")) {
+            assertThrows(IllegalArgumentException.class, () -> parser.parse(line), line);
+        }
+
+        PriceFeed feed = new PriceFeed(holdings, 0.2).start();
+        feed.ingest(new ByteArrayInputStream("AAPL,0\nAAPL,-1\nAAPL,120\n".getBytes(StandardCharsets.UTF_8)));
+        feed.publish(new PriceTick("MSFT", Double.NaN, 1));
+        feed.close();
+
+        assertEquals(120.0, portfolio.getAsset("AAPL").getCurrentPrice(), 0.001);
+        assertEquals(100.0, portfolio.getAsset("MSFT").getCurrentPrice(), 0.001);
+        assertEquals(3, feed.getTicksRejected());
+    }
+
+    @Test
+    void testIndexFollowsHoldingsChangedAfterRegistration() {
+        portfolio.addAsset(Asset.builder().symbol("GOOG").quantity(1).currentPrice(10.0).build());
+        portfolio.removeAsset("AAPL");
+
+        assertArrayEquals(new Portfolio[]{portfolio}, holdings.holdersOf("GOOG"));
+        assertEquals(0, holdings.holdersOf("AAPL").length);
+
+        holdings.unregister(portfolio);
+        portfolio.addAsset(Asset.builder().symbol("AMZN").quantity(1).currentPrice(10.0).build());
+
+        assertEquals(0, holdings.symbolCount());
+        assertEquals(0, holdings.holdersOf("AMZN").length);
+    }
+
+    @Test
+    void testDriftStateIsDroppedOnUnregister() throws Exception {
+        PriceFeed feed = new PriceFeed(holdings, 0.2).start();
+        feed.publish(new PriceTick("AAPL", 150, 1));
+        holdings.unregister(portfolio);
+        feed.publish(new PriceTick("AAPL", 160, 2));
+        feed.close();
+
+        assertEquals(0, feed.getTrackedPortfolioCount());
+    }
+
+    @Test
+    void testExecutesTasksOnTheDispatcherBetweenBatches() throws Exception {
+        PriceFeed feed = new PriceFeed(holdings, 0.2).start();
+        feed.publish(new PriceTick("AAPL", 150, 1));
+        CompletableFuture<Double> price = CompletableFuture.supplyAsync(
+                () -> portfolio.getAsset("AAPL").getCurrentPrice(), feed);
+        assertEquals(150.0, price.get(5, TimeUnit.SECONDS));
+        feed.close();
+
+        assertThrows(RejectedExecutionException.class, () -> feed.execute(() -> { }));
+        assertThrows(RejectedExecutionException.class, () -> new PriceFeed(holdings, 0.2).execute(() -> { }));
+    }
+
+    @Test
+    void testListenerFailuresAreCounted() throws Exception {
+        List<Boolean> events = new ArrayList<>();
+        PriceFeed feed = new PriceFeed(holdings, 0.2).start();
+        feed.addListener((changed, needsRebalancing) -> {
+            throw new IllegalStateException("boom");
+        });
+        feed.addListener((changed, needsRebalancing) -> events.add(needsRebalancing));
+        feed.publish(new PriceTick("AAPL", 300, 1));
+        feed.close();
+
+        assertEquals(List.of(true), events);
+        assertEquals(1, feed.getListenerErrors());
+    }
+}
@@ -0,0 +1,162 @@
+package com.portfolio.household;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.TradeList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+class HouseholdTest {
+    private Portfolio taxable;
+    private Portfolio ira;
+    private Household household;
+
+    private static Asset asset(String symbol, AssetType type, double quantity, double target) {
+        return Asset.builder()
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(quantity)
+                .currentPrice(100.0)
+                .targetAllocation(target)
+                .type(type)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        taxable = new Portfolio();
+        taxable.setName("Taxable");
+        taxable.setCashBalance(1000.0);
+        taxable.addAsset(asset("AAPL", AssetType.STOCK, 100, 0.5));
+        taxable.addAsset(asset("BND", AssetType.BOND, 50, 0.5));
+
+        ira = new Portfolio();
+        ira.setName("IRA");
+        ira.setCashBalance(4000.0);
+        ira.addAsset(asset("BND", AssetType.BOND, 20, 0.8));
+        ira.addAsset(asset("AAPL", AssetType.STOCK, 30, 0.2));
+
+        household = new Household("Smith");
+        household.addAccount(taxable, AccountType.TAXABLE);
+        household.addAccount(ira, AccountType.TAX_DEFERRED);
+    }
+
+    private static void assertSameExposure(Household expected, Household actual) {
+        assertEquals(expected.getTotalValue(), actual.getTotalValue(), 1e-6);
+        assertEquals(expected.getCashBalance(), actual.getCashBalance(), 1e-6);
+        for (int id = 0; id < expected.getSymbolCount(); id++) {
+            String symbol = expected.symbol(id);
+            assertEquals(expected.value(id), actual.value(symbol), 1e-6, symbol);
+        }
+    }
+
+    private Household rebuild() {
+        Household fresh = new Household("Fresh");
+        fresh.addAccount(taxable, AccountType.TAXABLE);
+        fresh.addAccount(ira, AccountType.TAX_DEFERRED);
+        return fresh;
+    }
+
+    @Test
+    void testMergesAccountsBySymbol() {
+        assertEquals(25_000.0, household.getTotalValue(), 1e-9);
+        assertEquals(5000.0, household.getCashBalance(), 1e-9);
+        assertEquals(13_000.0, household.value("AAPL"), 1e-9);
+        assertEquals(7000.0, household.value("BND"), 1e-9);
+        assertEquals(2, household.getSymbolCount());
+
+        // value-weighted account targets: (0.5 * 16000 + 0.2 * 9000) / 25000
+        int apple = household.getSymbolIndex().find("AAPL");
+        assertEquals(0.392, household.target(apple), 1e-9);
+        household.setTarget("AAPL", 0.4);
+        assertEquals(0.4, household.target(apple));
+    }
+
+    @Test
+    void testTracksAccountChangesIncrementally() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 1000; i++) {
+            Portfolio account = random.nextBoolean() ? taxable : ira;
+            String symbol = random.nextBoolean() ? "AAPL" : "BND";
+            if (random.nextBoolean()) {
+                account.updatePrice(symbol, random.nextDouble(50, 150));
+            } else {
+                account.updateQuantity(symbol, random.nextInt(100));
+            }
+        }
+        ira.setCashBalance(123.0);
+        taxable.addAsset(asset("GLD", AssetType.COMMODITY, 10, 0.0));
+        ira.removeAsset("AAPL");
+
+        assertSameExposure(rebuild(), household);
+        assertEquals(1000.0, household.value("GLD"), 1e-9);
+    }
+
+    @Test
+    void testRefreshPicksUpDirectAssetChanges() {
+        taxable.getAsset("AAPL").setQuantity(200);
+        assertEquals(13_000.0, household.value("AAPL"), 1e-9);
+
+        household.refresh(taxable);
+        assertEquals(23_000.0, household.value("AAPL"), 1e-9);
+        assertSameExposure(rebuild(), household);
+    }
+
+    @Test
+    void testRemoveAccountStopsTracking() {
+        household.removeAccount(ira);
+        assertEquals(16_000.0, household.getTotalValue(), 1e-9);
+        assertEquals(1, household.getAccounts().size());
+
+        ira.updatePrice("BND", 200.0);
+        assertEquals(5000.0, household.value("BND"), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> household.addAccount(taxable, AccountType.TAXABLE));
+    }
+
+    @Test
+    void testAllocatesTradesByAssetLocation() {
+        household.setTarget("AAPL", 0.4);
+        household.setTarget("BND", 0.6);
+
+        HouseholdTrades trades = new HouseholdRebalancingStrategy().calculateRebalancingTrades(household, 0.05);
+
+        // AAPL 13000 -> 10000: sold in the IRA first, its least preferred location
+        TradeList iraTrades = trades.forAccount(household.getAccount(ira));
+        assertEquals("AAPL", iraTrades.symbol(0));
+        assertEquals(-3000.0, iraTrades.amount(0), 1e-9);
+        // BND 7000 -> 15000: IRA cash plus sale proceeds first, the rest in taxable
+        assertEquals("BND", iraTrades.symbol(1));
+        assertEquals(7000.0, iraTrades.amount(1), 1e-9);
+        assertEquals(70.0, iraTrades.shares(1), 1e-9);
+        TradeList taxableTrades = trades.forAccount(household.getAccount(taxable));
+        assertEquals(1, taxableTrades.size());
+        assertEquals(1000.0, taxableTrades.amount(0), 1e-9);
+        assertEquals(0.0, trades.getUnallocated(), 1e-9);
+        assertEquals(3, trades.size());
+    }
+
+    @Test
+    void testReportsBuysWithoutCashAsUnallocated() {
+        taxable.setCashBalance(0.0);
+        ira.setCashBalance(0.0);
+        household.setTarget("AAPL", 0.9);
+        household.setTarget("BND", 0.1);
+
+        HouseholdTrades trades = new HouseholdRebalancingStrategy().calculateRebalancingTrades(household, 0.05);
+
+        // BND 7000 -> 2000 is sold, AAPL 13000 -> 18000 can only use those proceeds
+        assertEquals(5000.0, trades.forAccount(0).totalSold() + trades.forAccount(1).totalSold(), 1e-9);
+        assertEquals(5000.0, trades.forAccount(0).totalBought() + trades.forAccount(1).totalBought(), 1e-9);
+        assertEquals(0.0, trades.getUnallocated(), 1e-9);
+
+        // with BND inside its band there are no proceeds to spend
+        household.setTarget("BND", 0.33);
+        trades = new HouseholdRebalancingStrategy().calculateRebalancingTrades(household, 0.05, trades);
+        assertTrue(trades.isEmpty());
+        assertEquals(5000.0, trades.getUnallocated(), 1e-9);
+    }
+}
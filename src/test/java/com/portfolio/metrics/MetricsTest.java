@@ -0,0 +1,103 @@
+package com.portfolio.metrics;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.service.PortfolioRebalancer;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        Metrics.reset();
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.setMode(Metrics.Mode.OFF);
+        Metrics.reset();
+    }
+
+    @Test
+    void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 10);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_000, snapshot.getPercentileNanos(50), 500_000 * 0.04);
+        assertEquals(990_000, snapshot.getPercentileNanos(99), 990_000 * 0.04);
+        assertEquals(1_000_000, snapshot.getPercentileNanos(100));
+    }
+
+    @Test
+    void testBucketBoundariesAreContiguous() {
+        for (int index = 1; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            long lowest = LatencyHistogram.highestEquivalentValue(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.bucketIndex(lowest));
+            assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.highestEquivalentValue(index)));
+        }
+    }
+
+    @Test
+    void testRecordsNothingWhenDisabled() {
+        Metrics.setMode(Metrics.Mode.OFF);
+
+        portfolio.updateTotalValue();
+        portfolio.updatePrice("AAPL", 160.0);
+
+        assertEquals(0, Metrics.timer("updateTotalValue").snapshot().getCount());
+        assertEquals(0, Metrics.counter("price_updates").getValue());
+    }
+
+    @Test
+    void testTimesValuationAndStrategyCalls() {
+        Metrics.setMode(Metrics.Mode.ON);
+        ThresholdRebalancingStrategy strategy = new ThresholdRebalancingStrategy();
+
+        portfolio.updateTotalValue();
+        portfolio.getDeviationFromTarget();
+        new PortfolioRebalancer(strategy, 0.1, null).rebalance(portfolio);
+
+        assertEquals(1, Metrics.timer("updateTotalValue").snapshot().getCount());
+        assertEquals(1, Metrics.timer("getDeviationFromTarget").snapshot().getCount());
+        assertEquals(1, Metrics.timer("calculateRebalancingTrades", strategy.getStrategyName()).snapshot().getCount());
+        assertEquals(1, Metrics.counter("trades").getValue());
+
+        String text = MetricsExporter.prometheus();
+        assertTrue(text.contains("# TYPE portfolio_operation_seconds summary"));
+        assertTrue(text.contains("portfolio_operation_seconds_count{operation=\"updateTotalValue\"} 1"));
+        assertTrue(text.contains("portfolio_operation_seconds{operation=\"calculateRebalancingTrades\",strategy=\""
+                + strategy.getStrategyName() + "\",quantile=\"0.99\"}"));
+        assertTrue(text.contains("portfolio_trades_total 1"));
+        assertTrue(MetricsExporter.logLine().contains("updateTotalValue n=1"));
+    }
+}
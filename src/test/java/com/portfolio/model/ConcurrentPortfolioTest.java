@@ -0,0 +1,125 @@
+package com.portfolio.model;
+
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class ConcurrentPortfolioTest {
+    private ConcurrentPortfolio portfolio;
+
+    private static Asset asset(String symbol, double quantity, double price, double target) {
+        return Asset.builder()
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(quantity)
+                .currentPrice(price)
+                .targetAllocation(target)
+                .type(AssetType.STOCK)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Portfolio source = new Portfolio();
+        source.setName("Test Portfolio");
+        source.setCashBalance(1000.0);
+        source.addAsset(asset("AAPL", 10, 150.0, 0.6));
+        source.addAsset(asset("MSFT", 5, 300.0, 0.4));
+        portfolio = ConcurrentPortfolio.of(source);
+    }
+
+    @Test
+    void testSnapshotsAreImmutable() {
+        PortfolioSnapshot before = portfolio.snapshot();
+        assertEquals(4000.0, before.getTotalValue(), 1e-9);
+
+        portfolio.updatePrice("AAPL", 200.0);
+        portfolio.updateQuantity("MSFT", 10);
+        portfolio.addAsset(asset("BND", 20, 50.0, 0.0));
+        portfolio.removeAsset("AAPL");
+
+        assertEquals(150.0, before.price(before.indexOf("AAPL")));
+        assertEquals(4000.0, before.getTotalValue(), 1e-9);
+        assertEquals(2, before.size());
+
+        PortfolioSnapshot after = portfolio.snapshot();
+        assertEquals(List.of("MSFT", "BND"), after.getSymbols());
+        assertEquals(-1, after.indexOf("AAPL"));
+        assertEquals(1000.0 + 3000.0 + 1000.0, after.getTotalValue(), 1e-9);
+        assertEquals(before.getVersion() + 4, after.getVersion());
+    }
+
+    @Test
+    void testBatchPublishesOnceAndRollsBackOnError() {
+        long version = portfolio.getVersion();
+        portfolio.update(batch -> {
+            batch.setPrice("AAPL", 160.0);
+            batch.setPrice("MSFT", 310.0);
+            batch.setCashBalance(0.0);
+        });
+        assertEquals(version + 1, portfolio.getVersion());
+        assertEquals(1600.0 + 1550.0, portfolio.getTotalValue(), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> portfolio.update(batch -> {
+            batch.setPrice("AAPL", 1.0);
+            batch.setPrice("GOOG", 1.0);
+        }));
+        assertEquals(version + 1, portfolio.getVersion());
+        assertEquals(160.0, portfolio.snapshot().price(0));
+        assertThrows(IllegalArgumentException.class, () -> portfolio.addAsset(asset("MSFT", 1, 1, 0)));
+    }
+
+    @Test
+    void testDetachedPortfolioFeedsStrategies() {
+        Map<String, Double> trades = new ThresholdRebalancingStrategy()
+                .calculateRebalancingTrades(portfolio.snapshot().toPortfolio(), 0.1);
+        assertEquals(900.0, trades.get("AAPL"), 0.001);
+    }
+
+    @Test
+    void testReadersNeverSeeHalfAppliedUpdates() throws Exception {
+        // every batch keeps AAPL and MSFT at the same value, so a consistent
+        // snapshot always has equal values and a total matching its holdings
+        portfolio.update(batch -> {
+            batch.setQuantity("MSFT", 10);
+            batch.setPrice("MSFT", 150.0);
+        });
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            Thread reader = new Thread(() -> {
+                while (running.get() && failure.get() == null) {
+                    PortfolioSnapshot snapshot = portfolio.snapshot();
+                    double expected = snapshot.getCashBalance() + snapshot.value(0) + snapshot.value(1);
+                    if (snapshot.value(0) != snapshot.value(1) || snapshot.getTotalValue() != expected) {
+                        failure.set("Inconsistent snapshot at version " + snapshot.getVersion());
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 20_000; i++) {
+            double price = random.nextInt(1, 1000);
+            portfolio.update(batch -> {
+                batch.setPrice("AAPL", price);
+                batch.setPrice("MSFT", price);
+            });
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.portfolio.model;
+
+import com.portfolio.strategy.EqualWeightStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+class MoneyTest {
+
+    private static Portfolio createBook(int assetCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("Book");
+        portfolio.setCashBalance(1234.56);
+        for (int i = 0; i < assetCount; i++) {
+            portfolio.addAsset(Asset.builder()
+                    .symbol("SYM" + i)
+                    .name("Asset " + i)
+                    .quantity(random.nextInt(1, 10_000) + random.nextInt(1000) / 1000.0)
+                    .currentPrice(random.nextInt(100, 100_000) / 100.0)
+                    .targetAllocation(1.0 / 8)
+                    .type(AssetType.STOCK)
+                    .build());
+        }
+        return portfolio;
+    }
+
+    @Test
+    void testMultiplyMatchesBigDecimalRounding() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 100_000; i++) {
+            long a = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            long b = random.nextLong(-1_000_000_000L, 1_000_000_000L);
+            BigDecimal expected = Money.toBigDecimal(a).multiply(Money.toBigDecimal(b)).setScale(6, RoundingMode.HALF_UP);
+            assertEquals(expected, Money.toBigDecimal(Money.multiply(a, b)), a + " x " + b);
+        }
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("1234.50", Money.format(1_234_500_000L));
+        assertEquals("-0.125", Money.format(-125_000L));
+        assertEquals("0.00", Money.format(0));
+        assertEquals(150_250_000L, Money.toMicros(150.25));
+    }
+
+    @Test
+    void testTotalValueIsExact() {
+        Portfolio portfolio = createBook(10_000, 7);
+
+        BigDecimal expected = Money.toBigDecimal(portfolio.getCashBalanceMicros());
+        for (Asset asset : portfolio.getAssets()) {
+            expected = expected.add(Money.toBigDecimal(asset.getQuantityMicros())
+                    .multiply(Money.toBigDecimal(asset.getPriceMicros())));
+        }
+
+        assertEquals(0, expected.compareTo(Money.toBigDecimal(portfolio.getTotalValueMicros())));
+    }
+
+    @Test
+    void testThresholdMicrosTradesMatchDoublePathWithinACent() {
+        Portfolio portfolio = createBook(8, 3);
+        ThresholdRebalancingStrategy strategy = new ThresholdRebalancingStrategy();
+        long[] trades = new long[8];
+
+        strategy.calculateRebalancingTradeMicros(portfolio, 0.01, trades);
+        Map<String, Double> doubles = strategy.calculateRebalancingTrades(portfolio, 0.01);
+
+        for (int i = 0; i < trades.length; i++) {
+            Double expected = doubles.get("SYM" + i);
+            if (expected == null) {
+                assertEquals(0, trades[i]);
+            } else {
+                assertEquals(expected, Money.toDouble(trades[i]), 0.01);
+            }
+        }
+    }
+
+    @Test
+    void testEqualWeightMicrosTargetsAddUpExactly() {
+        Portfolio portfolio = createBook(7, 11);
+        long[] trades = new long[7];
+
+        new EqualWeightStrategy().calculateRebalancingTradeMicros(portfolio, 0.0, trades);
+
+        // every asset traded to its share, so trades consume exactly the cash balance
+        long sum = 0;
+        for (long trade : trades) {
+            sum += trade;
+        }
+        assertEquals(portfolio.getCashBalanceMicros(), sum);
+    }
+}
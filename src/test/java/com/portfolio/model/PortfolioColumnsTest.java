@@ -0,0 +1,95 @@
+package com.portfolio.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+class PortfolioColumnsTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+    }
+
+    @Test
+    void testColumnsMatchPortfolioMath() {
+        PortfolioColumns columns = PortfolioColumns.of(portfolio);
+        Map<String, Double> deviations = portfolio.getDeviationFromTarget();
+
+        assertEquals(2, columns.size());
+        assertEquals(portfolio.getTotalValue(), columns.getTotalValue(), 0.001);
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(deviations.get(columns.symbol(i)), columns.deviation(i), 0.0001);
+        }
+        assertEquals(portfolio.getTotalDeviation(), columns.totalDeviation(), 0.0001);
+    }
+
+    @Test
+    void testReloadReusesBuffersAndInternsSymbols() {
+        SymbolIndex index = new SymbolIndex();
+        PortfolioColumns columns = new PortfolioColumns(index).load(portfolio);
+        int appleId = columns.symbolId(0);
+
+        portfolio.removeAsset("MSFT");
+        columns.load(portfolio);
+
+        assertEquals(1, columns.size());
+        assertEquals(appleId, columns.symbolId(0));
+        assertEquals("MSFT", index.symbol(index.find("MSFT")));
+        assertEquals(-1, index.find("GOOG"));
+    }
+
+    @Test
+    void testGlobalIdsFollowTheirSlots() {
+        SymbolIndex global = SymbolIndex.global();
+        PortfolioColumns columns = PortfolioColumns.of(portfolio);
+        assertEquals(global.find("AAPL"), columns.symbolId(0));
+        assertEquals(global.find("MSFT"), columns.symbolId(1));
+
+        // removing AAPL moves MSFT into slot 0, with its id
+        portfolio.removeAsset("AAPL");
+        portfolio.addAsset(Asset.builder().symbol("GOOG").quantity(1).currentPrice(100.0).build());
+        columns.load(portfolio);
+        assertEquals(global.find("MSFT"), columns.symbolId(0));
+        assertEquals(global.idOf("GOOG"), columns.symbolId(1));
+
+        columns.load(portfolio.copy());
+        assertEquals(global.find("MSFT"), columns.symbolId(0));
+        assertEquals(global.find("GOOG"), columns.symbolId(1));
+    }
+
+    @Test
+    void testClearDropsLoadedReferences() {
+        PortfolioColumns columns = PortfolioColumns.of(portfolio);
+        columns.clear();
+
+        assertEquals(0, columns.size());
+        assertEquals(0.0, columns.getTotalValue());
+        // the backing arrays stay but no longer point at the portfolio's data
+        assertNull(columns.symbol(0));
+        assertNull(columns.name(1));
+        columns.load(portfolio);
+        assertEquals("AAPL", columns.symbol(0));
+    }
+}
@@ -4,7 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 class PortfolioTest {
     private Portfolio portfolio;
@@ -88,4 +92,187 @@ class PortfolioTest {
         assertTrue(portfolio.needsRebalancing(0.2));
         assertFalse(portfolio.needsRebalancing(0.3));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testUpdatePriceAdjustsTotalValueAndDrift() {
+        portfolio.addAsset(appleStock);
+        portfolio.addAsset(microsoftStock);
+
+        portfolio.updatePrice("AAPL", 300.0);
+
+        assertEquals(300.0, appleStock.getCurrentPrice(), 0.001);
+        assertEquals(5500.0, portfolio.getTotalValue(), 0.001);
+        // AAPL 3000/5500 vs 0.6, MSFT 1500/5500 vs 0.4
+        assertEquals(0.1818, portfolio.getTotalDeviation(), 0.001);
+        assertTrue(portfolio.needsRebalancing(0.15));
+        assertFalse(portfolio.needsRebalancing(0.2));
+    }
+
+    @Test
+    void testNeedsRebalancingMatchesFullRecomputeAcrossTicks() {
+        portfolio.addAsset(appleStock);
+        portfolio.addAsset(microsoftStock);
+        portfolio.setDriftCorrectionInterval(7);
+
+        Random random = new Random(42);
+        for (int tick = 0; tick < 500; tick++) {
+            String symbol = random.nextBoolean() ? "AAPL" : "MSFT";
+            portfolio.updatePrice(symbol, 50 + random.nextDouble() * 400);
+            double threshold = random.nextDouble() * 0.6;
+            assertEquals(portfolio.getTotalDeviation() > threshold, portfolio.needsRebalancing(threshold),
+                    "tick " + tick);
+        }
+    }
+
+    @Test
+    void testUpdatePriceRejectsUnknownSymbol() {
+        portfolio.addAsset(appleStock);
+        assertThrows(IllegalArgumentException.class, () -> portfolio.updatePrice("GOOG", 10.0));
+    }
+
+    private static Asset stock(String symbol, double quantity) {
+        return Asset.builder()
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(quantity)
+                .currentPrice(10.0)
+                .targetAllocation(0.0)
+                .type(AssetType.STOCK)
+                .build();
+    }
+
+    @Test
+    void testRejectsDuplicateSymbols() {
+        portfolio.addAsset(appleStock);
+        assertThrows(IllegalArgumentException.class, () -> portfolio.addAsset(stock("AAPL", 1)));
+        assertThrows(IllegalArgumentException.class, () -> portfolio.addAll(List.of(stock("GOOG", 1), stock("GOOG", 2))));
+        assertThrows(IllegalArgumentException.class, () -> portfolio.setAssets(List.of(stock("X", 1), stock("X", 1))));
+        assertEquals(1, portfolio.getAssets().size());
+        assertNull(portfolio.getAsset("GOOG"));
+        assertThrows(UnsupportedOperationException.class, () -> portfolio.getAssets().add(microsoftStock));
+    }
+
+    @Test
+    void testRemoveMovesLastAssetIntoFreedSlot() {
+        portfolio.addAll(List.of(appleStock, microsoftStock, stock("GOOG", 10)));
+        portfolio.removeAsset("AAPL");
+        portfolio.removeAsset("UNKNOWN");
+
+        assertEquals(List.of("GOOG", "MSFT"),
+                portfolio.getAssets().stream().map(Asset::getSymbol).collect(Collectors.toList()));
+        assertSame(microsoftStock, portfolio.getAsset("MSFT"));
+        assertEquals(1000.0 + 1500.0 + 100.0, portfolio.getTotalValue(), 0.001);
+        portfolio.updatePrice("GOOG", 20.0);
+        assertEquals(2700.0, portfolio.getTotalValue(), 0.001);
+    }
+
+    @Test
+    void testBulkOperationsMatchSingleUpdates() {
+        List<Asset> book = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            book.add(stock("SYM" + i, i));
+        }
+        portfolio.addAll(book);
+        assertEquals(1000.0 + 10.0 * 999 * 1000 / 2, portfolio.getTotalValue(), 1e-6);
+
+        List<String> removed = new ArrayList<>();
+        for (int i = 0; i < 1000; i += 2) {
+            removed.add("SYM" + i);
+        }
+        portfolio.removeAll(removed);
+        assertEquals(500, portfolio.getAssets().size());
+        for (Asset asset : portfolio.getAssets()) {
+            assertSame(asset, portfolio.getAsset(asset.getSymbol()));
+        }
+
+        Asset held = portfolio.getAsset("SYM1");
+        portfolio.applyAll(List.of(stock("SYM1", 50), stock("NEW", 5)));
+        assertSame(held, portfolio.getAsset("SYM1"));
+        assertEquals(50.0, held.getQuantity());
+        assertEquals(501, portfolio.getAssets().size());
+        double expected = portfolio.getCashBalance();
+        for (Asset asset : portfolio.getAssets()) {
+            expected += asset.getCurrentValue();
+        }
+        assertEquals(expected, portfolio.getTotalValue(), 1e-6);
+    }
+
+    @Test
+    void testEveryMutationNotifiesListeners() {
+        portfolio.addAsset(appleStock);
+        List<String> events = new ArrayList<>();
+        portfolio.addListener(new PortfolioListener() {
+            @Override
+            public void assetAdded(Portfolio p, Asset asset) {
+                events.add("add " + asset.getSymbol());
+            }
+
+            @Override
+            public void assetRemoved(Portfolio p, String symbol) {
+                events.add("remove " + symbol);
+            }
+
+            @Override
+            public void targetUpdated(Portfolio p, String symbol, double target) {
+                events.add("target " + symbol + " " + target);
+            }
+
+            @Override
+            public void assetReplaced(Portfolio p, Asset asset) {
+                events.add("replace " + asset.getSymbol() + " " + asset.getName());
+            }
+        });
+
+        Asset renamed = stock("AAPL", 20);
+        renamed.setName("Apple");
+        portfolio.applyAll(List.of(renamed));
+        portfolio.updateTarget("AAPL", 0.5);
+        portfolio.setAssets(List.of(microsoftStock));
+
+        assertEquals(List.of("replace AAPL Apple", "target AAPL 0.5", "remove AAPL", "add MSFT"), events);
+    }
+
+    @Test
+    void testUpdateTargetKeepsDriftExact() {
+        portfolio.addAll(List.of(appleStock, microsoftStock));
+        assertTrue(portfolio.needsRebalancing(0.05));
+        long version = portfolio.getVersion();
+
+        // both holdings are 1500 of 4000
+        portfolio.updateTarget("AAPL", 0.375);
+        portfolio.updateTarget("MSFT", 0.375);
+        assertTrue(portfolio.getVersion() > version);
+        assertEquals(0.375, appleStock.getTargetAllocation());
+        assertFalse(portfolio.needsRebalancing(0.01));
+
+        portfolio.updateTarget("AAPL", 0.2);
+        assertTrue(portfolio.needsRebalancing(0.1));
+        assertFalse(portfolio.needsRebalancing(0.2));
+        assertThrows(IllegalArgumentException.class, () -> portfolio.updateTarget("GOOG", 0.1));
+    }
+
+    @Test
+    void testCopyIsDetached() {
+        portfolio.addAsset(appleStock);
+        portfolio.addAsset(microsoftStock);
+        List<String> events = new ArrayList<>();
+        portfolio.addListener(new PortfolioListener() {
+            @Override
+            public void priceUpdated(Portfolio changed, String symbol, double price) {
+                events.add(symbol);
+            }
+        });
+
+        Portfolio copy = portfolio.copy();
+        assertEquals(portfolio.getVersion(), copy.getVersion());
+        copy.updatePrice("AAPL", 200.0);
+
+        assertEquals(portfolio.getId(), copy.getId());
+        assertEquals(150.0, portfolio.getAsset("AAPL").getCurrentPrice());
+        assertEquals(List.of(), events);
+        portfolio.updatePrice("AAPL", 200.0);
+        portfolio.updateTotalValue();
+        assertEquals(portfolio, copy);
+        assertEquals(portfolio.needsRebalancing(0.05), copy.needsRebalancing(0.05));
+    }
+}
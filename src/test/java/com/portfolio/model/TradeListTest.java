@@ -0,0 +1,79 @@
+package com.portfolio.model;
+
+import com.portfolio.strategy.CostAwareRebalancingStrategy;
+import com.portfolio.strategy.EqualWeightStrategy;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+class TradeListTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(10)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+    }
+
+    @Test
+    void testRowsCarrySideSharesAndPrice() {
+        TradeList trades = new ThresholdRebalancingStrategy().calculateRebalancingTrades(portfolio, 0.05, new TradeList());
+
+        // total 5500: AAPL 1500 -> 3300, MSFT 3000 -> 2200
+        assertEquals(2, trades.size());
+        assertEquals("AAPL", trades.symbol(0));
+        assertEquals(TradeList.Side.BUY, trades.side(0));
+        assertEquals(1800.0, trades.amount(0), 1e-9);
+        assertEquals(12.0, trades.shares(0), 1e-9);
+        assertEquals(150.0, trades.price(0));
+        assertEquals(SymbolIndex.global().idOf("AAPL"), trades.symbolId(0));
+        assertEquals(TradeList.Side.SELL, trades.side(1));
+        assertEquals(-800.0 / 300.0, trades.shares(1), 1e-9);
+        assertEquals(1800.0, trades.totalBought(), 1e-9);
+        assertEquals(800.0, trades.totalSold(), 1e-9);
+    }
+
+    @Test
+    void testMatchesMapApi() {
+        RebalancingStrategy[] strategies = {
+                new ThresholdRebalancingStrategy(), new EqualWeightStrategy(), new CostAwareRebalancingStrategy()};
+        TradeList trades = new TradeList(1);
+        for (RebalancingStrategy strategy : strategies) {
+            Map<String, Double> expected = strategy.calculateRebalancingTrades(portfolio, 0.01);
+            assertEquals(expected, strategy.calculateRebalancingTrades(portfolio, 0.01, trades).toMap(),
+                    strategy.getStrategyName());
+        }
+    }
+
+    @Test
+    void testReuseClearsPreviousRows() {
+        ThresholdRebalancingStrategy strategy = new ThresholdRebalancingStrategy();
+        TradeList trades = strategy.calculateRebalancingTrades(portfolio, 0.05, new TradeList());
+        assertEquals(2, trades.size());
+
+        strategy.calculateRebalancingTrades(portfolio, 0.5, trades);
+        assertTrue(trades.isEmpty());
+        assertEquals(Map.of(), trades.toMap());
+    }
+}
@@ -0,0 +1,218 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class MutationJournalTest {
+    @TempDir
+    Path tempDir;
+
+    private Portfolio portfolio;
+    private Path snapshotFile;
+    private Path journalFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        portfolio = new Portfolio();
+        portfolio.setName("Taxable");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        snapshotFile = tempDir.resolve("book.snap");
+        journalFile = tempDir.resolve("book.journal");
+        new SnapshotWriter().write(snapshotFile, List.of(portfolio));
+    }
+
+    private void mutate(Portfolio target) {
+        target.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+        target.updatePrice("AAPL", 155.5);
+        target.updateQuantity("MSFT", 7);
+        target.setCashBalance(250.0);
+        target.removeAsset("AAPL");
+        target.updatePrice("MSFT", 310.0);
+    }
+
+    @Test
+    void testRecoveryReplaysJournalOnTopOfSnapshot() throws Exception {
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.GROUP_COMMIT)) {
+            journal.attach(portfolio);
+            mutate(portfolio);
+            journal.flush();
+            assertEquals(7, journal.getRecordsWritten()); // name record from attach + 6 mutations
+        }
+        portfolio.updateTotalValue();
+
+        List<Portfolio> recovered = Recovery.recover(snapshotFile, journalFile);
+
+        assertEquals(List.of(portfolio), recovered);
+        assertEquals(2420.0, recovered.get(0).getTotalValue(), 0.001);
+    }
+
+    @Test
+    void testTornTailIsIgnoredAndTruncatedOnReopen() throws Exception {
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.SYNC)) {
+            journal.attach(portfolio);
+            portfolio.updatePrice("AAPL", 200.0);
+            journal.detach(portfolio);
+        }
+        long validLength = Files.size(journalFile);
+        Files.write(journalFile, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertEquals(200.0, Recovery.recover(snapshotFile, journalFile).get(0).getAsset("AAPL").getCurrentPrice(), 0.001);
+
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.ASYNC)) {
+            assertEquals(validLength, Files.size(journalFile));
+            journal.attach(portfolio);
+            portfolio.updatePrice("AAPL", 210.0);
+        }
+        assertEquals(210.0, Recovery.recover(snapshotFile, journalFile).get(0).getAsset("AAPL").getCurrentPrice(), 0.001);
+    }
+
+    @Test
+    void testTruncateAfterSnapshot() throws Exception {
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.GROUP_COMMIT)) {
+            journal.attach(portfolio);
+            mutate(portfolio);
+            new SnapshotWriter().write(snapshotFile, List.of(portfolio));
+            journal.truncate();
+            assertEquals(0, Files.size(journalFile));
+            portfolio.updatePrice("MSFT", 320.0);
+        }
+
+        Portfolio recovered = Recovery.recover(snapshotFile, journalFile).get(0);
+        assertEquals(320.0, recovered.getAsset("MSFT").getCurrentPrice(), 0.001);
+        assertNull(recovered.getAsset("AAPL"));
+    }
+
+    @Test
+    void testTargetAndReplacedAssetsSurviveRecovery() throws Exception {
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.GROUP_COMMIT)) {
+            journal.attach(portfolio);
+            portfolio.updateTarget("AAPL", 0.45);
+            portfolio.applyAll(List.of(Asset.builder()
+                    .symbol("AAPL")
+                    .name("Apple")
+                    .quantity(12)
+                    .currentPrice(160.0)
+                    .targetAllocation(0.5)
+                    .type(AssetType.ETF)
+                    .build()));
+            portfolio.updateTarget("AAPL", 0.55);
+        }
+
+        Asset recovered = Recovery.recover(snapshotFile, journalFile).get(0).getAsset("AAPL");
+        assertEquals("Apple", recovered.getName());
+        assertEquals(AssetType.ETF, recovered.getType());
+        assertEquals(12.0, recovered.getQuantity());
+        assertEquals(0.55, recovered.getTargetAllocation());
+    }
+
+    @Test
+    void testPortfoliosAreKeyedByIdAcrossRenames() throws Exception {
+        Portfolio sameName = new Portfolio();
+        sameName.setName("Taxable");
+        sameName.setCashBalance(50.0);
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.GROUP_COMMIT)) {
+            journal.attach(portfolio);
+            journal.attach(sameName);
+            portfolio.setName("Brokerage");
+            portfolio.updatePrice("AAPL", 190.0);
+            sameName.setCashBalance(75.0);
+        }
+
+        List<Portfolio> recovered = Recovery.recover(snapshotFile, journalFile);
+
+        assertEquals(2, recovered.size());
+        assertEquals(portfolio.getId(), recovered.get(0).getId());
+        assertEquals("Brokerage", recovered.get(0).getName());
+        assertEquals(190.0, recovered.get(0).getAsset("AAPL").getCurrentPrice(), 0.001);
+        assertEquals(sameName.getId(), recovered.get(1).getId());
+        assertEquals("Taxable", recovered.get(1).getName());
+        assertEquals(75.0, recovered.get(1).getCashBalance(), 0.001);
+        assertTrue(new Portfolio().getId() > sameName.getId());
+    }
+
+    @Test
+    void testReplayAcrossWindowBoundaries() throws Exception {
+        try (MutationJournal journal = MutationJournal.open(journalFile, Durability.ASYNC)) {
+            journal.attach(portfolio);
+            for (int i = 0; i < 200; i++) {
+                portfolio.updatePrice("AAPL", 100.0 + i);
+                mutate(portfolio);
+                portfolio.addAsset(Asset.builder().symbol("AAPL").name("Apple Inc.").quantity(i).currentPrice(150.0).build());
+                portfolio.removeAsset("MSFT");
+            }
+        }
+        Map<Long, Portfolio> windowed = new HashMap<>();
+        Map<Long, Portfolio> whole = new HashMap<>();
+        try (Snapshot snapshot = Snapshot.open(snapshotFile)) {
+            windowed.put(portfolio.getId(), snapshot.getPortfolio(0));
+            whole.put(portfolio.getId(), snapshot.getPortfolio(0));
+        }
+
+        long applied = JournalReader.replay(journalFile, windowed, 64);
+
+        assertEquals(applied, JournalReader.replay(journalFile, whole));
+        assertEquals(1 + 200 * 9, applied);
+        assertEquals(whole, windowed);
+        assertEquals(portfolio.getAssets(), windowed.get(portfolio.getId()).getAssets());
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            assertEquals(Files.size(journalFile), JournalReader.validLength(channel, 29));
+        }
+    }
+
+    @Test
+    void testWriteFailureStopsJournalAndCloseReleasesResources() throws Exception {
+        MutationJournal journal = MutationJournal.open(journalFile, Durability.SYNC);
+        journal.attach(portfolio);
+        portfolio.updatePrice("AAPL", 151.0);
+        long before = Files.size(journalFile);
+        FileChannel channel = (FileChannel) field(journal, "channel");
+        Thread writer = (Thread) field(journal, "writer");
+        channel.close();
+
+        assertThrows(UncheckedIOException.class, () -> portfolio.updatePrice("AAPL", 152.0));
+        assertThrows(UncheckedIOException.class, () -> portfolio.updatePrice("AAPL", 153.0));
+        assertThrows(UncheckedIOException.class, journal::flush);
+        assertThrows(IOException.class, journal::close);
+
+        assertFalse(writer.isAlive());
+        assertEquals(before, Files.size(journalFile));
+        journal.close(); // idempotent once released
+    }
+
+    private static Object field(Object target, String name) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+}
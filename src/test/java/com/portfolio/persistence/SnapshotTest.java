@@ -0,0 +1,87 @@
+package com.portfolio.persistence;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+class SnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private List<Portfolio> portfolios;
+
+    @BeforeEach
+    void setUp() {
+        Portfolio first = new Portfolio();
+        first.setName("Taxable");
+        first.setCashBalance(1000.0);
+        first.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        first.addAsset(Asset.builder()
+                .symbol("BND")
+                .name("Total Bond Market")
+                .quantity(12.5)
+                .currentPrice(72.25)
+                .targetAllocation(0.4)
+                .type(AssetType.BOND)
+                .build());
+
+        Portfolio second = new Portfolio();
+        second.setName("IRA");
+        second.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(3)
+                .currentPrice(150.0)
+                .targetAllocation(1.0)
+                .type(AssetType.STOCK)
+                .build());
+
+        portfolios = List.of(first, second, new Portfolio());
+    }
+
+    @Test
+    void testBinarySnapshotRoundTrip() throws Exception {
+        Path file = tempDir.resolve("book.snap");
+        new SnapshotWriter().write(file, portfolios);
+
+        try (Snapshot snapshot = Snapshot.open(file)) {
+            assertEquals(3, snapshot.size());
+            assertEquals("IRA", snapshot.getPortfolioName(1));
+            assertEquals(portfolios, snapshot.loadAll());
+            assertEquals(3403.125, snapshot.getPortfolio(0).getTotalValue(), 0.001);
+        }
+        assertFalse(Files.exists(tempDir.resolve("book.snap.tmp")));
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        Path file = tempDir.resolve("book.json");
+        JsonPortfolioExporter exporter = new JsonPortfolioExporter();
+        exporter.write(file, portfolios);
+
+        assertEquals(portfolios, exporter.read(file));
+    }
+
+    @Test
+    void testRejectsNonSnapshotFile() throws Exception {
+        Path file = tempDir.resolve("garbage.snap");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> Snapshot.open(file));
+    }
+}
@@ -0,0 +1,327 @@
+package com.portfolio.scheduler;
+
+import com.portfolio.feed.HoldingsIndex;
+import com.portfolio.feed.PriceFeed;
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.service.BatchRebalancer;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class RebalanceSchedulerTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+    private final List<Portfolio> rebalanced = new ArrayList<>();
+    private final List<RebalanceScheduler> schedulers = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (RebalanceScheduler scheduler : schedulers) {
+            scheduler.close();
+        }
+    }
+
+    private RebalanceScheduler createScheduler(double maxPerSecond) {
+        RebalanceScheduler scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .tickMillis(60_000)
+                .batchSize(4)
+                .workerThreads(2)
+                .maxRebalancesPerSecond(maxPerSecond)
+                .clock(clock)
+                .build(), this::collect);
+        schedulers.add(scheduler);
+        return scheduler;
+    }
+
+    private void collect(BatchRebalancer.BatchResult result) {
+        for (BatchRebalancer.PortfolioResult portfolioResult : result.getResults()) {
+            assertTrue(portfolioResult.isSuccess());
+            rebalanced.add(portfolioResult.getPortfolio());
+        }
+    }
+
+    private static Portfolio createPortfolio(String name) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName(name);
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(20)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        return portfolio;
+    }
+
+    @Test
+    void testNextDueDates() {
+        ZoneId utc = ZoneOffset.UTC;
+        RebalancePolicy monthly = RebalancePolicy.builder()
+                .cadence(RebalancePolicy.Cadence.MONTHLY)
+                .dayOfMonth(31)
+                .build();
+        assertEquals(Instant.parse("2024-01-31T00:00:00Z"), monthly.nextDue(Instant.parse("2024-01-15T10:00:00Z"), utc));
+        assertEquals(Instant.parse("2024-02-29T00:00:00Z"), monthly.nextDue(Instant.parse("2024-01-31T00:00:00Z"), utc));
+
+        RebalancePolicy quarterly = RebalancePolicy.quarterly(0.0);
+        assertEquals(Instant.parse("2024-04-01T00:00:00Z"), quarterly.nextDue(Instant.parse("2024-02-10T00:00:00Z"), utc));
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), quarterly.nextDue(Instant.parse("2024-10-01T00:00:00Z"), utc));
+        assertEquals(Instant.parse("2024-03-31T22:00:00Z"),
+                quarterly.nextDue(Instant.parse("2024-02-10T00:00:00Z"), ZoneId.of("Europe/Berlin")));
+
+        assertNull(RebalancePolicy.onDrift(0.05).nextDue(Instant.EPOCH, utc));
+        assertThrows(IllegalArgumentException.class, () -> RebalancePolicy.builder().dayOfMonth(0).build());
+    }
+
+    @Test
+    void testCalendarPoliciesFireOnTheirDates() {
+        RebalanceScheduler scheduler = createScheduler(Double.POSITIVE_INFINITY);
+        Portfolio monthly = createPortfolio("monthly");
+        Portfolio quarterly = createPortfolio("quarterly");
+        scheduler.register("m", monthly, RebalancePolicy.monthly(0.0));
+        scheduler.register("q", quarterly, RebalancePolicy.quarterly(0.0));
+        assertEquals(Instant.parse("2024-02-01T00:00:00Z"), scheduler.getNextDue("m"));
+        assertEquals(Instant.parse("2024-04-01T00:00:00Z"), scheduler.getNextDue("q"));
+
+        clock.set(Instant.parse("2024-01-31T23:59:00Z"));
+        assertEquals(0, scheduler.tick());
+
+        clock.set(Instant.parse("2024-02-01T00:00:30Z"));
+        assertEquals(1, scheduler.tick());
+        assertEquals(List.of(monthly), rebalanced);
+        assertEquals(clock.instant(), scheduler.getLastRun("m"));
+        assertEquals(Instant.parse("2024-03-01T00:00:00Z"), scheduler.getNextDue("m"));
+
+        // a long gap fires each portfolio once, not once per missed date
+        clock.set(Instant.parse("2024-06-10T00:00:00Z"));
+        assertEquals(2, scheduler.tick());
+        assertEquals(Instant.parse("2024-07-01T00:00:00Z"), scheduler.getNextDue("m"));
+        assertEquals(Instant.parse("2024-07-01T00:00:00Z"), scheduler.getNextDue("q"));
+
+        assertTrue(scheduler.unregister("q"));
+        assertEquals(1, scheduler.getScheduledCount());
+        assertNull(scheduler.getPolicy("q"));
+    }
+
+    @Test
+    void testDriftTriggersOnlyDriftPolicies() {
+        RebalanceScheduler scheduler = createScheduler(Double.POSITIVE_INFINITY);
+        Portfolio drifting = createPortfolio("drifting");
+        Portfolio calendar = createPortfolio("calendar");
+        // drifted already when registered, so it is queued at once
+        scheduler.register("d", drifting, RebalancePolicy.onDrift(0.05));
+        scheduler.register("c", calendar, RebalancePolicy.monthly(0.05));
+        assertEquals(1, scheduler.getPendingCount());
+
+        scheduler.onDriftChanged(drifting, true);
+        scheduler.onDriftChanged(calendar, true);
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(1, scheduler.tick());
+        assertEquals(List.of(drifting), rebalanced);
+
+        scheduler.onDriftChanged(drifting, false);
+        assertEquals(0, scheduler.tick());
+        scheduler.onDriftChanged(drifting, true);
+        assertTrue(scheduler.trigger("c"));
+        assertEquals(2, scheduler.tick());
+    }
+
+    @Test
+    void testRateLimitSpreadsDispatchOverTicks() {
+        RebalanceScheduler scheduler = createScheduler(2.0);
+        for (int i = 0; i < 10; i++) {
+            scheduler.register("p" + i, createPortfolio("P" + i), RebalancePolicy.onDrift(0.05));
+        }
+        assertEquals(2, scheduler.tick());
+        assertEquals(0, scheduler.tick());
+        clock.advance(Duration.ofMillis(1500));
+        assertEquals(2, scheduler.tick());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(2, scheduler.tick());
+        assertEquals(4, scheduler.getPendingCount());
+        assertEquals(6, rebalanced.size());
+        assertEquals(6, scheduler.getDispatchedCount());
+    }
+
+    @Test
+    void testRestoreRecomputesDueTimesFromSavedPolicies() throws Exception {
+        Map<String, Portfolio> book = new HashMap<>();
+        book.put("ran", createPortfolio("ran"));
+        book.put("new", createPortfolio("new"));
+
+        RebalanceScheduler before = createScheduler(Double.POSITIVE_INFINITY);
+        before.register("ran", book.get("ran"), RebalancePolicy.monthly(0.0));
+        before.register("new", book.get("new"), RebalancePolicy.builder()
+                .cadence(RebalancePolicy.Cadence.MONTHLY)
+                .dayOfMonth(20)
+                .onDrift(true)
+                .threshold(0.5)
+                .build());
+        before.trigger("ran");
+        before.tick();
+        Path file = tempDir.resolve("policies.bin");
+        before.save(file);
+
+        // down over the first of the month
+        clock.set(Instant.parse("2024-02-03T08:00:00Z"));
+        rebalanced.clear();
+        RebalanceScheduler after = createScheduler(Double.POSITIVE_INFINITY);
+        assertEquals(2, after.restore(file, book::get));
+        assertEquals(before.getPolicy("new"), after.getPolicy("new"));
+        assertEquals(Instant.parse("2024-01-15T10:00:00Z"), after.getLastRun("ran"));
+        assertNull(after.getLastRun("new"));
+        assertEquals(Instant.parse("2024-02-20T00:00:00Z"), after.getNextDue("new"));
+
+        assertEquals(1, after.tick());
+        assertEquals(List.of(book.get("ran")), rebalanced);
+        assertEquals(Instant.parse("2024-03-01T00:00:00Z"), after.getNextDue("ran"));
+    }
+
+    @Test
+    void testStartedSchedulerDispatchesOnItsOwnThread() throws Exception {
+        RebalanceScheduler scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .tickMillis(10)
+                .build(), result -> {
+                    synchronized (rebalanced) {
+                        rebalanced.addAll(List.of(result.getResults().get(0).getPortfolio()));
+                    }
+                });
+        schedulers.add(scheduler);
+        scheduler.start();
+        scheduler.register("p", createPortfolio("P"), RebalancePolicy.onDrift(0.05));
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (scheduler.getDispatchedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, scheduler.getDispatchedCount());
+    }
+
+    @Test
+    void testRebalancesCopiesTakenOnThePortfolioOwner() {
+        List<Runnable> ownerTasks = new ArrayList<>();
+        RebalanceScheduler scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .workerThreads(1)
+                .clock(clock)
+                .portfolioOwner(task -> {
+                    ownerTasks.add(task);
+                    task.run();
+                })
+                .build(), this::collect);
+        schedulers.add(scheduler);
+        Portfolio portfolio = createPortfolio("P");
+        scheduler.register("p", portfolio, RebalancePolicy.onDrift(0.05));
+
+        assertEquals(1, scheduler.tick());
+        assertEquals(1, ownerTasks.size());
+        // the sink sees the registered portfolio, not the copy
+        assertSame(portfolio, rebalanced.get(0));
+        assertEquals(clock.instant(), scheduler.getLastRun("p"));
+    }
+
+    @Test
+    void testStoppedFeedAsOwnerCopiesInline() {
+        PriceFeed feed = new PriceFeed(new HoldingsIndex(), 0.05);
+        RebalanceScheduler scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .workerThreads(1)
+                .clock(clock)
+                .portfolioOwner(feed)
+                .build(), this::collect);
+        schedulers.add(scheduler);
+        Portfolio portfolio = createPortfolio("P");
+        scheduler.register("p", portfolio, RebalancePolicy.onDrift(0.05));
+
+        // the feed was never started, so nothing would ever run the copy
+        assertEquals(1, scheduler.tick());
+        assertSame(portfolio, rebalanced.get(0));
+    }
+
+    @Test
+    void testUnresponsiveOwnerFailsTheTickAndRequeues() {
+        RebalanceScheduler scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .workerThreads(1)
+                .clock(clock)
+                .portfolioOwner(task -> {
+                })
+                .ownerTimeoutMillis(50)
+                .build(), this::collect);
+        schedulers.add(scheduler);
+        scheduler.register("p", createPortfolio("P"), RebalancePolicy.onDrift(0.05));
+
+        assertThrows(IllegalStateException.class, scheduler::tick);
+        assertTrue(rebalanced.isEmpty());
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    @Test
+    void testFailedTicksAreCounted() throws Exception {
+        RebalanceScheduler scheduler = new RebalanceScheduler(SchedulerConfig.builder()
+                .strategy(new ThresholdRebalancingStrategy())
+                .tickMillis(10)
+                .build(), result -> {
+                    throw new IllegalStateException("sink down");
+                });
+        schedulers.add(scheduler);
+        scheduler.register("p", createPortfolio("P"), RebalancePolicy.onDrift(0.05));
+        scheduler.start();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (scheduler.getTickFailureCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(scheduler.getTickFailureCount() > 0);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
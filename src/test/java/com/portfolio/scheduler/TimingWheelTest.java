@@ -0,0 +1,68 @@
+package com.portfolio.scheduler;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+class TimingWheelTest {
+
+    @Test
+    void testEntriesFireExactlyAtTheirDeadlineTick() {
+        SplittableRandom random = new SplittableRandom(3);
+        int count = 20_000;
+        long start = 1_000_003;
+        TimingWheel wheel = new TimingWheel(start, 4);
+        long[] expected = new long[count];
+        long[] fired = new long[count];
+        Arrays.fill(fired, -1);
+        for (int id = 0; id < count; id++) {
+            // spread over every level, including deadlines already past
+            long deadline = start - 10 + (long) Math.pow(2, random.nextDouble(1, 23));
+            wheel.schedule(id, deadline);
+            expected[id] = Math.max(deadline, start + 1);
+        }
+        for (int id = 0; id < count; id += 10) {
+            assertTrue(wheel.cancel(id));
+            expected[id] = -1;
+        }
+        assertFalse(wheel.cancel(0));
+
+        long now = start;
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(5000);
+            wheel.advance(now, id -> {
+                assertEquals(-1, fired[id]);
+                fired[id] = wheel.getCurrentTick();
+            });
+        }
+        assertArrayEquals(expected, fired);
+    }
+
+    @Test
+    void testRescheduleFromCallbackAndFarDeadlines() {
+        TimingWheel wheel = new TimingWheel(0, 1);
+        long far = 1L << 40;
+        wheel.schedule(0, 5);
+        wheel.schedule(1, far);
+        wheel.schedule(0, 7);
+        assertEquals(2, wheel.size());
+
+        long[] hits = new long[2];
+        wheel.advance(20, id -> {
+            hits[id]++;
+            // a deadline that is already due moves to the next tick
+            if (hits[id] < 3) {
+                wheel.schedule(id, 0);
+            }
+        });
+        assertEquals(3, hits[0]);
+        assertTrue(wheel.isScheduled(1));
+
+        wheel.advance(far - 1, id -> fail("fired early"));
+        wheel.advance(far, id -> hits[id]++);
+        assertEquals(1, hits[1]);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,212 @@
+package com.portfolio.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.persistence.JsonPortfolioExporter;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RebalanceServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private RebalanceServer server;
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+        body = new JsonPortfolioExporter().getMapper().writeValueAsBytes(portfolio);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private RebalanceServer start(Map<String, RebalancingStrategy> strategies) throws Exception {
+        return start(strategies, RebalanceServer.DEFAULT_MAX_BODY_BYTES, RebalanceServer.DEFAULT_MAX_PENDING_JOBS);
+    }
+
+    private RebalanceServer start(Map<String, RebalancingStrategy> strategies, int maxBodyBytes, int maxPendingJobs) throws Exception {
+        server = new RebalanceServer(0, strategies, 2, maxBodyBytes, maxPendingJobs);
+        server.start();
+        return server;
+    }
+
+    // Blocks every call until release is counted down.
+    private static RebalancingStrategy slowStrategy(CountDownLatch release, AtomicInteger calls) {
+        RebalancingStrategy delegate = new ThresholdRebalancingStrategy();
+        return new RebalancingStrategy() {
+            @Override
+            public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
+                calls.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return delegate.calculateRebalancingTrades(portfolio, threshold);
+            }
+
+            @Override
+            public String getStrategyName() {
+                return "Slow";
+            }
+
+            @Override
+            public String getStrategyDescription() {
+                return "Waits for the test before rebalancing";
+            }
+        };
+    }
+
+    private void awaitCalls(AtomicInteger calls, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (calls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest post(String query) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/rebalance?" + query))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    @Test
+    void testRebalancesPostedPortfolio() throws Exception {
+        start(RebalanceServer.defaultStrategies());
+
+        HttpResponse<String> response = client.send(post("strategy=threshold&threshold=0.1"),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode json = mapper.readTree(response.body());
+        assertEquals("Test Portfolio", json.get("portfolio").asText());
+        assertEquals(1, json.get("trades").size());
+        JsonNode trade = json.get("trades").get(0);
+        assertEquals("AAPL", trade.get("symbol").asText());
+        assertEquals("BUY", trade.get("action").asText());
+        assertEquals(900.0, trade.get("amount").asDouble(), 0.001);
+    }
+
+    @Test
+    void testRejectsUnknownStrategy() throws Exception {
+        start(RebalanceServer.defaultStrategies());
+
+        HttpResponse<String> response = client.send(post("strategy=magic"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void testCoalescesIdenticalConcurrentRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        start(Map.of("slow", slowStrategy(release, calls)));
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(client.sendAsync(post("strategy=slow&threshold=0.1"), HttpResponse.BodyHandlers.ofString()));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getRequestCount() < 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            HttpResponse<String> result = response.get(10, TimeUnit.SECONDS);
+            assertEquals(200, result.statusCode());
+            assertTrue(result.body().contains("\"AAPL\""));
+        }
+        assertEquals(7, server.getCoalescedCount());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testRejectsOversizedBody() throws Exception {
+        start(RebalanceServer.defaultStrategies(), body.length - 1, RebalanceServer.DEFAULT_MAX_PENDING_JOBS);
+
+        HttpResponse<String> response = client.send(post("strategy=threshold"), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(413, response.statusCode());
+        assertEquals(0, server.getBatchCount());
+    }
+
+    @Test
+    void testRejectsWhenTooManyJobsArePending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        start(Map.of("slow", slowStrategy(release, calls), "threshold", new ThresholdRebalancingStrategy()), 1 << 20, 1);
+
+        CompletableFuture<HttpResponse<String>> blocked = client.sendAsync(post("strategy=slow&threshold=0.1"),
+                HttpResponse.BodyHandlers.ofString());
+        awaitCalls(calls, 1);
+        HttpResponse<String> rejected = client.send(post("strategy=threshold&threshold=0.1"), HttpResponse.BodyHandlers.ofString());
+        release.countDown();
+
+        assertEquals(503, rejected.statusCode());
+        assertEquals(200, blocked.get(10, TimeUnit.SECONDS).statusCode());
+        assertEquals(1, server.getRejectedCount());
+    }
+
+    @Test
+    void testSlowGroupDoesNotHoldUpOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        start(Map.of("slow", slowStrategy(release, calls), "threshold", new ThresholdRebalancingStrategy()));
+
+        CompletableFuture<HttpResponse<String>> blocked = client.sendAsync(post("strategy=slow&threshold=0.1"),
+                HttpResponse.BodyHandlers.ofString());
+        awaitCalls(calls, 1);
+        try {
+            HttpResponse<String> fast = client.sendAsync(post("strategy=threshold&threshold=0.1"), HttpResponse.BodyHandlers.ofString())
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(200, fast.statusCode());
+            assertFalse(blocked.isDone());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(200, blocked.get(10, TimeUnit.SECONDS).statusCode());
+    }
+}
@@ -0,0 +1,90 @@
+package com.portfolio.service;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class BatchRebalancerTest {
+
+    private Portfolio createPortfolio(String name, double appleQuantity) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName(name);
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(appleQuantity)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+        return portfolio;
+    }
+
+    @Test
+    void testResultsMatchSequentialRebalancingInInputOrder() {
+        List<Portfolio> portfolios = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            portfolios.add(createPortfolio("P" + i, 1 + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BatchRebalancer batch = new BatchRebalancer(new ThresholdRebalancingStrategy(), 0.05, executor, 7);
+            BatchRebalancer.BatchResult result = batch.rebalanceAll(portfolios);
+
+            PortfolioRebalancer sequential = new PortfolioRebalancer(new ThresholdRebalancingStrategy(), 0.05);
+            assertEquals(portfolios.size(), result.getResults().size());
+            for (int i = 0; i < portfolios.size(); i++) {
+                BatchRebalancer.PortfolioResult portfolioResult = result.getResults().get(i);
+                assertEquals(i, portfolioResult.getIndex());
+                assertSame(portfolios.get(i), portfolioResult.getPortfolio());
+                assertEquals(sequential.rebalance(portfolios.get(i)), portfolioResult.getTrades());
+            }
+            assertEquals(50, result.getStats().getPortfolioCount());
+            assertEquals(0, result.getStats().getFailedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFailingPortfolioDoesNotAbortBatch() {
+        RebalancingStrategy failOnBroken = new ThresholdRebalancingStrategy() {
+            @Override
+            public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
+                if ("broken".equals(portfolio.getName())) {
+                    throw new IllegalStateException("boom");
+                }
+                return super.calculateRebalancingTrades(portfolio, threshold);
+            }
+        };
+        List<Portfolio> portfolios = List.of(createPortfolio("ok-1", 10), createPortfolio("broken", 10), createPortfolio("ok-2", 10));
+
+        BatchRebalancer.BatchResult result = new BatchRebalancer(failOnBroken, 0.1).rebalanceAll(portfolios.stream());
+
+        assertEquals(1, result.getStats().getFailedCount());
+        assertEquals(2, result.getStats().getRebalancedCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals("broken", result.getFailures().get(0).getPortfolio().getName());
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertTrue(result.getResults().get(2).isSuccess());
+    }
+}
@@ -0,0 +1,140 @@
+package com.portfolio.service;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetClassTargets;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.RebalancingStrategy;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import com.portfolio.strategy.ToleranceBandStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+class PortfolioRebalancerTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+    }
+
+    @Test
+    void testRepeatedCallsOnUnchangedPortfolioHitCache() {
+        PortfolioRebalancer rebalancer = new PortfolioRebalancer(new ThresholdRebalancingStrategy(), 0.1, new RebalanceCache());
+
+        Map<String, Double> first = rebalancer.rebalance(portfolio);
+        Map<String, Double> second = rebalancer.rebalance(portfolio);
+
+        assertSame(first, second);
+        assertEquals(900.0, first.get("AAPL"), 0.001);
+        assertEquals(1, rebalancer.getCache().getHitCount());
+        assertEquals(1, rebalancer.getCache().getMissCount());
+    }
+
+    @Test
+    void testMutationInvalidatesCachedResult() {
+        PortfolioRebalancer rebalancer = new PortfolioRebalancer(new ThresholdRebalancingStrategy(), 0.1, new RebalanceCache());
+        Map<String, Double> before = rebalancer.rebalance(portfolio);
+        long version = portfolio.getVersion();
+
+        portfolio.updatePrice("AAPL", 300.0);
+        Map<String, Double> after = rebalancer.rebalance(portfolio);
+
+        assertTrue(portfolio.getVersion() > version);
+        assertNotEquals(before, after);
+        assertEquals(2, rebalancer.getCache().getMissCount());
+    }
+
+    @Test
+    void testSharedCacheSeparatesThresholdsAndEvictsLeastRecentlyUsed() {
+        RebalanceCache cache = new RebalanceCache(2);
+        ThresholdRebalancingStrategy strategy = new ThresholdRebalancingStrategy();
+        PortfolioRebalancer low = new PortfolioRebalancer(strategy, 0.1, cache);
+        PortfolioRebalancer high = new PortfolioRebalancer(strategy, 0.3, cache);
+
+        assertFalse(low.rebalance(portfolio).isEmpty());
+        assertTrue(high.rebalance(portfolio).isEmpty());
+        assertEquals(2, cache.size());
+
+        Portfolio other = new Portfolio();
+        low.rebalance(other);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testCachingCanBeDisabled() {
+        PortfolioRebalancer rebalancer = new PortfolioRebalancer(new ThresholdRebalancingStrategy(), 0.1, null);
+        assertNotSame(rebalancer.rebalance(portfolio), rebalancer.rebalance(portfolio));
+        assertNull(rebalancer.getCache());
+    }
+
+    @Test
+    void testCachingIsOffByDefault() {
+        assertNull(new PortfolioRebalancer(new ThresholdRebalancingStrategy(), 0.1).getCache());
+    }
+
+    @Test
+    void testStrategyReconfigurationInvalidatesCachedResult() {
+        AssetClassTargets targets = new AssetClassTargets().set(AssetType.STOCK, 0.5, 0.05);
+        PortfolioRebalancer rebalancer = new PortfolioRebalancer(new ToleranceBandStrategy(targets), 0.1, new RebalanceCache());
+        Map<String, Double> before = rebalancer.rebalance(portfolio);
+
+        targets.set(AssetType.STOCK, 0.9, 0.05);
+        Map<String, Double> after = rebalancer.rebalance(portfolio);
+
+        assertNotEquals(before, after);
+        assertEquals(2, rebalancer.getCache().getMissCount());
+    }
+
+    @Test
+    void testUncacheableStrategiesBypassCache() {
+        RebalancingStrategy strategy = new RebalancingStrategy() {
+            @Override
+            public Map<String, Double> calculateRebalancingTrades(Portfolio portfolio, double threshold) {
+                return Map.of();
+            }
+
+            @Override
+            public boolean isCacheable() {
+                return false;
+            }
+
+            @Override
+            public String getStrategyName() {
+                return "Uncacheable";
+            }
+
+            @Override
+            public String getStrategyDescription() {
+                return "Never cached";
+            }
+        };
+        PortfolioRebalancer rebalancer = new PortfolioRebalancer(strategy, 0.1, new RebalanceCache());
+
+        rebalancer.rebalance(portfolio);
+
+        assertEquals(0, rebalancer.getCache().size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.portfolio.service;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.SymbolIndex;
+import com.portfolio.model.TradeList;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class TradeNetterTest {
+    private SymbolIndex symbols;
+    private TradeNetter netter;
+
+    @BeforeEach
+    void setUp() {
+        symbols = new SymbolIndex();
+        netter = new TradeNetter(symbols);
+        netter.add(0, Map.of("AAPL", 100.0, "MSFT", -50.0));
+        netter.add(1, Map.of("AAPL", -60.0, "MSFT", 50.0));
+        netter.add(2, Map.of("AAPL", 20.0));
+    }
+
+    private int lineOf(int account, String symbol) {
+        for (int i = 0; i < netter.getLineCount(); i++) {
+            if (netter.account(i) == account && netter.symbolId(i) == symbols.find(symbol)) {
+                return i;
+            }
+        }
+        throw new AssertionError("No line for " + account + "/" + symbol);
+    }
+
+    @Test
+    void testNetsToOneBlockPerSymbol() {
+        BlockOrders orders = netter.net();
+
+        // MSFT crosses completely and needs no order
+        assertEquals(1, orders.size());
+        assertEquals("AAPL", orders.symbol(0));
+        assertEquals(60.0, orders.net(0), 1e-9);
+        assertEquals(TradeList.Side.BUY, orders.side(0));
+        assertEquals(120.0, orders.grossBuys(0), 1e-9);
+        assertEquals(60.0, orders.grossSells(0), 1e-9);
+        assertEquals(3, orders.lineCount(0));
+        assertEquals(5, orders.getInputLines());
+        assertEquals(0.8, orders.getOrderReduction(), 1e-9);
+        assertEquals(280.0, orders.getGrossNotional(), 1e-9);
+        assertEquals(60.0, orders.getNetNotional(), 1e-9);
+    }
+
+    @Test
+    void testAllocatesFillsProRata() {
+        BlockOrders orders = netter.net();
+
+        double[] full = netter.allocate(orders);
+        for (int i = 0; i < netter.getLineCount(); i++) {
+            assertEquals(netter.amount(i), full[i], 1e-9);
+        }
+
+        // half the block filled: sellers still cross in full, buyers share 60 + 30
+        double[] partial = netter.allocate(orders, new double[]{30.0});
+        assertEquals(75.0, partial[lineOf(0, "AAPL")], 1e-9);
+        assertEquals(15.0, partial[lineOf(2, "AAPL")], 1e-9);
+        assertEquals(-60.0, partial[lineOf(1, "AAPL")], 1e-9);
+        assertEquals(50.0, partial[lineOf(1, "MSFT")], 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> netter.allocate(orders, new double[0]));
+    }
+
+    @Test
+    void testAllocationConservesEachSymbol() {
+        netter.clear();
+        SplittableRandom random = new SplittableRandom(9);
+        for (int i = 0; i < 200_000; i++) {
+            netter.add(random.nextInt(5000), random.nextInt(300), random.nextDouble(-1000, 1000));
+        }
+        BlockOrders orders = netter.net();
+        double[] fills = new double[orders.size()];
+        for (int b = 0; b < fills.length; b++) {
+            fills[b] = Math.abs(orders.net(b)) * random.nextDouble();
+        }
+        double[] done = netter.allocate(orders, fills);
+
+        double[] bySymbol = new double[300];
+        for (int i = 0; i < done.length; i++) {
+            bySymbol[netter.symbolId(i)] += done[i];
+        }
+        for (int b = 0; b < orders.size(); b++) {
+            assertEquals(Math.signum(orders.net(b)) * fills[b], bySymbol[orders.symbolId(b)], 1e-6);
+        }
+        assertTrue(orders.getNetNotional() < orders.getGrossNotional());
+    }
+
+    @Test
+    void testResidueBelowMinNotionalIsNotAnOrder() {
+        netter.clear();
+        int aapl = symbols.idOf("AAPL");
+        int msft = symbols.idOf("MSFT");
+        // 0.1 + 0.2 != 0.3 in binary floating point
+        netter.add(0, aapl, 0.1);
+        netter.add(1, aapl, 0.2);
+        netter.add(2, aapl, -0.3);
+        netter.add(0, msft, 10.0);
+        netter.add(1, msft, -9.995);
+
+        BlockOrders orders = netter.net();
+        assertEquals(0, orders.size());
+        assertEquals(0.0, orders.getNetNotional());
+        double[] done = netter.allocate(orders);
+        assertEquals(0.1, done[0]);
+        assertEquals(-9.995, done[4]);
+
+        TradeNetter fine = new TradeNetter(symbols, 0.001);
+        fine.add(0, msft, 10.0);
+        fine.add(1, msft, -9.995);
+        assertEquals(1, fine.net().size());
+        assertThrows(IllegalArgumentException.class, () -> new TradeNetter(symbols, 0));
+    }
+
+    @Test
+    void testNetsBatchResults() {
+        List<Portfolio> portfolios = new ArrayList<>();
+        for (int i = 0; i <= 20; i++) {
+            Portfolio portfolio = new Portfolio();
+            portfolio.setName("P" + i);
+            portfolio.addAsset(Asset.builder().symbol("AAPL").quantity(i).currentPrice(100.0)
+                    .targetAllocation(0.5).type(AssetType.STOCK).build());
+            portfolio.addAsset(Asset.builder().symbol("BND").quantity(20 - i).currentPrice(100.0)
+                    .targetAllocation(0.5).type(AssetType.BOND).build());
+            portfolios.add(portfolio);
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            BatchRebalancer.BatchResult batch = new BatchRebalancer(new ThresholdRebalancingStrategy(), 0.01, executor, 4)
+                    .rebalanceAll(portfolios);
+            TradeNetter batchNetter = new TradeNetter();
+            batchNetter.add(batch);
+
+            // the accounts are mirror images, so everything crosses internally
+            BlockOrders orders = batchNetter.net();
+            assertEquals(batch.getStats().getTradeCount(), orders.getInputLines());
+            assertEquals(0, orders.size());
+            assertEquals(1.0, orders.getOrderReduction());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.portfolio.simulation;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.strategy.ThresholdRebalancingStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+class MonteCarloSimulatorTest {
+    @TempDir
+    Path tempDir;
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(0.0);
+        String[] symbols = {"AAPL", "MSFT", "BND"};
+        double[] targets = {0.4, 0.3, 0.3};
+        for (int i = 0; i < symbols.length; i++) {
+            portfolio.addAsset(Asset.builder()
+                    .symbol(symbols[i])
+                    .name(symbols[i])
+                    .quantity(targets[i] * 1000)
+                    .currentPrice(100.0)
+                    .targetAllocation(targets[i])
+                    .type(AssetType.STOCK)
+                    .build());
+        }
+    }
+
+    private SimulationConfig.SimulationConfigBuilder config(PriceModel model) {
+        return SimulationConfig.builder()
+                .portfolio(portfolio)
+                .priceModel(model)
+                .strategy("threshold", new ThresholdRebalancingStrategy())
+                .cadence(1)
+                .paths(200)
+                .steps(126)
+                .chunkSize(16);
+    }
+
+    @Test
+    void testCholeskyReproducesCorrelation() {
+        double[][] correlation = {{1.0, 0.5, 0.2}, {0.5, 1.0, 0.3}, {0.2, 0.3, 1.0}};
+        double[] lower = GbmPriceModel.cholesky(correlation);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                double product = 0;
+                for (int k = 0; k < 3; k++) {
+                    product += lower[i * 3 + k] * lower[j * 3 + k];
+                }
+                assertEquals(correlation[i][j], product, 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void testGbmSamplesHaveRequestedCorrelation() {
+        GbmPriceModel model = GbmPriceModel.withConstantCorrelation(2, 0.0, 0.2, 0.8, 252);
+        PriceModel.Generator generator = model.newGenerator();
+        SplittableRandom random = new SplittableRandom(7);
+        double[] returns = new double[2];
+        int n = 50_000;
+        double sx = 0, sy = 0, sxx = 0, syy = 0, sxy = 0;
+        for (int i = 0; i < n; i++) {
+            generator.next(random, returns);
+            double x = Math.log(returns[0]);
+            double y = Math.log(returns[1]);
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            syy += y * y;
+            sxy += x * y;
+        }
+        double cov = sxy / n - sx / n * sy / n;
+        double correlation = cov / Math.sqrt((sxx / n - sx / n * sx / n) * (syy / n - sy / n * sy / n));
+        assertEquals(0.8, correlation, 0.02);
+    }
+
+    @Test
+    void testWiderThresholdsTradeLess() {
+        SimulationResult result = new MonteCarloSimulator(config(GbmPriceModel.independent(3, 0.05, 0.25, 252))
+                .threshold(0.02)
+                .threshold(0.20)
+                .build()).run();
+
+        assertEquals(2, result.getScenarios().size());
+        SimulationResult.ScenarioResult tight = result.getScenarios().get(0);
+        SimulationResult.ScenarioResult wide = result.getScenarios().get(1);
+        assertTrue(tight.getTurnover().getMean() > wide.getTurnover().getMean());
+        assertTrue(tight.getCost().getMean() > wide.getCost().getMean());
+        assertTrue(tight.getMeanDrift().getMean() < wide.getMeanDrift().getMean());
+    }
+
+    @Test
+    void testPathsAreIndependentDraws() {
+        SimulationResult result = new MonteCarloSimulator(config(GbmPriceModel.independent(3, 0.07, 0.18, 252))
+                .threshold(10.0)
+                .steps(252)
+                .paths(2000)
+                .build()).run();
+
+        // buy and hold of three uncorrelated GBM assets: the cross-path mean return is close to the drift
+        assertEquals(0.07, result.getScenarios().get(0).getAnnualReturn().getMean(), 0.015);
+    }
+
+    @Test
+    void testResultsAreReproducibleAcrossRuns() {
+        SimulationConfig config = config(GbmPriceModel.independent(3, 0.05, 0.25, 252)).threshold(0.05).build();
+
+        SimulationResult first = new MonteCarloSimulator(config).run();
+        SimulationResult second = new MonteCarloSimulator(config).run();
+
+        assertEquals(first.getScenarios(), second.getScenarios());
+    }
+
+    @Test
+    void testBootstrapReadsPriceHistory() throws Exception {
+        Path file = tempDir.resolve("prices.csv");
+        Files.write(file, List.of(
+                "date,MSFT,AAPL,BND",
+                "2024-01-02,100,200,50",
+                "2024-01-03,110,210,50",
+                "2024-01-04,99,189,51"));
+
+        BootstrapPriceModel model = BootstrapPriceModel.fromCsv(file, List.of("AAPL", "MSFT", "BND"), 1);
+        SimulationResult result = new MonteCarloSimulator(config(model).threshold(0.05).build()).run();
+
+        assertEquals(3, model.getAssetCount());
+        assertEquals(200, result.getPaths());
+        double[] returns = new double[3];
+        model.newGenerator().next(new SplittableRandom(1), returns);
+        assertTrue(returns[0] == 1.05 || returns[0] == 0.9, "AAPL return " + returns[0]);
+    }
+}
@@ -0,0 +1,94 @@
+package com.portfolio.strategy;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+class CostAwareRebalancingStrategyTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.setCashBalance(1000.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(10)
+                .currentPrice(150.0)
+                .targetAllocation(0.6)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("MSFT")
+                .name("Microsoft Corp.")
+                .quantity(5)
+                .currentPrice(300.0)
+                .targetAllocation(0.4)
+                .type(AssetType.STOCK)
+                .build());
+    }
+
+    @Test
+    void testTradesWholeLotsFundedByCash() {
+        CostAwareRebalancingStrategy strategy = new CostAwareRebalancingStrategy(CostModel.builder()
+                .commissionPerTrade(1.0)
+                .costRate(0.001)
+                .lotSize(1)
+                .build());
+
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, 0.01);
+
+        // AAPL is 22.5% under target (900 dollars); 6 shares at 150 fit in the cash.
+        assertEquals(900.0, trades.get("AAPL"), 0.001);
+        double shares = trades.get("AAPL") / 150.0;
+        assertEquals(Math.rint(shares), shares, 1e-9);
+        double spent = trades.values().stream().mapToDouble(Double::doubleValue).sum();
+        assertTrue(spent <= portfolio.getCashBalance());
+    }
+
+    @Test
+    void testCashConstraintLimitsBuys() {
+        portfolio.setCashBalance(400.0);
+        portfolio.updateTotalValue();
+        CostAwareRebalancingStrategy strategy = new CostAwareRebalancingStrategy(CostModel.builder()
+                .commissionPerTrade(0)
+                .costRate(0)
+                .lotSize(1)
+                .trackingErrorPenalty(1000)
+                .build());
+
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, 0.01);
+
+        double buys = trades.values().stream().filter(amount -> amount > 0).mapToDouble(Double::doubleValue).sum();
+        double sells = -trades.values().stream().filter(amount -> amount < 0).mapToDouble(Double::doubleValue).sum();
+        assertTrue(buys <= portfolio.getCashBalance() + sells + 1e-9, "buys must be funded");
+        assertTrue(trades.get("AAPL") > 0);
+    }
+
+    @Test
+    void testHighCommissionSuppressesSmallTrades() {
+        CostAwareRebalancingStrategy strategy = new CostAwareRebalancingStrategy(CostModel.builder()
+                .commissionPerTrade(10_000)
+                .build());
+
+        assertTrue(strategy.calculateRebalancingTrades(portfolio, 0.01).isEmpty());
+    }
+
+    @Test
+    void testMinimumTradeSize() {
+        CostAwareRebalancingStrategy strategy = new CostAwareRebalancingStrategy(CostModel.builder()
+                .commissionPerTrade(0)
+                .costRate(0)
+                .minTradeValue(1_000)
+                .build());
+
+        assertFalse(strategy.calculateRebalancingTrades(portfolio, 0.01).containsKey("AAPL"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.portfolio.strategy;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import com.portfolio.tax.LotMethod;
+import com.portfolio.tax.LotSale;
+import com.portfolio.tax.TaxLedger;
+import com.portfolio.tax.TaxLot;
+import com.portfolio.tax.TaxRates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+class TaxAwareRebalancingStrategyTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+    private Portfolio portfolio;
+    private TaxLedger ledger;
+    private TaxAwareRebalancingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Taxable");
+        portfolio.setCashBalance(0.0);
+        portfolio.addAsset(Asset.builder()
+                .symbol("AAPL")
+                .name("Apple Inc.")
+                .quantity(100)
+                .currentPrice(100.0)
+                .targetAllocation(0.5)
+                .type(AssetType.STOCK)
+                .build());
+        portfolio.addAsset(Asset.builder()
+                .symbol("BND")
+                .name("Bond ETF")
+                .quantity(50)
+                .currentPrice(100.0)
+                .targetAllocation(0.5)
+                .type(AssetType.BOND)
+                .build());
+        ledger = new TaxLedger(TaxRates.of(0.37, 0.20));
+        strategy = new TaxAwareRebalancingStrategy(p -> ledger, CLOCK);
+    }
+
+    @Test
+    void testSellsOnlyToBandEdgeWhenEveryLotHasAGain() {
+        ledger.buy("AAPL", LocalDate.of(2020, 1, 2), 100, 20.0);
+
+        // AAPL is 2/3 of 15000 against 0.5: target needs 25 shares, the band 17.5
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, 0.05);
+        assertEquals(-1750.0, trades.get("AAPL"), 1e-6);
+        assertEquals(2500.0, trades.get("BND"), 1e-6);
+
+        Map<String, Double> plain = new ThresholdRebalancingStrategy().calculateRebalancingTrades(portfolio, 0.05);
+        assertEquals(-2500.0, plain.get("AAPL"), 1e-6);
+    }
+
+    @Test
+    void testSellsLossLotsFirstAndFurtherTowardTarget() {
+        ledger.buy("AAPL", LocalDate.of(2020, 1, 2), 80, 20.0);
+        TaxLot loss = ledger.buy("AAPL", LocalDate.of(2024, 1, 2), 20, 150.0);
+
+        List<LotSale> sales = strategy.planSales(portfolio, 0.05);
+        assertEquals(1, sales.size());
+        assertEquals(loss.getId(), sales.get(0).getLotId());
+        assertEquals(-2000.0, strategy.calculateRebalancingTrades(portfolio, 0.05).get("AAPL"), 1e-6);
+
+        ledger.execute(sales, LocalDate.now(CLOCK));
+        assertEquals(-1000.0, ledger.getShortTermGain(), 1e-9);
+        assertEquals(80.0, ledger.find("AAPL").getQuantity(), 1e-9);
+    }
+
+    @Test
+    void testSkipsBuysInsideWashSaleWindow() {
+        ledger.buy("BND", LocalDate.of(2024, 1, 2), 60, 120.0);
+        ledger.sell("BND", 10, LotMethod.FIFO, LocalDate.of(2024, 5, 20), 100.0);
+
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, 0.05);
+        assertFalse(trades.containsKey("BND"));
+        assertTrue(trades.containsKey("AAPL"));
+    }
+}
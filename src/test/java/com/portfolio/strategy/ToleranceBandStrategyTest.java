@@ -0,0 +1,147 @@
+package com.portfolio.strategy;
+
+import com.portfolio.model.Asset;
+import com.portfolio.model.AssetClassTargets;
+import com.portfolio.model.AssetType;
+import com.portfolio.model.Portfolio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.portfolio.service.PortfolioRebalancer;
+
+import java.util.Map;
+
+class ToleranceBandStrategyTest {
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setName("Test Portfolio");
+        portfolio.addAsset(asset("AAPL", AssetType.STOCK, 30, 100.0, 0.5));
+        portfolio.addAsset(asset("MSFT", AssetType.STOCK, 40, 100.0, 0.5));
+        portfolio.addAsset(asset("BND", AssetType.BOND, 20, 100.0, 1.0));
+        portfolio.addAsset(asset("GLD", AssetType.COMMODITY, 10, 100.0, 0.0));
+    }
+
+    private Asset asset(String symbol, AssetType type, double quantity, double price, double weightInClass) {
+        return Asset.builder()
+                .symbol(symbol)
+                .name(symbol)
+                .quantity(quantity)
+                .currentPrice(price)
+                .targetAllocation(weightInClass)
+                .type(type)
+                .build();
+    }
+
+    @Test
+    void testClassesInsideBandProduceNoTrades() {
+        AssetClassTargets targets = new AssetClassTargets()
+                .set(AssetType.STOCK, 0.65, 0.1)
+                .set(AssetType.BOND, 0.25, 0.1)
+                .set(AssetType.COMMODITY, 0.10, 0.05);
+
+        // stocks drift 5% and bonds 5%, both inside their 10% bands
+        assertTrue(new ToleranceBandStrategy(targets).calculateRebalancingTrades(portfolio, 0.05).isEmpty());
+    }
+
+    @Test
+    void testOnlyBreachedClassIsDrilledInto() {
+        AssetClassTargets targets = new AssetClassTargets()
+                .set(AssetType.STOCK, 0.5, 0.05)
+                .set(AssetType.BOND, 0.4, 0.25)
+                .set(AssetType.COMMODITY, 0.1, 0.05);
+
+        Map<String, Double> trades = new ToleranceBandStrategy(targets).calculateRebalancingTrades(portfolio, 0.05);
+
+        // stocks are 70% against 50%: each stock goes to half of the 5000 class target
+        assertEquals(-500.0, trades.get("AAPL"), 0.001);
+        assertEquals(-1500.0, trades.get("MSFT"), 0.001);
+        // bonds are 20% against 40% but the band is 25%
+        assertFalse(trades.containsKey("BND"));
+        assertFalse(trades.containsKey("GLD"));
+    }
+
+    @Test
+    void testClassWithoutTargetFallsBackToAssetTargets() {
+        AssetClassTargets targets = new AssetClassTargets().set(AssetType.STOCK, 0.7, 0.05);
+
+        Map<String, Double> trades = new ToleranceBandStrategy(targets).calculateRebalancingTrades(portfolio, 0.05);
+
+        // BND's own 1.0 target is far above its 20% weight; GLD's zero target is 10% below
+        assertEquals(8000.0, trades.get("BND"), 0.001);
+        assertEquals(-1000.0, trades.get("GLD"), 0.001);
+        assertFalse(trades.containsKey("AAPL"));
+    }
+
+    @Test
+    void testClassSumsFollowLaterMutations() {
+        AssetClassTargets targets = new AssetClassTargets()
+                .set(AssetType.STOCK, 0.5, 0.05)
+                .set(AssetType.BOND, 0.4, 0.25)
+                .set(AssetType.COMMODITY, 0.1, 0.05);
+        ToleranceBandStrategy strategy = new ToleranceBandStrategy(targets);
+        strategy.calculateRebalancingTrades(portfolio, 0.05);
+
+        portfolio.updateQuantity("MSFT", 20);
+        portfolio.addAsset(asset("TLT", AssetType.BOND, 20, 100.0, 1.0));
+        portfolio.updateTarget("BND", 3.0);
+
+        // stocks 5000, bonds 4000, commodities 1000 of 10000: every class is on target
+        assertTrue(strategy.calculateRebalancingTrades(portfolio, 0.05).isEmpty());
+
+        portfolio.removeAsset("TLT");
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(portfolio, 0.05);
+        // bonds fall to 2000 of 8000 (25% vs 40%, inside the band); stocks are 62.5%
+        assertEquals(-1000.0, trades.get("AAPL"), 0.001);
+        assertFalse(trades.containsKey("BND"));
+    }
+
+    @Test
+    void testSeesPricesSetOnAssetsDirectly() {
+        Portfolio split = new Portfolio();
+        split.addAsset(asset("S", AssetType.STOCK, 60, 1.0, 1.0));
+        split.addAsset(asset("B", AssetType.BOND, 40, 1.0, 1.0));
+        ToleranceBandStrategy strategy = new ToleranceBandStrategy(new AssetClassTargets()
+                .set(AssetType.STOCK, 0.6, 0.05)
+                .set(AssetType.BOND, 0.4, 0.05));
+        assertTrue(strategy.calculateRebalancingTrades(split, 0.05).isEmpty());
+
+        // the way Backtester and MonteCarloSimulator move prices
+        split.getAsset("S").setCurrentPrice(1.5);
+        split.getAsset("B").setCurrentPrice(0.25);
+        split.updateTotalValue();
+
+        Map<String, Double> trades = strategy.calculateRebalancingTrades(split, 0.05);
+        assertEquals(-30.0, trades.get("S"), 0.001);
+        assertEquals(30.0, trades.get("B"), 0.001);
+    }
+
+    @Test
+    void testSubCentTradesAreDropped() {
+        AssetClassTargets targets = new AssetClassTargets().set(AssetType.STOCK, 0.5, 0.05);
+        // AAPL already sits on its quarter of the portfolio, up to rounding
+        portfolio.updateQuantity("AAPL", 70.0 / 3);
+
+        Map<String, Double> trades = new ToleranceBandStrategy(targets).calculateRebalancingTrades(portfolio, 0.05);
+
+        assertFalse(trades.containsKey("AAPL"));
+        assertEquals(-1666.667, trades.get("MSFT"), 0.001);
+    }
+
+    @Test
+    void testRebalancerDoesNotGateOnAssetTargets() {
+        Portfolio onAssetTargets = new Portfolio();
+        onAssetTargets.addAsset(asset("AAPL", AssetType.STOCK, 50, 100.0, 0.5));
+        onAssetTargets.addAsset(asset("BND", AssetType.BOND, 50, 100.0, 0.5));
+        assertFalse(onAssetTargets.needsRebalancing(0.05));
+
+        // the stock class is 50% against a 20% class target
+        AssetClassTargets targets = new AssetClassTargets().set(AssetType.STOCK, 0.2, 0.05);
+        Map<String, Double> trades = new PortfolioRebalancer(new ToleranceBandStrategy(targets), 0.05, null).rebalance(onAssetTargets);
+
+        assertEquals(-3000.0, trades.get("AAPL"), 0.001);
+    }
+}
@@ -0,0 +1,111 @@
+package com.portfolio.tax;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+class TaxLotsTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 1);
+    private static final TaxRates RATES = TaxRates.of(0.37, 0.20);
+
+    private TaxLots lots;
+    private TaxLot old;
+    private TaxLot expensive;
+    private TaxLot recent;
+
+    @BeforeEach
+    void setUp() {
+        lots = new TaxLots("AAPL");
+        old = lots.buy(LocalDate.of(2020, 3, 1), 10, 50.0);
+        expensive = lots.buy(LocalDate.of(2023, 12, 1), 10, 180.0);
+        recent = lots.buy(LocalDate.of(2024, 2, 1), 10, 120.0);
+    }
+
+    private static List<Long> lotIds(List<LotSale> sales) {
+        return sales.stream().map(LotSale::getLotId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSelectsInMethodOrder() {
+        assertEquals(List.of(old.getId(), expensive.getId()), lotIds(lots.select(15, LotMethod.FIFO, TODAY, 150.0, RATES)));
+        assertEquals(List.of(recent.getId(), expensive.getId()), lotIds(lots.select(15, LotMethod.LIFO, TODAY, 150.0, RATES)));
+        assertEquals(List.of(expensive.getId(), recent.getId()), lotIds(lots.select(15, LotMethod.HIFO, TODAY, 150.0, RATES)));
+
+        List<LotSale> sales = lots.select(15, LotMethod.FIFO, TODAY, 150.0, RATES);
+        assertEquals(5.0, sales.get(1).getQuantity());
+        assertTrue(sales.get(0).isLongTerm());
+        assertEquals(1000.0, sales.get(0).getGain(), 1e-9);
+        assertEquals(200.0, sales.get(0).getTax(), 1e-9);
+        // selecting changes nothing
+        assertEquals(30.0, lots.getQuantity());
+    }
+
+    @Test
+    void testTaxOptimalPrefersLossesThenLowestTax() {
+        // at 130: expensive is a loss, recent a short-term gain of 10 (3.70 tax),
+        // old a long-term gain of 80 (16.00 tax)
+        List<LotSale> sales = lots.select(25, LotMethod.TAX_OPTIMAL, TODAY, 130.0, RATES);
+        assertEquals(List.of(expensive.getId(), recent.getId(), old.getId()), lotIds(sales));
+        assertTrue(sales.get(0).getTax() < 0);
+
+        // the same lots a year earlier are all short-term
+        assertFalse(lots.select(1, LotMethod.FIFO, LocalDate.of(2020, 6, 1), 130.0, RATES).get(0).isLongTerm());
+        assertTrue(lots.select(1, LotMethod.FIFO, TODAY, 130.0, RATES).get(0).isLongTerm());
+
+        // beyond the required shares only untaxed lots are taken
+        assertEquals(List.of(expensive.getId()),
+                lotIds(lots.select(5, 25, LotMethod.TAX_OPTIMAL, TODAY, 130.0, RATES)));
+    }
+
+    @Test
+    void testSellingReducesAndClosesLots() {
+        lots.sell(12, LotMethod.HIFO, TODAY, 150.0, RATES);
+        assertEquals(18.0, lots.getQuantity(), 1e-9);
+        assertEquals(2, lots.size());
+        assertNull(lots.getLot(expensive.getId()));
+        assertEquals(8.0, lots.getLot(recent.getId()).getQuantity(), 1e-9);
+        assertEquals(10 * 50.0 + 8 * 120.0, lots.getCostBasis(), 1e-9);
+
+        LotSale sale = lots.sellLot(old.getId(), 4, TODAY, 150.0, RATES);
+        assertEquals(400.0, sale.getGain(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> lots.sellLot(old.getId(), 7, TODAY, 150.0, RATES));
+    }
+
+    @Test
+    void testWashSales() {
+        TaxLedger ledger = new TaxLedger(RATES);
+        ledger.buy("XYZ", LocalDate.of(2024, 1, 2), 10, 100.0);
+        ledger.buy("XYZ", LocalDate.of(2024, 5, 20), 1, 90.0);
+
+        List<LotSale> sales = ledger.sell("XYZ", 10, LotMethod.FIFO, TODAY, 80.0);
+        assertTrue(sales.get(0).isWashSale());
+        assertEquals(0.0, sales.get(0).getTax());
+        assertEquals(200.0, ledger.getDisallowedLoss(), 1e-9);
+        assertEquals(0.0, ledger.getShortTermGain());
+        assertTrue(ledger.find("XYZ").isInWashSaleWindow(TODAY.plusDays(30)));
+        assertFalse(ledger.find("XYZ").isInWashSaleWindow(TODAY.plusDays(31)));
+    }
+
+    @Test
+    void testSelectionVisitsOnlyTheLotsItSells() {
+        TaxLots many = new TaxLots("MANY");
+        SplittableRandom random = new SplittableRandom(1);
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < 20_000; i++) {
+            many.buy(start.plusDays(random.nextInt(3400)), 1 + random.nextInt(100), 10 + random.nextDouble(200));
+        }
+        many.select(1, LotMethod.TAX_OPTIMAL, TODAY, 100.0, RATES);
+
+        long start2 = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            many.select(50, LotMethod.TAX_OPTIMAL, TODAY.plusDays(i % 3), 100.0, RATES);
+        }
+        assertTrue(System.nanoTime() - start2 < 2_000_000_000L);
+        assertEquals(20_000, many.size());
+    }
+}